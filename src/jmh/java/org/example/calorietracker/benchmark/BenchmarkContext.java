@@ -0,0 +1,144 @@
+package org.example.calorietracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.config.MealArchiveProperties;
+import org.example.calorietracker.config.PaginationProperties;
+import org.example.calorietracker.config.ParallelQueryProperties;
+import org.example.calorietracker.config.PartitionProperties;
+import org.example.calorietracker.config.ReportCoalescingProperties;
+import org.example.calorietracker.config.ReportSnapshotProperties;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.mapper.DishMapperImpl;
+import org.example.calorietracker.mapper.FoodItemMapperImpl;
+import org.example.calorietracker.mapper.JsonNullableMapperImpl;
+import org.example.calorietracker.mapper.MealMapperImpl;
+import org.example.calorietracker.mapper.ReferenceMapperImpl;
+import org.example.calorietracker.mapper.UserMapperImpl;
+import org.example.calorietracker.repository.DailyNutritionSummaryRepository;
+import org.example.calorietracker.repository.DailyReportSnapshotRepository;
+import org.example.calorietracker.repository.DishRepository;
+import org.example.calorietracker.repository.FoodItemRepository;
+import org.example.calorietracker.repository.MealArchiveDayRepository;
+import org.example.calorietracker.repository.MealFoodItemRepository;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.repository.RollingWindowSnapshotRepository;
+import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.DataVersionService;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.example.calorietracker.service.KeysetPagination;
+import org.example.calorietracker.service.MealArchiveService;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.ParallelQueryExecutor;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.example.calorietracker.service.ReportRequestCoalescer;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.example.calorietracker.service.UserService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spring-контекст для бенчмарков: настоящие мапперы и сервисы поверх репозиториев,
+ * отвечающих из {@link BenchmarkDataset} в памяти. Транзакции и кеш не подключаются,
+ * поэтому измеряется только код приложения без базы данных и прокси.
+ *
+ * <p>Репозитории реализуют только методы, которые вызываются бенчмарками;
+ * вызов любого другого метода завершается {@link UnsupportedOperationException}.
+ */
+public final class BenchmarkContext implements AutoCloseable {
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    public BenchmarkContext(BenchmarkDataset dataset) {
+        context.registerBean(MealRepository.class, () -> repository(MealRepository.class, Map.of(
+                "findByUserIdAndEatenAtRange", args -> dataset.getMeals((Instant) args[1], (Instant) args[2]))));
+        context.registerBean(DishRepository.class, () -> repository(DishRepository.class, Map.of(
+                "findAllById", args -> StreamSupport.stream(((Iterable<?>) args[0]).spliterator(), false)
+                        .map(id -> dataset.getDish((Long) id))
+                        .filter(Objects::nonNull)
+                        .toList())));
+        context.registerBean(FoodItemRepository.class, () -> repository(FoodItemRepository.class, Map.of()));
+        context.registerBean(MealFoodItemRepository.class, () -> repository(MealFoodItemRepository.class, Map.of()));
+        context.registerBean(UserRepository.class, () -> repository(UserRepository.class, Map.of(
+                "findById", args -> Optional.of(dataset.getUser()),
+                "save", args -> args[0])));
+        context.registerBean(DailyNutritionSummaryRepository.class, () -> repository(
+                DailyNutritionSummaryRepository.class, Map.of(
+                        "findByUserIdAndDateRange", args -> dataset.getNutrition((LocalDate) args[1], (LocalDate) args[2]),
+                        "findCaloriesByUserIdAndDate", args -> Optional.ofNullable(dataset.getNutrition((LocalDate) args[1]))
+                                .map(DailyNutrition::getTotalCalories))));
+        // Снимков нет, поэтому бенчмарки измеряют формирование отчетов из исходных данных
+        context.registerBean(DailyReportSnapshotRepository.class, () -> repository(
+                DailyReportSnapshotRepository.class, Map.of(
+                        "findById", args -> Optional.empty(),
+                        "findByUserIdAndDateRange", args -> List.of())));
+        // Архив пуст: все приемы пищи набора данных находятся в горячих таблицах
+        context.registerBean(MealArchiveDayRepository.class, () -> repository(
+                MealArchiveDayRepository.class, Map.of(
+                        "findByUserIdAndDateRange", args -> List.of())));
+        context.registerBean(RollingWindowSnapshotRepository.class, () -> repository(
+                RollingWindowSnapshotRepository.class, Map.of()));
+        context.registerBean(EntityManager.class, () -> repository(EntityManager.class, Map.of(
+                "close", args -> null)));
+        context.registerBean(ObjectMapper.class, () -> new ObjectMapper());
+        // Таблицы в памяти не секционированы
+        context.registerBean(PartitionProperties.class, () -> {
+            PartitionProperties properties = new PartitionProperties();
+            properties.setEnabled(false);
+            return properties;
+        });
+        context.registerBean(ReadYourWritesTracker.class, () -> new ReadYourWritesTracker(Duration.ofSeconds(5)));
+        context.registerBean(PlatformTransactionManager.class, () -> repository(PlatformTransactionManager.class, Map.of()));
+        context.register(MealMapperImpl.class, DishMapperImpl.class, UserMapperImpl.class,
+                ReferenceMapperImpl.class, JsonNullableMapperImpl.class, FoodItemMapperImpl.class,
+                PaginationProperties.class, KeysetPagination.class,
+                ParallelQueryProperties.class, ParallelQueryExecutor.class,
+                ReportCoalescingProperties.class, ReportRequestCoalescer.class,
+                ReportSnapshotProperties.class, ReportSnapshotService.class,
+                DishAutocompleteProperties.class, DishAutocompleteService.class,
+                MealArchiveProperties.class, MealArchiveService.class,
+                PartitionMaintenanceService.class,
+                DataVersionService.class, DailyNutritionSummaryService.class, UserService.class, MealService.class);
+        context.refresh();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemory" + type.getSimpleName();
+                };
+            }
+            Function<Object[], Object> handler = handlers.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return handler.apply(args);
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.calorietracker.benchmark;
+
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Детерминированный набор данных одного пользователя для бенчмарков:
+ * приемы пищи с блюдами за каждый день периода и готовые дневные сводки.
+ * Пользователь живет в UTC, приемы пищи приходятся на середину дня.
+ */
+public class BenchmarkDataset {
+    public static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+
+    private final User user;
+    private final NavigableMap<LocalDate, List<Meal>> mealsByDate = new TreeMap<>();
+    private final NavigableMap<LocalDate, DailyNutrition> nutritionByDate = new TreeMap<>();
+    private final Map<Long, Dish> dishesById = new HashMap<>();
+
+    /**
+     * @param days количество дней истории, заканчивающейся {@link #LAST_DAY}
+     * @param mealsPerDay количество приемов пищи в день
+     * @param dishesPerMeal количество блюд в приеме пищи
+     */
+    public BenchmarkDataset(int days, int mealsPerDay, int dishesPerMeal) {
+        Random random = new Random(42);
+        user = new User();
+        user.setId(1L);
+        user.setName("Benchmark User");
+        user.setEmail("benchmark@example.com");
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        user.setDailyCalorieIntake(2500.0);
+        user.setMeals(new ArrayList<>());
+
+        long mealId = 1;
+        long dishId = 1;
+        for (LocalDate date = LAST_DAY.minusDays(days - 1); !date.isAfter(LAST_DAY); date = date.plusDays(1)) {
+            List<Meal> meals = new ArrayList<>();
+            double[] totals = new double[4];
+            for (int m = 0; m < mealsPerDay; m++) {
+                Meal meal = new Meal();
+                meal.setId(mealId++);
+                meal.setEatenAt(date.atTime(12, 0).toInstant(ZoneOffset.UTC));
+                meal.setUser(user);
+                meal.setDishes(new ArrayList<>());
+                for (int d = 0; d < dishesPerMeal; d++) {
+                    Dish dish = new Dish();
+                    dish.setId(dishId++);
+                    dish.setName("Dish " + dish.getId());
+                    dish.setCalories(50 + random.nextInt(600));
+                    dish.setProteins(random.nextInt(40));
+                    dish.setFats(random.nextInt(30));
+                    dish.setCarbohydrates(random.nextInt(80));
+                    dish.setMeal(meal);
+                    meal.getDishes().add(dish);
+                    dishesById.put(dish.getId(), dish);
+
+                    totals[0] += dish.getCalories();
+                    totals[1] += dish.getProteins();
+                    totals[2] += dish.getFats();
+                    totals[3] += dish.getCarbohydrates();
+                }
+                meals.add(meal);
+                user.getMeals().add(meal);
+            }
+            mealsByDate.put(date, meals);
+            nutritionByDate.put(date, new Nutrition(date, totals[0], totals[1], totals[2], totals[3]));
+        }
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public List<Meal> getMeals(LocalDate date) {
+        return mealsByDate.getOrDefault(date, List.of());
+    }
+
+    public List<Meal> getMeals(Instant start, Instant end) {
+        List<Meal> meals = new ArrayList<>();
+        mealsByDate.subMap(LocalDate.ofInstant(start, ZoneOffset.UTC), true, LocalDate.ofInstant(end, ZoneOffset.UTC), true)
+                .values().forEach(dayMeals -> dayMeals.stream()
+                        .filter(meal -> !meal.getEatenAt().isBefore(start) && meal.getEatenAt().isBefore(end))
+                        .forEach(meals::add));
+        return meals;
+    }
+
+    public List<DailyNutrition> getNutrition(LocalDate startDate, LocalDate endDate) {
+        return new ArrayList<>(nutritionByDate.subMap(startDate, endDate).values());
+    }
+
+    public DailyNutrition getNutrition(LocalDate date) {
+        return nutritionByDate.get(date);
+    }
+
+    public Dish getDish(Long id) {
+        return dishesById.get(id);
+    }
+
+    private record Nutrition(LocalDate getDate, Double getTotalCalories, Double getTotalProteins,
+                             Double getTotalFats, Double getTotalCarbohydrates) implements DailyNutrition {
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.calorietracker.benchmark;
+
+import org.example.calorietracker.search.DishNameIndex;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк индекса автодополнения названий блюд.
+ * {@code suggestShortPrefix} выбирает первые 10 названий из самого большого диапазона (одна буква),
+ * {@code suggestLongPrefix} — из узкого диапазона.
+ *
+ * <p>{@code footprint} измеряет память индекса: полный размер графа его объектов
+ * ({@link GraphLayout#totalSize()}) и оценку {@link DishNameIndex#estimatedSizeInBytes()},
+ * по которой строится метрика автодополнения. Значения выводятся счетчиками JMH
+ * ({@code footprint:retainedBytes}, {@code footprint:retainedBytesPerName}, {@code footprint:estimatedBytes}),
+ * а время этого бенчмарка не показательно.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DishAutocompleteBenchmark {
+    private static final String[] WORDS = {
+            "oatmeal", "chicken", "rice", "salad", "salmon", "yogurt", "pasta", "apple", "soup", "eggs",
+            "beef", "tomato", "cheese", "bread", "potato", "banana", "tuna", "beans", "corn", "pancakes"
+    };
+
+    @Param({"100000", "1000000"})
+    private int names;
+
+    private DishNameIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Map<String, Long> usageByName = new HashMap<>();
+        while (usageByName.size() < names) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1000);
+            // Частоты распределены неравномерно: небольшая часть названий используется намного чаще
+            usageByName.merge(name, (long) (1 / (random.nextDouble() + 0.001)), Long::sum);
+        }
+        index = DishNameIndex.build(usageByName);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public int footprint(Footprint footprint) {
+        return index.size();
+    }
+
+    @Benchmark
+    public List<DishNameIndex.Entry> suggestShortPrefix() {
+        return index.suggest("s", 10);
+    }
+
+    @Benchmark
+    public List<DishNameIndex.Entry> suggestLongPrefix() {
+        return index.suggest("salmon pas", 10);
+    }
+
+    @Benchmark
+    public List<DishNameIndex.Entry> suggestNoMatch() {
+        return index.suggest("zucchini", 10);
+    }
+
+    /**
+     * Счетчики памяти индекса. Граф объектов обходится перед единственной итерацией
+     * {@code footprint}, поэтому обход не попадает в измерение и значения не суммируются
+     * по нескольким итерациям.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+        public long estimatedBytes;
+        private int names;
+
+        @Setup(Level.Iteration)
+        public void measure(DishAutocompleteBenchmark benchmark) {
+            retainedBytes = GraphLayout.parseInstance(benchmark.index).totalSize();
+            estimatedBytes = benchmark.index.estimatedSizeInBytes();
+            names = benchmark.index.size();
+        }
+
+        public double retainedBytesPerName() {
+            return names == 0 ? 0 : (double) retainedBytes / names;
+        }
+    }
+}
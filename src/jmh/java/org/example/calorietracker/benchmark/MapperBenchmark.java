@@ -0,0 +1,95 @@
+package org.example.calorietracker.benchmark;
+
+import org.example.calorietracker.dto.dish.DishDTO;
+import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.dto.user.UserDTO;
+import org.example.calorietracker.mapper.DishMapper;
+import org.example.calorietracker.mapper.MealMapper;
+import org.example.calorietracker.mapper.UserMapper;
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки преобразований сущностей в DTO и обратно.
+ * {@code mealDtoToEntity} и {@code dishIdsToEntities} включают загрузку блюд
+ * по идентификаторам из репозитория в памяти.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private BenchmarkContext context;
+    private MealMapper mealMapper;
+    private DishMapper dishMapper;
+    private UserMapper userMapper;
+
+    private User user;
+    private Meal meal;
+    private Dish dish;
+    private MealDTO mealDTO;
+    private List<Long> dishIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDataset dataset = new BenchmarkDataset(30, 3, 4);
+        context = new BenchmarkContext(dataset);
+        mealMapper = context.getBean(MealMapper.class);
+        dishMapper = context.getBean(DishMapper.class);
+        userMapper = context.getBean(UserMapper.class);
+
+        user = dataset.getUser();
+        meal = dataset.getMeals(BenchmarkDataset.LAST_DAY).get(0);
+        dish = meal.getDishes().get(0);
+        mealDTO = mealMapper.map(meal);
+        dishIds = mealDTO.getDishIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MealDTO mealToDto() {
+        return mealMapper.map(meal);
+    }
+
+    @Benchmark
+    public Meal mealDtoToEntity() {
+        return mealMapper.map(mealDTO);
+    }
+
+    @Benchmark
+    public List<Dish> dishIdsToEntities() {
+        return mealMapper.longToDish(dishIds);
+    }
+
+    @Benchmark
+    public DishDTO dishToDto() {
+        return dishMapper.map(dish);
+    }
+
+    @Benchmark
+    public UserDTO userToDto() {
+        return userMapper.map(user);
+    }
+}
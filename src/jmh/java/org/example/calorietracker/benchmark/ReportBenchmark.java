@@ -0,0 +1,66 @@
+package org.example.calorietracker.benchmark;
+
+import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.service.MealService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки сборки отчетов в {@link MealService} по данным в памяти:
+ * три приема пищи по четыре блюда в день за год.
+ * Измеряется группировка, маппинг и заполнение пропущенных дней без обращения к базе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+    @Param({"7", "30", "365"})
+    private int historyDays;
+
+    private BenchmarkContext context;
+    private MealService mealService;
+    private Long userId;
+    private LocalDate startDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDataset dataset = new BenchmarkDataset(365, 3, 4);
+        context = new BenchmarkContext(dataset);
+        mealService = context.getBean(MealService.class);
+        userId = dataset.getUser().getId();
+        startDate = BenchmarkDataset.LAST_DAY.minusDays(historyDays - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DailyReport dailyReport() {
+        return mealService.getDailyReport(userId, BenchmarkDataset.LAST_DAY);
+    }
+
+    @Benchmark
+    public List<DailyReport> nutritionHistory() {
+        return mealService.getNutritionHistory(userId, startDate, BenchmarkDataset.LAST_DAY);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.calorietracker.benchmark;
+
+import org.example.calorietracker.dto.user.UserCreateDTO;
+import org.example.calorietracker.dto.user.UserDTO;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк создания пользователя: маппинг DTO, расчет BMR по формуле
+ * Миффлина-Сан Жеора и дневной нормы калорий для каждой цели.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+    @Param({"WEIGHT_LOSS", "MAINTENANCE", "WEIGHT_GAIN"})
+    private GoalType goal;
+
+    private BenchmarkContext context;
+    private UserService userService;
+    private UserCreateDTO createDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(new BenchmarkDataset(1, 1, 1));
+        userService = context.getBean(UserService.class);
+        createDTO = new UserCreateDTO("Benchmark User", "benchmark@example.com",
+                30, 75.0, 180.0, GenderType.FEMALE, goal, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO createWithDailyIntake() {
+        return userService.create(createDTO);
+    }
+}
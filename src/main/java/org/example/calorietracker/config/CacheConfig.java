@@ -0,0 +1,48 @@
+package org.example.calorietracker.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация кеширования. Кеши создаются Spring Boot на базе Caffeine;
+ * размер и время жизни записей задаются свойством {@code spring.cache.caffeine.spec}.
+ * Статистика попаданий и промахов публикуется в метриках {@code cache.gets}.
+ *
+ * <p>Менеджер кешей оборачивается в {@link TransactionAwareCacheManagerProxy}: записи,
+ * сброшенные в транзакции ({@code @CacheEvict}), удаляются после ее фиксации. Иначе
+ * параллельное чтение между сбросом и фиксацией снова закешировало бы прежнее значение.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    /**
+     * Кеш дневной нормы калорий пользователя по его идентификатору.
+     */
+    public static final String DAILY_CALORIE_INTAKE_CACHE = "dailyCalorieIntake";
+
+    /**
+     * Кеш часового пояса пользователя по его идентификатору.
+     */
+    public static final String USER_ZONE_CACHE = "userZone";
+
+    /**
+     * Оборачивает менеджер кешей, созданный Spring Boot, сохраняя его автоконфигурацию.
+     */
+    @Bean
+    public static BeanPostProcessor transactionAwareCacheManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager
+                        && !(bean instanceof TransactionAwareCacheManagerProxy)) {
+                    return new TransactionAwareCacheManagerProxy(cacheManager);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничения одновременных обращений к базе данных.
+ * Задаются свойствами с префиксом {@value #PREFIX}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = DataSourceConcurrencyProperties.PREFIX)
+public class DataSourceConcurrencyProperties {
+    public static final String PREFIX = "app.datasource.concurrency";
+
+    /**
+     * Максимальное количество одновременно открытых соединений. 0 отключает ограничение.
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * Максимальное время ожидания свободного соединения, после которого запрос завершается ошибкой.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,85 @@
+package org.example.calorietracker.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.calorietracker.datasource.ConcurrencyLimitingDataSource;
+import org.example.calorietracker.datasource.ReadYourWritesInterceptor;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Конфигурация источников данных.
+ *
+ * <p>Если задано свойство {@code app.datasource.concurrency.max-concurrent}, каждый пул
+ * соединений оборачивается в {@link ConcurrencyLimitingDataSource}, чтобы при всплеске
+ * запросов не открывать к PostgreSQL больше соединений, чем он обслуживает без деградации.
+ *
+ * <p>Здесь же настраивается отслеживание недавних изменений для маршрутизации чтения
+ * в реплику (см. {@link ReplicaDataSourceConfig}).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Постпроцессор создается до привязки {@code @ConfigurationProperties},
+     * поэтому настройки читаются из окружения напрямую. Обертки и маршрутизаторы
+     * над пулами не ограничиваются повторно.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        DataSourceConcurrencyProperties properties = Binder.get(environment)
+                .bind(DataSourceConcurrencyProperties.PREFIX, DataSourceConcurrencyProperties.class)
+                .orElseGet(DataSourceConcurrencyProperties::new);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (properties.getMaxConcurrent() > 0
+                        && bean instanceof DataSource dataSource
+                        && !(bean instanceof DelegatingDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new ConcurrencyLimitingDataSource(beanName, dataSource,
+                            properties.getMaxConcurrent(), properties.getAcquireTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Публикует заполненность ограничений, если они включены.
+     */
+    @Bean
+    public MeterBinder dataSourceConcurrencyMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.values().forEach(dataSource -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource limitingDataSource) {
+                limitingDataSource.bindTo(registry);
+            }
+        });
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaDataSourceProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor());
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки автодополнения названий блюд.
+ * Задаются свойствами с префиксом {@code app.dish-autocomplete}.
+ * Период перестроения индекса задается свойством {@code app.dish-autocomplete.refresh-interval}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.dish-autocomplete")
+public class DishAutocompleteProperties {
+    /**
+     * Количество подсказок, если клиент не указал его явно.
+     */
+    private int defaultLimit = 10;
+
+    /**
+     * Максимальное количество подсказок. Запрошенные значения больше него уменьшаются до него.
+     */
+    private int maxLimit = 20;
+
+    /**
+     * Максимальное количество различных названий, накапливаемых между перестроениями индекса.
+     * Новые названия сверх него появляются в подсказках только после перестроения.
+     */
+    private int maxPendingNames = 10_000;
+}
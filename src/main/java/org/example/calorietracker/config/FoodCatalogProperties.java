@@ -0,0 +1,26 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки поиска по каталогу продуктов.
+ * Задаются свойствами с префиксом {@code app.food-catalog}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.food-catalog")
+public class FoodCatalogProperties {
+    /**
+     * Дополнять результаты префиксного поиска нечетким поиском по триграммам.
+     * Требует PostgreSQL с расширением {@code pg_trgm}.
+     */
+    private boolean fuzzySearch = true;
+
+    /**
+     * Минимальная длина запроса для нечеткого поиска. На более коротких запросах
+     * триграммы почти ничего не отсекают и поиск сводится к просмотру индекса целиком.
+     */
+    private int fuzzyMinLength = 3;
+}
@@ -0,0 +1,21 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки переноса старых приемов пищи в архив ({@code meal_archive_days}).
+ * Задаются свойствами с префиксом {@code app.archive}; расписание задачи —
+ * свойством {@code app.archive.cron}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.archive")
+public class MealArchiveProperties {
+    /**
+     * Количество последних дней пользователя (включая текущий), приемы пищи которых
+     * остаются в таблицах {@code meals} и {@code dishes}. Более ранние дни переносятся в архив.
+     */
+    private int hotDays = 90;
+}
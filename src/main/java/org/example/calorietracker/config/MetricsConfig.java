@@ -0,0 +1,55 @@
+package org.example.calorietracker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.calorietracker.metrics.RangeTaggingObservationConvention;
+import org.example.calorietracker.metrics.StatementCountFilter;
+import org.example.calorietracker.metrics.StatementCounter;
+import org.example.calorietracker.service.ReportRequestCoalescer;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация метрик приложения. Метрики публикуются в формате Prometheus
+ * на {@code /actuator/prometheus}:
+ * <ul>
+ *   <li>{@value #SERVICE_TIMER} — время выполнения методов сервисов, отмеченных {@code @Timed}
+ *   (теги {@code class}, {@code method}, {@code exception})</li>
+ *   <li>{@code http.server.requests} — время обработки запросов с тегом длины периода
+ *   {@value RangeTaggingObservationConvention#RANGE_TAG}</li>
+ *   <li>{@value StatementCountFilter#METRIC_NAME} — количество SQL-запросов на HTTP-запрос</li>
+ *   <li>{@value ReportRequestCoalescer#REQUESTS_COUNTER} — запросы отчетов, сформировавшие отчет
+ *   ({@code role=leader}) или присоединившиеся к такому же ({@code role=follower})</li>
+ *   <li>{@code hikaricp.connections.*} — заполненность пула соединений (публикуется Spring Boot)</li>
+ * </ul>
+ */
+@Configuration
+public class MetricsConfig {
+    /**
+     * Имя таймера методов сервисов.
+     */
+    public static final String SERVICE_TIMER = "calorietracker.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public RangeTaggingObservationConvention rangeTaggingObservationConvention() {
+        return new RangeTaggingObservationConvention();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(new StatementCountFilter(meterRegistry));
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки курсорной пагинации списков.
+ * Задаются свойствами с префиксом {@code app.pagination}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+    /**
+     * Размер страницы, если клиент не указал его явно.
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Максимальный размер страницы. Запрошенные значения больше него уменьшаются до него.
+     */
+    private int maxPageSize = 200;
+}
@@ -0,0 +1,42 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки параллельного выполнения независимых запросов отчетов.
+ * Задаются свойствами с префиксом {@code app.reports.parallel-queries}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.reports.parallel-queries")
+public class ParallelQueryProperties {
+    /**
+     * Выполнять независимые запросы отчета параллельно. Если выключено, запросы выполняются
+     * последовательно в потоке обработки HTTP-запроса.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Количество потоков пула запросов. Каждый поток во время работы занимает отдельное соединение,
+     * а вызывающий поток может удерживать еще одно, поэтому значение должно быть меньше
+     * числа соединений с базой.
+     */
+    private int poolSize = 8;
+
+    /**
+     * Размер очереди пула. Если очередь заполнена, запрос выполняется в вызывающем потоке.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Максимальное время ожидания запроса, начатого в пуле. После него запрос прерывается
+     * и выполняется в вызывающем потоке на соединении его транзакции. Должно быть меньше
+     * времени ожидания соединения ({@code app.datasource.concurrency.acquire-timeout}),
+     * чтобы отчет не завершался ошибкой, когда соединения заняты ожидающими потоками.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,32 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки обслуживания ежемесячных секций таблиц {@code meals}, {@code dishes} и {@code meal_food_items}.
+ * Задаются свойствами с префиксом {@code app.partitions}; расписание задачи —
+ * свойством {@code app.partitions.cron}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.partitions")
+public class PartitionProperties {
+    /**
+     * Таблицы разбиты на секции (PostgreSQL). В других базах секций нет, и обслуживание
+     * не выполняется.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Количество месяцев после текущего, секции которых создаются заранее.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Количество полных месяцев перед текущим, секции которых остаются в таблицах.
+     * Более старые секции отсоединяются. 0 — секции не отсоединяются.
+     */
+    private int retentionMonths = 0;
+}
@@ -0,0 +1,63 @@
+package org.example.calorietracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация чтения из реплики. Включается свойством {@code app.datasource.replica.url}.
+ *
+ * <p>Вместо единственного пула из {@code spring.datasource.*} создаются два: основной
+ * и пул реплики. Основным источником данных приложения становится
+ * {@link ReplicaRoutingDataSource}: транзакции {@code @Transactional(readOnly = true)},
+ * включая чтение через репозитории вне транзакций сервисов, выполняются в реплике,
+ * остальные — в основной базе. Миграции Liquibase выполняются только в основной базе.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = ReplicaDataSourceProperties.PREFIX, name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties(ReplicaDataSourceProperties.PREFIX + ".hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesTracker));
+    }
+}
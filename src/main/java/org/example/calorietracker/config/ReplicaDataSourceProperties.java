@@ -0,0 +1,42 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки реплики базы данных для чтения.
+ * Задаются свойствами с префиксом {@value #PREFIX}; параметры пула соединений реплики —
+ * свойствами {@code app.datasource.replica.hikari.*}, как {@code spring.datasource.hikari.*}
+ * для основной базы.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = ReplicaDataSourceProperties.PREFIX)
+public class ReplicaDataSourceProperties {
+    public static final String PREFIX = "app.datasource.replica";
+
+    /**
+     * JDBC URL реплики. Если не задан, все запросы выполняются в основной базе.
+     */
+    private String url;
+
+    /**
+     * Имя пользователя реплики.
+     */
+    private String username;
+
+    /**
+     * Пароль пользователя реплики.
+     */
+    private String password;
+
+    /**
+     * Время после изменения данных пользователя, в течение которого его запросы на чтение
+     * выполняются в основной базе, чтобы не получить из реплики данные до изменения.
+     * Должно превышать типичную задержку репликации.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
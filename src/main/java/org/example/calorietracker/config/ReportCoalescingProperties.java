@@ -0,0 +1,20 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки объединения одновременных одинаковых запросов отчетов.
+ * Задаются свойствами с префиксом {@code app.reports.coalescing}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.reports.coalescing")
+public class ReportCoalescingProperties {
+    /**
+     * Объединять одновременные запросы одного и того же отчета. Если выключено,
+     * каждый запрос формирует отчет самостоятельно.
+     */
+    private boolean enabled = true;
+}
@@ -0,0 +1,39 @@
+package org.example.calorietracker.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Настройки ночного создания снимков отчетов за завершившиеся дни.
+ * Задаются свойствами с префиксом {@code app.reports.snapshots}; расписание задачи —
+ * свойством {@code app.reports.snapshots.cron}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.reports.snapshots")
+public class ReportSnapshotProperties {
+    /**
+     * Длины скользящих окон в днях, для которых сохраняются сводки.
+     */
+    private List<Integer> windows = List.of(7, 30);
+
+    /**
+     * Пользователь считается активным, если у него есть приемы пищи
+     * за это количество последних дней. Снимки создаются только для активных пользователей.
+     */
+    private int activeDays = 30;
+
+    /**
+     * Количество пакетов пользователей, обрабатываемых одновременно. Каждый поток
+     * во время работы занимает отдельное соединение с базой.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Количество пользователей в одном пакете.
+     */
+    private int batchSize = 100;
+}
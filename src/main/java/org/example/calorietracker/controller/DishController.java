@@ -2,6 +2,7 @@ package org.example.calorietracker.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,9 +10,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.dto.CursorPage;
 import org.example.calorietracker.dto.dish.DishCreateDTO;
 import org.example.calorietracker.dto.dish.DishDTO;
+import org.example.calorietracker.dto.dish.DishSuggestionDTO;
 import org.example.calorietracker.dto.dish.DishUpdateDTO;
+import org.example.calorietracker.service.DishAutocompleteService;
 import org.example.calorietracker.service.DishService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +26,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -33,6 +38,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DishController {
     private final DishService dishService;
+    private final DishAutocompleteService dishAutocompleteService;
 
     @Operation(summary = "Получить блюдо по ID", description = "Возвращает блюдо с указанным идентификатором")
     @ApiResponses(value = {
@@ -50,16 +56,46 @@ public class DishController {
         return ResponseEntity.ok(dishDTO);
     }
 
-    @Operation(summary = "Получить все блюда", description = "Возвращает список всех блюд")
-    @ApiResponse(responseCode = "200", description = "Список блюд получен",
-            content = {@Content(mediaType = "application/json",
-                    schema = @Schema(implementation = DishDTO.class))})
+    @Operation(summary = "Получить блюда",
+            description = "Возвращает страницу блюд, упорядоченных по ID. "
+                    + "Для следующей страницы передайте значение поля next в параметре cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница блюд получена",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class))}),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+                    content = @Content)
+    })
     @GetMapping
-    public ResponseEntity<List<DishDTO>> getDishes() {
-        List<DishDTO> dishDTOS = dishService.getAll();
+    public ResponseEntity<CursorPage<DishDTO>> getDishes(
+            @Parameter(description = "Курсор следующей страницы из предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Размер страницы", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<DishDTO> dishDTOS = dishService.getAll(cursor, limit);
         return ResponseEntity.ok(dishDTOS);
     }
 
+    @Operation(summary = "Подсказать названия блюд",
+            description = "Возвращает самые часто используемые названия блюд, начинающиеся с запроса. "
+                    + "Подсказки строятся по индексу в памяти и могут не учитывать удаления последних минут")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подсказки получены",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = DishSuggestionDTO.class)))}),
+            @ApiResponse(responseCode = "400", description = "Пустой запрос или некорректный limit",
+                    content = @Content)
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<DishSuggestionDTO>> suggest(
+            @Parameter(description = "Начало названия блюда", required = true, example = "ов")
+            @RequestParam("q") String query,
+            @Parameter(description = "Максимальное количество подсказок", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(dishAutocompleteService.suggest(query, limit));
+    }
+
     @Operation(summary = "Создать новое блюдо", description = "Создает новое блюдо и возвращает его")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Блюдо создано",
@@ -111,4 +147,4 @@ public class DishController {
         dishService.delete(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package org.example.calorietracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.dto.food.FoodItemCreateDTO;
+import org.example.calorietracker.dto.food.FoodItemDTO;
+import org.example.calorietracker.service.FoodItemService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Food Catalog Controller", description = "API каталога продуктов")
+@Validated
+@RestController
+@RequestMapping("/foods")
+@RequiredArgsConstructor
+public class FoodItemController {
+    private final FoodItemService foodItemService;
+
+    @Operation(summary = "Получить позицию каталога по ID",
+            description = "Возвращает позицию каталога с указанным идентификатором")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Позиция найдена",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FoodItemDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Позиция не найдена",
+                    content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<FoodItemDTO> getFoodItem(
+            @Parameter(description = "ID позиции каталога", required = true, example = "1")
+            @PathVariable Long id) {
+        return ResponseEntity.ok(foodItemService.getById(id));
+    }
+
+    @Operation(summary = "Найти продукты по названию",
+            description = "Возвращает позиции каталога, название которых начинается с запроса. "
+                    + "Если таких меньше limit, результат дополняется похожими названиями")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты поиска",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = FoodItemDTO.class)))}),
+            @ApiResponse(responseCode = "400", description = "Пустой запрос или некорректный limit",
+                    content = @Content)
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<FoodItemDTO>> search(
+            @Parameter(description = "Начало названия продукта", required = true, example = "овс")
+            @RequestParam("q") String query,
+            @Parameter(description = "Максимальное количество результатов", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(foodItemService.search(query, limit));
+    }
+
+    @Operation(summary = "Добавить продукт в каталог",
+            description = "Создает позицию каталога с пищевой ценностью одной порции")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Позиция создана",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FoodItemDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Неверные входные данные",
+                    content = @Content)
+    })
+    @PostMapping
+    public ResponseEntity<FoodItemDTO> create(
+            @Parameter(description = "Данные позиции каталога", required = true)
+            @RequestBody @Valid FoodItemCreateDTO createDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(foodItemService.create(createDTO));
+    }
+}
@@ -9,6 +9,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.dto.CursorPage;
+import org.example.calorietracker.dto.meal.MealBatchCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchResultDTO;
 import org.example.calorietracker.dto.meal.MealCreateDTO;
 import org.example.calorietracker.dto.meal.MealDTO;
 import org.example.calorietracker.service.MealService;
@@ -17,8 +20,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Tag(name = "Meal Controller", description = "API для управления приемами пищи")
 @Validated
 @RestController
@@ -52,16 +53,30 @@ public class MealController {
     }
 
     @Operation(
-            summary = "Получить все приемы пищи",
-            description = "Возвращает список всех приемов пищи"
+            summary = "Получить приемы пищи",
+            description = "Возвращает страницу приемов пищи, упорядоченных по ID. "
+                    + "Для следующей страницы передайте значение поля next в параметре cursor"
     )
-    @ApiResponse(
-            responseCode = "200",
-            description = "Список приемов пищи успешно получен",
-            content = @Content(schema = @Schema(implementation = MealDTO[].class)))
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница приемов пищи успешно получена",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректный курсор или размер страницы",
+                    content = @Content
+            )
+    })
     @GetMapping
-    public ResponseEntity<List<MealDTO>> getMeals() {
-        List<MealDTO> mealDTOS = mealService.getAll();
+    public ResponseEntity<CursorPage<MealDTO>> getMeals(
+            @Parameter(description = "Курсор следующей страницы из предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Размер страницы", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<MealDTO> mealDTOS = mealService.getAll(cursor, limit);
         return ResponseEntity.ok(mealDTOS);
     }
 
@@ -89,6 +104,36 @@ public class MealController {
                 .body(mealService.create(mealCreateDTO));
     }
 
+    @Operation(
+            summary = "Импортировать приемы пищи",
+            description = "Создает до 10000 приемов пищи вместе с блюдами за один запрос. "
+                    + "Предназначен для загрузки исторических данных: дата приема пищи задается явно"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Приемы пищи успешно импортированы",
+                    content = @Content(schema = @Schema(implementation = MealBatchResultDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректные данные запроса",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Один или несколько пользователей не найдены",
+                    content = @Content
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<MealBatchResultDTO> importMeals(
+            @Parameter(description = "Импортируемые приемы пищи", required = true)
+            @RequestBody @Valid MealBatchCreateDTO batchCreateDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(mealService.importMeals(batchCreateDTO));
+    }
+
     @Operation(
             summary = "Удалить прием пищи",
             description = "Удаляет запись о приеме пищи по указанному идентификатору"
@@ -8,15 +8,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.dto.DailyMacroSummary;
 import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.dto.PeriodReport;
 import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.UserService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -27,6 +34,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ReportController {
     private final MealService mealService;
+    private final UserService userService;
 
     @Operation(
             summary = "Получить дневной отчет",
@@ -38,6 +46,11 @@ public class ReportController {
                     description = "Отчет успешно получен",
                     content = @Content(schema = @Schema(implementation = DailyReport.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Данные не изменились с версии из If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Пользователь не найден",
@@ -55,9 +68,15 @@ public class ReportController {
                     example = "2023-12-31",
                     schema = @Schema(type = "string", format = "date")
             )
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+
+            @Parameter(hidden = true) WebRequest request) {
 
-        DailyReport report = mealService.getDailyReport(userId, date);
+        long dataVersion = mealService.getDataVersion(userId);
+        if (isNotModified(request, dataVersion)) {
+            return null;
+        }
+        DailyReport report = mealService.getDailyReport(userId, date, dataVersion);
         return ResponseEntity.ok(report);
     }
 
@@ -104,6 +123,11 @@ public class ReportController {
                     description = "История успешно получена",
                     content = @Content(schema = @Schema(implementation = DailyReport[].class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Данные не изменились с версии из If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Некорректный диапазон дат",
@@ -134,9 +158,289 @@ public class ReportController {
                     example = "2023-12-31",
                     schema = @Schema(type = "string", format = "date")
             )
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(hidden = true) WebRequest request) {
+
+        long dataVersion = mealService.getDataVersion(userId);
+        if (isNotModified(request, dataVersion)) {
+            return null;
+        }
+        List<DailyReport> history = mealService.getNutritionHistory(userId, startDate, endDate, dataVersion);
+        return ResponseEntity.ok(history);
+    }
+
+    @Operation(
+            summary = "Выгрузить историю питания",
+            description = "Возвращает все приемы пищи пользователя вместе с блюдами в формате NDJSON: "
+                    + "по одному JSON-объекту на строку в хронологическом порядке. "
+                    + "Ответ формируется потоково и не ограничен по размеру"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Выгрузка успешно сформирована",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @Parameter(description = "ID пользователя", required = true, example = "123")
+            @PathVariable("id") Long userId) {
+
+        StreamingResponseBody body = out -> mealService.exportHistory(userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"meals-" + userId + ".ndjson\"")
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Получить сводку макронутриентов за день",
+            description = "Возвращает суммарные калории, белки, жиры и углеводы за день без списка приемов пищи"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Сводка успешно получена",
+                    content = @Content(schema = @Schema(implementation = DailyMacroSummary.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Данные не изменились с версии из If-None-Match",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Пользователь не найден",
+                    content = @Content
+            )
+    })
+    @GetMapping("/macros")
+    public ResponseEntity<DailyMacroSummary> getMacroSummary(
+            @Parameter(description = "ID пользователя", required = true, example = "123")
+            @PathVariable("id") Long userId,
+
+            @Parameter(
+                    description = "Дата отчета",
+                    required = true,
+                    example = "2023-12-31",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+
+            @Parameter(hidden = true) WebRequest request) {
+
+        long dataVersion = mealService.getDataVersion(userId);
+        if (isNotModified(request, dataVersion)) {
+            return null;
+        }
+        DailyMacroSummary summary = mealService.getMacroSummary(userId, date, dataVersion);
+        return ResponseEntity.ok(summary);
+    }
 
-        List<DailyReport> history = mealService.getNutritionHistory(userId, startDate, endDate);
+    @Operation(
+            summary = "Получить историю макронутриентов",
+            description = "Возвращает сводки калорий и макронутриентов по дням за указанный период"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "История успешно получена",
+                    content = @Content(schema = @Schema(implementation = DailyMacroSummary[].class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Данные не изменились с версии из If-None-Match",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректный диапазон дат",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Пользователь не найден",
+                    content = @Content
+            )
+    })
+    @GetMapping("/macros/history")
+    public ResponseEntity<List<DailyMacroSummary>> getMacroHistory(
+            @Parameter(description = "ID пользователя", required = true, example = "123")
+            @PathVariable("id") Long userId,
+
+            @Parameter(
+                    description = "Начальная дата периода",
+                    required = true,
+                    example = "2023-01-01",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(
+                    description = "Конечная дата периода",
+                    required = true,
+                    example = "2023-12-31",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(hidden = true) WebRequest request) {
+
+        long dataVersion = mealService.getDataVersion(userId);
+        if (isNotModified(request, dataVersion)) {
+            return null;
+        }
+        List<DailyMacroSummary> history = mealService.getMacroHistory(userId, startDate, endDate, dataVersion);
         return ResponseEntity.ok(history);
     }
+
+    @Operation(
+            summary = "Получить недельные отчеты",
+            description = "Возвращает суммы и средние значения калорий и макронутриентов, количество дней с превышением нормы "
+                    + "и самую длинную серию дней в пределах нормы по неделям (с понедельника) за указанный период"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Отчеты успешно получены",
+                    content = @Content(schema = @Schema(implementation = PeriodReport[].class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректный диапазон дат или период длиннее 366 дней",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Пользователь не найден",
+                    content = @Content
+            )
+    })
+    @GetMapping("/weekly")
+    public ResponseEntity<List<PeriodReport>> getWeeklyReports(
+            @Parameter(description = "ID пользователя", required = true, example = "123")
+            @PathVariable("id") Long userId,
+
+            @Parameter(
+                    description = "Начальная дата периода",
+                    required = true,
+                    example = "2023-10-02",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(
+                    description = "Конечная дата периода",
+                    required = true,
+                    example = "2023-12-31",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        List<PeriodReport> reports = mealService.getWeeklyReports(userId, startDate, endDate);
+        return ResponseEntity.ok(reports);
+    }
+
+    @Operation(
+            summary = "Получить месячные отчеты",
+            description = "Возвращает суммы и средние значения калорий и макронутриентов, количество дней с превышением нормы "
+                    + "и самую длинную серию дней в пределах нормы по календарным месяцам за указанный период"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Отчеты успешно получены",
+                    content = @Content(schema = @Schema(implementation = PeriodReport[].class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректный диапазон дат или период длиннее 366 дней",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Пользователь не найден",
+                    content = @Content
+            )
+    })
+    @GetMapping("/monthly")
+    public ResponseEntity<List<PeriodReport>> getMonthlyReports(
+            @Parameter(description = "ID пользователя", required = true, example = "123")
+            @PathVariable("id") Long userId,
+
+            @Parameter(
+                    description = "Начальная дата периода",
+                    required = true,
+                    example = "2023-01-01",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(
+                    description = "Конечная дата периода",
+                    required = true,
+                    example = "2023-12-31",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        List<PeriodReport> reports = mealService.getMonthlyReports(userId, startDate, endDate);
+        return ResponseEntity.ok(reports);
+    }
+
+    @Operation(
+            summary = "Получить сводку за скользящее окно",
+            description = "Возвращает суммы и средние значения калорий и макронутриентов, количество дней с превышением нормы "
+                    + "и самую длинную серию дней в пределах нормы за несколько дней, заканчивающихся указанной датой "
+                    + "(по умолчанию вчерашним днем в часовом поясе пользователя)"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Сводка успешно получена",
+                    content = @Content(schema = @Schema(implementation = PeriodReport.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректная длина окна",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Пользователь не найден",
+                    content = @Content
+            )
+    })
+    @GetMapping("/rolling")
+    public ResponseEntity<PeriodReport> getRollingWindowReport(
+            @Parameter(description = "ID пользователя", required = true, example = "123")
+            @PathVariable("id") Long userId,
+
+            @Parameter(description = "Длина окна в днях", example = "7")
+            @RequestParam(defaultValue = "7") int days,
+
+            @Parameter(
+                    description = "Последний день окна (по умолчанию вчерашний день в часовом поясе пользователя)",
+                    example = "2023-12-31",
+                    schema = @Schema(type = "string", format = "date")
+            )
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        LocalDate lastDay = endDate != null ? endDate : LocalDate.now(userService.getZoneId(userId)).minusDays(1);
+        PeriodReport report = mealService.getRollingWindowReport(userId, lastDay, days);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Сравнивает версию данных пользователя с заголовком {@code If-None-Match}.
+     * Версия используется как сильный ETag: отчет меняется только вместе с ней.
+     * Если версия совпадает, ответ 304 формируется без чтения приемов пищи и сводок.
+     * Версия и отчет читаются из одной базы (основной или реплики), поэтому ETag не бывает новее отчета,
+     * а отчет формируется с этой же версией в ключе объединения запросов.
+     *
+     * @return true если клиент уже получил актуальный отчет
+     */
+    private static boolean isNotModified(WebRequest request, long dataVersion) {
+        return request.checkNotModified(Long.toString(dataVersion));
+    }
 }
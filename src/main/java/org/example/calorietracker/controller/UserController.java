@@ -9,6 +9,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.dto.CursorPage;
 import org.example.calorietracker.dto.user.UserCreateDTO;
 import org.example.calorietracker.dto.user.UserDTO;
 import org.example.calorietracker.dto.user.UserUpdateDTO;
@@ -22,10 +23,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @Tag(name = "User Controller", description = "API для управления пользователями")
 @Validated
 @RestController
@@ -35,17 +35,30 @@ public class UserController {
     private final UserService userService;
 
     @Operation(
-            summary = "Получить всех пользователей",
-            description = "Возвращает список всех зарегистрированных пользователей"
-    )
-    @ApiResponse(
-            responseCode = "200",
-            description = "Список пользователей успешно получен",
-            content = @Content(schema = @Schema(implementation = UserDTO[].class))
+            summary = "Получить пользователей",
+            description = "Возвращает страницу зарегистрированных пользователей, упорядоченных по ID. "
+                    + "Для следующей страницы передайте значение поля next в параметре cursor"
     )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Страница пользователей успешно получена",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Некорректный курсор или размер страницы",
+                    content = @Content
+            )
+    })
     @GetMapping
-    public ResponseEntity<List<UserDTO>> findAll() {
-        List<UserDTO> userDTOS = userService.getAll();
+    public ResponseEntity<CursorPage<UserDTO>> findAll(
+            @Parameter(description = "Курсор следующей страницы из предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Размер страницы", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<UserDTO> userDTOS = userService.getAll(cursor, limit);
         return ResponseEntity.ok().body(userDTOS);
     }
 
@@ -0,0 +1,131 @@
+package org.example.calorietracker.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Источник данных, ограничивающий количество одновременно открытых соединений.
+ * Перед получением соединения поток занимает разрешение семафора и освобождает его
+ * при закрытии соединения.
+ *
+ * <p>Ограничение задается меньше размера пула: без него лишние запросы выстраиваются
+ * в очередь пула соединений и ждут до его тайм-аута. Ожидание на семафоре честное (FIFO)
+ * и завершается ошибкой через заданное время, а не через тайм-аут пула.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource implements MeterBinder {
+    private final String name;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+
+    /**
+     * @param name имя источника данных для тега {@code pool} метрик
+     * @param targetDataSource источник данных, к которому ограничивается доступ
+     * @param maxConcurrent максимальное количество одновременно открытых соединений
+     * @param acquireTimeout максимальное время ожидания свободного разрешения
+     */
+    public ConcurrencyLimitingDataSource(String name, DataSource targetDataSource,
+                                         int maxConcurrent, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.name = name;
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return withRelease(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return withRelease(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Публикует количество свободных разрешений и ожидающих потоков.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calorietracker.datasource.permits.available", permits, Semaphore::availablePermits)
+                .description("Free permits of the datasource concurrency limit")
+                .tag("pool", name)
+                .register(registry);
+        Gauge.builder("calorietracker.datasource.permits.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a datasource permit")
+                .tag("pool", name)
+                .register(registry);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos)
+                        + " ms waiting for one of " + maxConcurrent + " permits of datasource " + name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a datasource permit", e);
+        }
+    }
+
+    /**
+     * Оборачивает соединение так, чтобы первое закрытие вернуло разрешение.
+     * Повторные вызовы {@code close()} разрешение не возвращают.
+     */
+    private Connection withRelease(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.calorietracker.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Привязывает к потоку обработки запроса пользователя из путей вида {@code /users/{id}/...},
+ * чтобы чтение его данных сразу после изменения выполнялось в основной базе.
+ * Для путей {@code /meals/{id}} и {@code /dishes/{id}} так же привязывается запрошенная запись.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+    private static final String USER_PATH_PREFIX = "/users/{id}";
+    private static final Map<String, String> RESOURCE_PATHS = Map.of(
+            "/" + ReadYourWritesTracker.MEALS + "/{id}", ReadYourWritesTracker.MEALS,
+            "/" + ReadYourWritesTracker.DISHES + "/{id}", ReadYourWritesTracker.DISHES);
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pattern instanceof String path
+                && variables instanceof Map<?, ?> values && values.get("id") instanceof String id) {
+            try {
+                if (path.startsWith(USER_PATH_PREFIX)) {
+                    ReadYourWritesTracker.bindUser(Long.valueOf(id));
+                } else if (RESOURCE_PATHS.containsKey(path)) {
+                    ReadYourWritesTracker.bindResource(RESOURCE_PATHS.get(path), Long.valueOf(id));
+                }
+            } catch (NumberFormatException e) {
+                // Некорректный идентификатор отклоняется при привязке параметров контроллера
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        ReadYourWritesTracker.bindUser(null);
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.calorietracker.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Запоминает пользователей, данные которых недавно изменились, чтобы их запросы
+ * на чтение в течение заданного окна выполнялись в основной базе, а не в реплике.
+ *
+ * <p>Пользователь, от имени которого обрабатывается запрос, привязывается к текущему
+ * потоку ({@link #bindUser}); {@link ReplicaRoutingDataSource} проверяет его при выборе базы.
+ * Запросы отдельных приемов пищи и блюд ({@code /meals/{id}}, {@code /dishes/{id}}) не содержат
+ * пользователя, поэтому для них отмечаются и привязываются сами измененные записи ({@link #bindResource}).
+ * Отметки хранятся в памяти экземпляра приложения.
+ */
+public class ReadYourWritesTracker {
+    /**
+     * Ресурс приемов пищи: первый сегмент пути {@code /meals/{id}}.
+     */
+    public static final String MEALS = "meals";
+
+    /**
+     * Ресурс блюд: первый сегмент пути {@code /dishes/{id}}.
+     */
+    public static final String DISHES = "dishes";
+
+    private static final ThreadLocal<Binding> CURRENT_BINDING = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWrites;
+    private final Cache<String, Boolean> recentResourceWrites;
+
+    /**
+     * @param window время после изменения, в течение которого чтение выполняется в основной базе
+     */
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+        this.recentResourceWrites = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Отмечает изменение данных пользователя. Если изменение выполняется в транзакции,
+     * отметка повторяется после ее фиксации: окно отсчитывается от момента,
+     * когда изменение может начать реплицироваться.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void markWritten(Long userId) {
+        mark(recentWrites, userId);
+        Binding binding = CURRENT_BINDING.get();
+        if (binding != null && userId.equals(binding.userId)) {
+            binding.primary.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Отмечает изменение записи, которую клиент затем может прочитать по пути
+     * {@code /<resource>/{id}}. Окно отсчитывается так же, как в {@link #markWritten(Long)}.
+     *
+     * @param resource ресурс ({@link #MEALS} или {@link #DISHES})
+     * @param id идентификатор записи (null пропускается)
+     */
+    public void markWritten(String resource, Long id) {
+        if (id != null) {
+            mark(recentResourceWrites, resourceKey(resource, id));
+        }
+    }
+
+    /**
+     * Проверяет, изменялись ли данные пользователя в пределах окна.
+     *
+     * @param userId идентификатор пользователя
+     * @return true если чтение нужно выполнить в основной базе
+     */
+    public boolean isRecentlyWritten(Long userId) {
+        return recentWrites.getIfPresent(userId) != null;
+    }
+
+    /**
+     * Проверяет, изменялась ли запись в пределах окна.
+     *
+     * @param resource ресурс ({@link #MEALS} или {@link #DISHES})
+     * @param id идентификатор записи
+     * @return true если чтение нужно выполнить в основной базе
+     */
+    public boolean isRecentlyWritten(String resource, Long id) {
+        return recentResourceWrites.getIfPresent(resourceKey(resource, id)) != null;
+    }
+
+    /**
+     * Проверяет, должно ли чтение в текущем потоке выполняться в основной базе.
+     * Решение принимается при первом вызове для привязки и затем не меняется,
+     * пока пользователь не изменит свои данные в рамках той же привязки.
+     *
+     * @return true если к потоку привязан пользователь или запись, которые изменялись в пределах окна
+     */
+    public boolean isCurrentUserRecentlyWritten() {
+        Binding binding = CURRENT_BINDING.get();
+        if (binding == null) {
+            return false;
+        }
+        binding.primary.compareAndSet(null, binding.userId != null
+                ? isRecentlyWritten(binding.userId)
+                : recentResourceWrites.getIfPresent(binding.resourceKey) != null);
+        return binding.primary.get();
+    }
+
+    /**
+     * Привязывает пользователя к текущему потоку.
+     *
+     * @param userId идентификатор пользователя (null снимает привязку)
+     */
+    public static void bindUser(Long userId) {
+        bind(userId == null ? null : new Binding(userId, null));
+    }
+
+    /**
+     * Привязывает к текущему потоку запись, которую читает запрос.
+     *
+     * @param resource ресурс ({@link #MEALS} или {@link #DISHES})
+     * @param id идентификатор записи
+     */
+    public static void bindResource(String resource, Long id) {
+        bind(new Binding(null, resourceKey(resource, id)));
+    }
+
+    /**
+     * @return пользователь, привязанный к текущему потоку, или null
+     */
+    public static Long currentUser() {
+        Binding binding = CURRENT_BINDING.get();
+        return binding == null ? null : binding.userId;
+    }
+
+    /**
+     * @return привязка текущего потока для передачи в потоки пулов ({@link #withBinding}) или null
+     */
+    public static Binding currentBinding() {
+        return CURRENT_BINDING.get();
+    }
+
+    /**
+     * Выполняет действие с новой привязкой указанного пользователя к текущему потоку
+     * и восстанавливает прежнюю привязку после него.
+     *
+     * @param userId идентификатор пользователя (может быть null)
+     * @param action действие
+     * @return результат действия
+     */
+    public static <T> T withUser(Long userId, Supplier<T> action) {
+        return withBinding(userId == null ? null : new Binding(userId, null), action);
+    }
+
+    /**
+     * Выполняет действие с привязкой другого потока и восстанавливает прежнюю привязку после него.
+     * Используется для передачи пользователя и выбранной для него базы в потоки пулов.
+     *
+     * @param binding привязка, полученная из {@link #currentBinding()} (может быть null)
+     * @param action действие
+     * @return результат действия
+     */
+    public static <T> T withBinding(Binding binding, Supplier<T> action) {
+        Binding previous = CURRENT_BINDING.get();
+        bind(binding);
+        try {
+            return action.get();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    private static <K> void mark(Cache<K, Boolean> writes, K key) {
+        writes.put(key, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writes.put(key, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static String resourceKey(String resource, Long id) {
+        return resource + "/" + id;
+    }
+
+    private static void bind(Binding binding) {
+        if (binding == null) {
+            CURRENT_BINDING.remove();
+        } else {
+            CURRENT_BINDING.set(binding);
+        }
+    }
+
+    /**
+     * Пользователь или запись, привязанные к потоку, и база, выбранная для чтения.
+     */
+    public static final class Binding {
+        private final Long userId;
+        private final String resourceKey;
+        private final AtomicReference<Boolean> primary = new AtomicReference<>();
+
+        private Binding(Long userId, String resourceKey) {
+            this.userId = userId;
+            this.resourceKey = resourceKey;
+        }
+    }
+}
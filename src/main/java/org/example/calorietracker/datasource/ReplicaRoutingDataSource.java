@@ -0,0 +1,49 @@
+package org.example.calorietracker.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Источник данных, направляющий транзакции только для чтения в реплику,
+ * а все остальные обращения — в основную базу.
+ *
+ * <p>Чтение для пользователя, данные которого изменились недавно
+ * (см. {@link ReadYourWritesTracker}), выполняется в основной базе. База выбирается один раз
+ * на привязку пользователя, поэтому все чтения одного HTTP-запроса выполняются в одной базе.
+ *
+ * <p>Флаг {@code readOnly} транзакции становится известен после того, как менеджер
+ * транзакций запрашивает соединение, поэтому этот источник данных нужно оборачивать
+ * в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * он откладывает выбор базы до первого SQL-запроса.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * Ключ выбора базы данных.
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        return readYourWritesTracker.isCurrentUserRecentlyWritten() ? Route.PRIMARY : Route.REPLICA;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.calorietracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO для представления одной страницы списка при курсорной (keyset) пагинации.
+ *
+ * <p>Для получения следующей страницы клиент передает значение {@link #next}
+ * в параметре запроса {@code cursor}. Курсор непрозрачен: клиент не должен
+ * разбирать или формировать его самостоятельно.
+ *
+ * @param <T> тип элементов страницы
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    /**
+     * Элементы текущей страницы, упорядоченные по идентификатору.
+     */
+    private List<T> items;
+
+    /**
+     * Курсор следующей страницы.
+     * Равен null, если текущая страница последняя.
+     */
+    private String next;
+}
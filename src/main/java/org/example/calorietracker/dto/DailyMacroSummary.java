@@ -0,0 +1,45 @@
+package org.example.calorietracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO для представления облегченного дневного отчета о питании.
+ * Содержит только суммарные калории и макронутриенты за день,
+ * без списка приемов пищи, поэтому не требует загрузки блюд на клиент.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyMacroSummary {
+    /**
+     * Дата, за которую сформирован отчет.
+     * Формат сериализации: строка в формате ISO-8601 (yyyy-MM-dd)
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDate date;
+
+    /**
+     * Суммарное количество потребленных калорий за день.
+     */
+    private double totalCalories;
+
+    /**
+     * Суммарное содержание белков за день (в граммах).
+     */
+    private double totalProteins;
+
+    /**
+     * Суммарное содержание жиров за день (в граммах).
+     */
+    private double totalFats;
+
+    /**
+     * Суммарное содержание углеводов за день (в граммах).
+     */
+    private double totalCarbohydrates;
+}
@@ -0,0 +1,89 @@
+package org.example.calorietracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO для представления сводного отчета о питании за неделю или месяц.
+ * Содержит суммы и средние значения калорий и макронутриентов без списка приемов пищи.
+ *
+ * <p>Первая и последняя недели (месяцы) обрезаются по границам запрошенного периода.
+ * Средние значения считаются по дням с записями.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PeriodReport {
+    /**
+     * Первый день периода (включительно).
+     * Формат сериализации: строка в формате ISO-8601 (yyyy-MM-dd)
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDate periodStart;
+
+    /**
+     * Последний день периода (включительно).
+     * Формат сериализации: строка в формате ISO-8601 (yyyy-MM-dd)
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDate periodEnd;
+
+    /**
+     * Суммарное количество потребленных калорий за период.
+     */
+    private double totalCalories;
+
+    /**
+     * Суммарное содержание белков за период (в граммах).
+     */
+    private double totalProteins;
+
+    /**
+     * Суммарное содержание жиров за период (в граммах).
+     */
+    private double totalFats;
+
+    /**
+     * Суммарное содержание углеводов за период (в граммах).
+     */
+    private double totalCarbohydrates;
+
+    /**
+     * Средняя калорийность дня с записями.
+     */
+    private double averageCalories;
+
+    /**
+     * Среднее содержание белков за день с записями (в граммах).
+     */
+    private double averageProteins;
+
+    /**
+     * Среднее содержание жиров за день с записями (в граммах).
+     */
+    private double averageFats;
+
+    /**
+     * Среднее содержание углеводов за день с записями (в граммах).
+     */
+    private double averageCarbohydrates;
+
+    /**
+     * Количество дней с записями.
+     */
+    private int daysLogged;
+
+    /**
+     * Количество дней, в которые дневная норма калорий превышена.
+     */
+    private int daysOverLimit;
+
+    /**
+     * Самая длинная серия подряд идущих дней с записями в пределах дневной нормы.
+     */
+    private int longestStreakWithinLimit;
+}
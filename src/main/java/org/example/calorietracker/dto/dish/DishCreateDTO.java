@@ -1,8 +1,9 @@
 package org.example.calorietracker.dto.dish;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,12 @@ import lombok.Setter;
  * DTO (Data Transfer Object) для создания нового блюда.
  * Содержит необходимые поля и ограничения для валидации данных.
  *
+ * <p>Блюдо задается либо вручную (название и пищевая ценность), либо ссылкой на позицию
+ * каталога {@code foodItemId} и количеством порций {@code portion}. Во втором случае название
+ * берется из каталога, если не указано явно, а пищевая ценность вычисляется по каталогу.
+ * Чтобы записать позицию каталога в прием пищи без создания блюда, используется
+ * {@code foodItems} приема пищи ({@link org.example.calorietracker.dto.meal.MealFoodItemDTO}).
+ *
  * @see org.example.calorietracker.model.Dish  Связанная сущность блюда
  */
 @Getter
@@ -20,10 +27,8 @@ import lombok.Setter;
 @AllArgsConstructor
 public class DishCreateDTO {
     /**
-     * Название блюда. Не может быть null или пустым.
+     * Название блюда. Обязательно, если не указана позиция каталога.
      */
-    @NotNull
-    @NotBlank
     private String name;
 
     /**
@@ -54,4 +59,28 @@ public class DishCreateDTO {
      * ID приёма пищи, к которому относится блюдо. Может быть null, если блюдо пока не привязано к конкретному приёму пищи.
      */
     private Long mealId;
+
+    /**
+     * ID позиции каталога продуктов. Если указан, пищевая ценность блюда вычисляется
+     * по каталогу, а переданные значения калорий и макронутриентов игнорируются.
+     */
+    private Long foodItemId;
+
+    /**
+     * Количество порций позиции каталога (по умолчанию 1). Должно быть положительным.
+     * Указывается только вместе с {@code foodItemId}, иначе запрос отклоняется.
+     */
+    @Positive
+    private Double portion;
+
+    /**
+     * Проверяет, что блюдо задано названием или позицией каталога.
+     *
+     * @return true, если указано непустое название или ID позиции каталога
+     */
+    @JsonIgnore
+    @AssertTrue(message = "name or foodItemId must be provided")
+    public boolean isNamedOrFromCatalog() {
+        return foodItemId != null || (name != null && !name.isBlank());
+    }
 }
@@ -62,4 +62,16 @@ public class DishDTO {
      * Может быть null, если блюдо не привязано к конкретному приему пищи.
      */
     private Long mealId;
+
+    /**
+     * Идентификатор позиции каталога, из которой создано блюдо.
+     * Равен null для блюд, введенных вручную.
+     */
+    private Long foodItemId;
+
+    /**
+     * Количество порций позиции каталога.
+     * Равно null для блюд, введенных вручную.
+     */
+    private Double portion;
 }
@@ -0,0 +1,25 @@
+package org.example.calorietracker.dto.dish;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Подсказка автодополнения названия блюда.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DishSuggestionDTO {
+    /**
+     * Название блюда
+     */
+    private String name;
+
+    /**
+     * Количество блюд с этим названием
+     */
+    private long usageCount;
+}
@@ -0,0 +1,50 @@
+package org.example.calorietracker.dto.food;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO для добавления позиции в каталог продуктов.
+ * Пищевая ценность указывается для одной порции.
+ *
+ * @see org.example.calorietracker.model.FoodItem Связанная сущность позиции каталога
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodItemCreateDTO {
+    /**
+     * Название позиции, например "Овсянка 100 г". Не может быть пустым.
+     */
+    @NotBlank
+    private String name;
+
+    /**
+     * Калорийность порции (в ккал). Должна быть неотрицательной.
+     */
+    @Min(0)
+    private double calories;
+
+    /**
+     * Содержание белков в порции (в граммах). Должно быть неотрицательным.
+     */
+    @Min(0)
+    private double proteins;
+
+    /**
+     * Содержание жиров в порции (в граммах). Должно быть неотрицательным.
+     */
+    @Min(0)
+    private double fats;
+
+    /**
+     * Содержание углеводов в порции (в граммах). Должно быть неотрицательным.
+     */
+    @Min(0)
+    private double carbohydrates;
+}
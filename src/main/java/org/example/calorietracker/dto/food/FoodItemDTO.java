@@ -0,0 +1,49 @@
+package org.example.calorietracker.dto.food;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.calorietracker.model.FoodItem;
+
+/**
+ * Data Transfer Object (DTO) позиции каталога продуктов.
+ * Пищевая ценность указана для одной порции.
+ *
+ * @see FoodItem Сущность позиции каталога
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodItemDTO {
+    /**
+     * Уникальный идентификатор позиции каталога
+     */
+    private Long id;
+
+    /**
+     * Название позиции
+     */
+    private String name;
+
+    /**
+     * Калорийность порции в килокалориях
+     */
+    private double calories;
+
+    /**
+     * Содержание белков в порции в граммах
+     */
+    private double proteins;
+
+    /**
+     * Содержание жиров в порции в граммах
+     */
+    private double fats;
+
+    /**
+     * Содержание углеводов в порции в граммах
+     */
+    private double carbohydrates;
+}
@@ -0,0 +1,36 @@
+package org.example.calorietracker.dto.meal;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO пакетного запроса на импорт приемов пищи.
+ * Используется для загрузки исторических данных: все приемы пищи
+ * сохраняются в одной транзакции пакетными вставками.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MealBatchCreateDTO {
+    /**
+     * Максимальное количество приемов пищи в одном запросе.
+     */
+    public static final int MAX_MEALS = 10_000;
+
+    /**
+     * Импортируемые приемы пищи. Не может быть пустым
+     * и содержать больше {@value #MAX_MEALS} элементов.
+     */
+    @NotEmpty
+    @Size(max = MAX_MEALS)
+    private List<@NotNull @Valid MealImportDTO> meals;
+}
@@ -0,0 +1,28 @@
+package org.example.calorietracker.dto.meal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO результата пакетного импорта приемов пищи.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MealBatchResultDTO {
+    /**
+     * Количество созданных приемов пищи.
+     */
+    private int mealsCreated;
+
+    /**
+     * Количество созданных блюд.
+     */
+    private int dishesCreated;
+
+    /**
+     * Количество записанных позиций каталога.
+     */
+    private int foodItemsCreated;
+}
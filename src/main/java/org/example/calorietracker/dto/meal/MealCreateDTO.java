@@ -1,5 +1,6 @@
 package org.example.calorietracker.dto.meal;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -11,7 +12,7 @@ import java.util.List;
 /**
  * Data Transfer Object (DTO) для создания нового приема пищи (Meal).
  * Содержит необходимую информацию для создания записи о приеме пищи,
- * включая пользователя и список блюд.
+ * включая пользователя, список блюд и позиции каталога.
  *
  * @see org.example.calorietracker.model.Meal Сущность приема пищи в модели данных
  */
@@ -33,4 +34,10 @@ public class MealCreateDTO {
      * Null значение эквивалентно пустому списку.
      */
     private List<Long> dishIds;
+
+    /**
+     * Позиции каталога с количеством порций. Для них не создаются блюда:
+     * прием пищи ссылается на каталог. Null значение эквивалентно пустому списку.
+     */
+    private List<@Valid MealFoodItemDTO> foodItems;
 }
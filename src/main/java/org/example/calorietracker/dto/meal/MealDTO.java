@@ -6,13 +6,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.example.calorietracker.model.Meal;
 
-import java.time.LocalDate;
+import java.time.Instant;
 import java.util.List;
 
 /**
  * Data Transfer Object (DTO) для представления информации о приеме пищи (Meal).
- * Содержит полную информацию о приеме пищи, включая идентификатор, дату создания,
- * связанного пользователя и список блюд.
+ * Содержит полную информацию о приеме пищи, включая идентификатор, момент приема пищи,
+ * связанного пользователя, список блюд и позиции каталога.
  *
  * @see org.example.calorietracker.model.Meal Сущность приема пищи в модели данных
  */
@@ -27,10 +27,10 @@ public class MealDTO {
     private Long id;
 
     /**
-     * Дата и время создания записи о приеме пищи.
-     * Формат: YYYY-MM-DD (ISO-8601)
+     * Момент приема пищи в UTC.
+     * Формат: строка ISO-8601 (например, 2024-03-10T08:30:00Z)
      */
-    private LocalDate createdAt;
+    private Instant eatenAt;
 
     /**
      * Идентификатор пользователя, которому принадлежит прием пищи.
@@ -44,4 +44,10 @@ public class MealDTO {
      * Null значение эквивалентно пустому списку.
      */
     private List<Long> dishIds;
+
+    /**
+     * Позиции каталога, записанные в прием пищи, с количеством порций.
+     * Null значение эквивалентно пустому списку.
+     */
+    private List<MealFoodItemDTO> foodItems;
 }
@@ -0,0 +1,38 @@
+package org.example.calorietracker.dto.meal;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.calorietracker.dto.dish.DishDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO для представления одного приема пищи в выгрузке истории питания.
+ * В отличие от {@link MealDTO} содержит блюда и позиции каталога целиком, чтобы выгрузка
+ * была самодостаточной и не требовала дополнительных запросов.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MealExportDTO {
+    private Long id;
+
+    /**
+     * Момент приема пищи в UTC.
+     * Формат сериализации: строка в формате ISO-8601 (например, 2024-03-10T08:30:00Z)
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant eatenAt;
+
+    private List<DishDTO> dishes;
+
+    /**
+     * Позиции каталога приема пищи. Null в архивах, созданных до появления ссылок на каталог.
+     */
+    private List<MealFoodItemExportDTO> foodItems;
+}
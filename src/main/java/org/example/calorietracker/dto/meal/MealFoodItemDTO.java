@@ -0,0 +1,32 @@
+package org.example.calorietracker.dto.meal;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO позиции каталога, записанной в прием пищи: ссылка на позицию и количество порций.
+ * Используется при создании и импорте приемов пищи и в ответах с приемами пищи.
+ *
+ * @see org.example.calorietracker.model.MealFoodItem Сущность ссылки в модели данных
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MealFoodItemDTO {
+    /**
+     * ID позиции каталога продуктов. Не может быть null.
+     */
+    @NotNull
+    private Long foodItemId;
+
+    /**
+     * Количество порций позиции каталога (по умолчанию 1). Должно быть положительным.
+     */
+    @Positive
+    private Double portion;
+}
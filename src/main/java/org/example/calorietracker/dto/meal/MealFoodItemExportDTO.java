@@ -0,0 +1,31 @@
+package org.example.calorietracker.dto.meal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO позиции каталога приема пищи в выгрузке истории питания и в архиве.
+ * В отличие от {@link MealFoodItemDTO} содержит название и пищевую ценность
+ * записанного количества порций, чтобы выгрузка не зависела от каталога.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MealFoodItemExportDTO {
+    private Long foodItemId;
+
+    private String name;
+
+    private double portion;
+
+    private double calories;
+
+    private double proteins;
+
+    private double fats;
+
+    private double carbohydrates;
+}
@@ -0,0 +1,57 @@
+package org.example.calorietracker.dto.meal;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO для импорта одного приема пищи вместе с блюдами в пакетном запросе.
+ * В отличие от {@link MealCreateDTO} содержит момент приема пищи и сами блюда,
+ * а не идентификаторы уже созданных блюд.
+ *
+ * @see MealBatchCreateDTO Пакетный запрос на импорт
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MealImportDTO {
+    /**
+     * Идентификатор пользователя, к которому относится прием пищи.
+     * Не может быть null.
+     */
+    @NotNull
+    private Long userId;
+
+    /**
+     * Момент приема пищи. Не может быть null или находиться в будущем.
+     * День приема пищи определяется часовым поясом пользователя.
+     * Формат: строка в формате ISO-8601 со смещением (например, 2024-03-10T08:30:00+03:00)
+     */
+    @NotNull
+    @PastOrPresent
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant eatenAt;
+
+    /**
+     * Блюда приема пищи. Поле {@code mealId} блюд игнорируется:
+     * блюда привязываются к импортируемому приему пищи.
+     * Null значение эквивалентно пустому списку.
+     */
+    private List<@Valid DishCreateDTO> dishes;
+
+    /**
+     * Позиции каталога с количеством порций. Для них не создаются блюда:
+     * прием пищи ссылается на каталог. Null значение эквивалентно пустому списку.
+     */
+    private List<@Valid MealFoodItemDTO> foodItems;
+}
@@ -80,4 +80,11 @@ public class UserCreateDTO {
      */
     @NotNull
     private GoalType goal;
+
+    /**
+     * Часовой пояс пользователя (идентификатор IANA, например Europe/Moscow).
+     * Определяет границы дней в отчетах.
+     * Не обязательное поле: по умолчанию используется UTC.
+     */
+    private String timeZone;
 }
@@ -44,5 +44,7 @@ public class UserDTO {
 
     private GoalType goal;
 
+    private String timeZone;
+
     private List<Long> mealIds;
 }
\ No newline at end of file
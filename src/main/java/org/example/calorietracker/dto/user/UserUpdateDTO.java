@@ -72,4 +72,11 @@ public class UserUpdateDTO {
      * Может быть null, если цель не требуется обновлять.
      */
     private GoalType goal;
+
+    /**
+     * Обновленный часовой пояс пользователя (идентификатор IANA).
+     * Смена часового пояса переносит прошлые приемы пищи в дни нового пояса.
+     * Может быть null, если часовой пояс не требуется обновлять.
+     */
+    private String timeZone;
 }
@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>{@link ResourceNotFoundException} - 404 Not Found</li>
  *   <li>{@link MethodArgumentNotValidException} - 400 Bad Request</li>
+ *   <li>{@link IllegalArgumentException} - 400 Bad Request</li>
  * </ul>
  */
 @ControllerAdvice
@@ -56,6 +57,21 @@ public class GlobalExceptionHandler {
                 .body(getErrorMessage(e.getBindingResult()));
     }
 
+    /**
+     * Обрабатывает исключения, вызванные некорректными параметрами запроса
+     * (например, начальная дата периода позже конечной).
+     *
+     * @param e перехваченное исключение {@link IllegalArgumentException}
+     * @return ответ с HTTP статусом 400 и сообщением об ошибке
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(e.getMessage());
+    }
+
     /**
      * Форматирует сообщение об ошибках валидации.
      *
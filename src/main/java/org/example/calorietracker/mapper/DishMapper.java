@@ -31,10 +31,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  *   <li>Игнорирует null-значения при обновлении</li>
  *   <li>Автоматически преобразует mealId ↔ Meal</li>
  *   <li>Генерирует исключение при отсутствии связанного Meal</li>
+ *   <li>Заполняет блюдо по позиции каталога через {@link FoodItemMapper}</li>
  * </ul>
  */
 @Mapper(
-        uses = {ReferenceMapper.class, JsonNullableMapper.class},
+        uses = {ReferenceMapper.class, JsonNullableMapper.class, FoodItemMapper.class},
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
         componentModel = MappingConstants.ComponentModel.SPRING,
         unmappedTargetPolicy = ReportingPolicy.IGNORE
@@ -50,6 +51,7 @@ public abstract class DishMapper {
      * @return DTO блюда
      */
     @Mapping(target = "mealId", source = "meal.id")
+    @Mapping(target = "foodItemId", source = "foodItem.id")
     public abstract DishDTO map(Dish dish);
 
     /**
@@ -63,11 +65,13 @@ public abstract class DishMapper {
 
     /**
      * Преобразует DishCreateDTO в сущность Dish.
+     * Количество порций заполняется только для блюд из каталога ({@link FoodItemMapper#applyFoodItem}).
      *
      * @param dishCreateDTO DTO для создания блюда
      * @return сущность блюда
      */
     @Mapping(target = "meal", source = "mealId")
+    @Mapping(target = "portion", ignore = true)
     public abstract Dish map(DishCreateDTO dishCreateDTO);
 
     /**
@@ -0,0 +1,85 @@
+package org.example.calorietracker.mapper;
+
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.dto.food.FoodItemCreateDTO;
+import org.example.calorietracker.dto.food.FoodItemDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.FoodItem;
+import org.example.calorietracker.repository.FoodItemRepository;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Маппер для преобразования между сущностью FoodItem и DTO каталога продуктов.
+ *
+ * <p>Основные преобразования:
+ * <ul>
+ *   <li>FoodItem → FoodItemDTO</li>
+ *   <li>FoodItemCreateDTO → FoodItem</li>
+ * </ul>
+ *
+ * <p>Подключается к {@link DishMapper} и {@link MealMapper} через {@code uses}: после
+ * преобразования DishCreateDTO → Dish заполняет блюдо по позиции каталога, если она указана.
+ */
+@Mapper(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public abstract class FoodItemMapper {
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    /**
+     * Преобразует сущность FoodItem в FoodItemDTO.
+     *
+     * @param foodItem сущность позиции каталога
+     * @return DTO позиции каталога
+     */
+    public abstract FoodItemDTO map(FoodItem foodItem);
+
+    /**
+     * Преобразует FoodItemCreateDTO в сущность FoodItem.
+     *
+     * @param createDTO DTO для создания позиции каталога
+     * @return сущность позиции каталога
+     */
+    public abstract FoodItem map(FoodItemCreateDTO createDTO);
+
+    /**
+     * Заполняет блюдо по позиции каталога: устанавливает ссылку и количество порций
+     * (1, если не указано), вычисляет пищевую ценность и берет название из каталога,
+     * если оно не передано. Блюда без позиции каталога не изменяются.
+     *
+     * @param dishCreateDTO DTO блюда
+     * @param dish сущность блюда после преобразования
+     * @throws ResourceNotFoundException если позиция каталога не найдена
+     * @throws IllegalArgumentException если количество порций указано без позиции каталога
+     */
+    @AfterMapping
+    public void applyFoodItem(DishCreateDTO dishCreateDTO, @MappingTarget Dish dish) {
+        if (dishCreateDTO.getFoodItemId() == null) {
+            if (dishCreateDTO.getPortion() != null) {
+                throw new IllegalArgumentException("Portion requires foodItemId");
+            }
+            return;
+        }
+        FoodItem foodItem = foodItemRepository.findById(dishCreateDTO.getFoodItemId())
+                .orElseThrow(() -> new ResourceNotFoundException("Food item not found"));
+        double portion = dishCreateDTO.getPortion() != null ? dishCreateDTO.getPortion() : 1.0;
+
+        dish.setFoodItem(foodItem);
+        dish.setPortion(portion);
+        dish.setCalories(foodItem.getCalories() * portion);
+        dish.setProteins(foodItem.getProteins() * portion);
+        dish.setFats(foodItem.getFats() * portion);
+        dish.setCarbohydrates(foodItem.getCarbohydrates() * portion);
+        if (dish.getName() == null || dish.getName().isBlank()) {
+            dish.setName(foodItem.getName());
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package org.example.calorietracker.mapper;
 
 import org.example.calorietracker.dto.meal.MealCreateDTO;
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.dto.dish.DishDTO;
 import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.dto.meal.MealExportDTO;
+import org.example.calorietracker.dto.meal.MealFoodItemDTO;
+import org.example.calorietracker.dto.meal.MealFoodItemExportDTO;
+import org.example.calorietracker.dto.meal.MealImportDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
 import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.FoodItem;
 import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.MealFoodItem;
 import org.example.calorietracker.repository.DishRepository;
+import org.example.calorietracker.repository.FoodItemRepository;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -13,7 +23,10 @@ import org.mapstruct.ReportingPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -23,18 +36,23 @@ import java.util.stream.Collectors;
  * <p>Основные преобразования:
  * <ul>
  *   <li>Meal ↔ MealDTO</li>
+ *   <li>Meal → MealExportDTO</li>
  *   <li>MealCreateDTO → Meal</li>
+ *   <li>MealImportDTO → Meal, DishCreateDTO → Dish (пакетный импорт)</li>
  * </ul>
  *
  * <p>Особенности:
  * <ul>
  *   <li>Игнорирует null-значения при обновлении</li>
  *   <li>Автоматически преобразует dishIds ↔ List<Dish></li>
+ *   <li>Загружает блюда по списку ID одним запросом</li>
+ *   <li>Преобразует позиции каталога приема пищи в {@link MealFoodItem}, загружая каталог одним запросом</li>
+ *   <li>Заполняет импортируемые блюда по позиции каталога через {@link FoodItemMapper}</li>
  *   <li>Игнорирует пользователя при создании (должен устанавливаться отдельно)</li>
  * </ul>
  */
 @Mapper(
-        uses = {ReferenceMapper.class, JsonNullableMapper.class},
+        uses = {ReferenceMapper.class, JsonNullableMapper.class, FoodItemMapper.class},
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
         componentModel = MappingConstants.ComponentModel.SPRING,
         unmappedTargetPolicy = ReportingPolicy.IGNORE
@@ -43,6 +61,9 @@ public abstract class MealMapper {
     @Autowired
     private DishRepository dishRepository;
 
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
     /**
      * Преобразует MealDTO в сущность Meal.
      *
@@ -50,6 +71,7 @@ public abstract class MealMapper {
      * @return сущность Meal
      */
     @Mapping(target = "dishes", source = "dishIds")
+    @Mapping(target = "foodItems", ignore = true)
     @Mapping(target = "user", ignore = true)
     public abstract Meal map(MealDTO mealDTO);
 
@@ -63,6 +85,43 @@ public abstract class MealMapper {
     @Mapping(target = "userId", source = "user.id")
     public abstract MealDTO map(Meal meal);
 
+    /**
+     * Преобразует сущность Meal в MealExportDTO вместе с блюдами.
+     *
+     * @param meal сущность приема пищи
+     * @return DTO приема пищи для выгрузки
+     */
+    public abstract MealExportDTO mapToExport(Meal meal);
+
+    /**
+     * Преобразует блюдо приема пищи для выгрузки.
+     *
+     * @param dish сущность блюда
+     * @return DTO блюда
+     */
+    @Mapping(target = "mealId", source = "meal.id")
+    @Mapping(target = "foodItemId", source = "foodItem.id")
+    protected abstract DishDTO mapDish(Dish dish);
+
+    /**
+     * Преобразует позицию каталога приема пищи в ссылку для {@link MealDTO}.
+     *
+     * @param mealFoodItem сущность ссылки на каталог
+     * @return ID позиции каталога и количество порций
+     */
+    @Mapping(target = "foodItemId", source = "foodItem.id")
+    protected abstract MealFoodItemDTO mapFoodItem(MealFoodItem mealFoodItem);
+
+    /**
+     * Преобразует позицию каталога приема пищи для выгрузки вместе с названием и пищевой ценностью порций.
+     *
+     * @param mealFoodItem сущность ссылки на каталог
+     * @return DTO позиции каталога для выгрузки
+     */
+    @Mapping(target = "foodItemId", source = "foodItem.id")
+    @Mapping(target = "name", source = "foodItem.name")
+    protected abstract MealFoodItemExportDTO mapFoodItemToExport(MealFoodItem mealFoodItem);
+
     /**
      * Преобразует MealCreateDTO в сущность Meal.
      *
@@ -73,21 +132,121 @@ public abstract class MealMapper {
     @Mapping(target = "user", ignore = true)
     public abstract Meal map(MealCreateDTO mealCreateDTO);
 
+    /**
+     * Преобразует MealImportDTO в сущность Meal без блюд и позиций каталога.
+     * Они и пользователь устанавливаются отдельно.
+     *
+     * @param mealImportDTO DTO импортируемого приема пищи
+     * @return сущность Meal
+     */
+    @Mapping(target = "dishes", ignore = true)
+    @Mapping(target = "foodItems", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    public abstract Meal map(MealImportDTO mealImportDTO);
+
+    /**
+     * Преобразует блюдо импортируемого приема пищи в сущность Dish.
+     * Прием пищи устанавливается отдельно.
+     *
+     * @param dishCreateDTO DTO блюда
+     * @return сущность Dish
+     */
+    @Mapping(target = "meal", ignore = true)
+    @Mapping(target = "portion", ignore = true)
+    public abstract Dish map(DishCreateDTO dishCreateDTO);
+
     /**
      * Преобразует список ID блюд в список сущностей Dish.
+     * Все блюда загружаются одним запросом, порядок результата совпадает с порядком ID.
      *
      * @param dishIds список ID блюд
      * @return список сущностей Dish
-     * @throws jakarta.persistence.EntityNotFoundException если блюдо не найдено
+     * @throws ResourceNotFoundException если хотя бы одно блюдо не найдено;
+     *                                   сообщение содержит все отсутствующие ID
      */
     public List<Dish> longToDish(List<Long> dishIds) {
-        return dishIds == null
-                ? new ArrayList<>()
-                : dishIds.stream()
-                .map(id -> dishRepository.findById(id).orElseThrow())
+        if (dishIds == null || dishIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Dish> dishesById = dishRepository.findAllById(dishIds).stream()
+                .collect(Collectors.toMap(Dish::getId, Function.identity()));
+
+        List<Long> missingIds = dishIds.stream()
+                .filter(id -> !dishesById.containsKey(id))
+                .distinct()
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Dishes not found: " + missingIds);
+        }
+
+        return dishIds.stream()
+                .map(dishesById::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Преобразует позиции каталога приема пищи в сущности {@link MealFoodItem}.
+     * Все позиции каталога загружаются одним запросом. Прием пищи устанавливается отдельно.
+     *
+     * @param foodItems позиции каталога с количеством порций
+     * @return ссылки на каталог в порядке позиций
+     * @throws ResourceNotFoundException если хотя бы одна позиция каталога не найдена;
+     *                                   сообщение содержит все отсутствующие ID
+     */
+    public List<MealFoodItem> toFoodItems(List<MealFoodItemDTO> foodItems) {
+        if (foodItems == null || foodItems.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, FoodItem> catalog = findFoodItems(foodItems);
+        return foodItems.stream()
+                .map(foodItem -> toFoodItem(foodItem, catalog))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Загружает позиции каталога, на которые ссылаются переданные DTO, одним запросом.
+     *
+     * @param foodItems позиции каталога с количеством порций
+     * @return позиции каталога по ID
+     * @throws ResourceNotFoundException если хотя бы одна позиция каталога не найдена;
+     *                                   сообщение содержит все отсутствующие ID
+     */
+    public Map<Long, FoodItem> findFoodItems(Collection<MealFoodItemDTO> foodItems) {
+        List<Long> ids = foodItems.stream()
+                .map(MealFoodItemDTO::getFoodItemId)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, FoodItem> catalog = foodItemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(FoodItem::getId, Function.identity()));
+
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !catalog.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Food items not found: " + missingIds);
+        }
+        return catalog;
+    }
+
+    /**
+     * Создает ссылку на уже загруженную позицию каталога (1 порция, если количество не указано).
+     * Прием пищи устанавливается отдельно.
+     *
+     * @param foodItem позиция каталога с количеством порций
+     * @param catalog позиции каталога по ID ({@link #findFoodItems(Collection)})
+     * @return ссылка на каталог
+     */
+    public MealFoodItem toFoodItem(MealFoodItemDTO foodItem, Map<Long, FoodItem> catalog) {
+        MealFoodItem mealFoodItem = new MealFoodItem();
+        mealFoodItem.setFoodItem(catalog.get(foodItem.getFoodItemId()));
+        mealFoodItem.setPortion(foodItem.getPortion() != null ? foodItem.getPortion() : 1.0);
+        return mealFoodItem;
+    }
+
     /**
      * Преобразует список сущностей Dish в список их ID.
      *
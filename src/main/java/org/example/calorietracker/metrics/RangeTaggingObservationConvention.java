@@ -0,0 +1,68 @@
+package org.example.calorietracker.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Добавляет к метрике {@code http.server.requests} тег {@value #RANGE_TAG} с длиной
+ * запрошенного периода. Период берется из параметров {@code startDate} и {@code endDate};
+ * запрос с параметром {@code date} считается периодом в один день.
+ *
+ * <p>Длина округляется до интервалов (1d, 2-7d, 8-31d, 32-92d, 93-366d, 367d+),
+ * чтобы количество временных рядов оставалось ограниченным.
+ */
+public class RangeTaggingObservationConvention extends DefaultServerRequestObservationConvention {
+    public static final String RANGE_TAG = "range";
+
+    static final String NONE = "none";
+    static final String INVALID = "invalid";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of(RANGE_TAG, rangeOf(context.getCarrier())));
+    }
+
+    /**
+     * Определяет интервал длины периода запроса.
+     *
+     * @param request HTTP-запрос
+     * @return значение тега {@value #RANGE_TAG}
+     */
+    static String rangeOf(HttpServletRequest request) {
+        String startDate = request.getParameter("startDate");
+        String endDate = request.getParameter("endDate");
+        if (startDate == null || endDate == null) {
+            return request.getParameter("date") == null ? NONE : bucket(1);
+        }
+        try {
+            return bucket(ChronoUnit.DAYS.between(LocalDate.parse(startDate), LocalDate.parse(endDate)) + 1);
+        } catch (DateTimeParseException e) {
+            return INVALID;
+        }
+    }
+
+    private static String bucket(long days) {
+        if (days < 1) {
+            return INVALID;
+        } else if (days == 1) {
+            return "1d";
+        } else if (days <= 7) {
+            return "2-7d";
+        } else if (days <= 31) {
+            return "8-31d";
+        } else if (days <= 92) {
+            return "32-92d";
+        } else if (days <= 366) {
+            return "93-366d";
+        }
+        return "367d+";
+    }
+}
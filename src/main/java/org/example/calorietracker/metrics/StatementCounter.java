@@ -0,0 +1,52 @@
+package org.example.calorietracker.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы, которые Hibernate выполняет в текущем потоке.
+ * Подсчет ведется только между {@link #start()} и {@link #stop()};
+ * запросы вне этого интервала (например, из фоновых задач) не учитываются.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    /**
+     * Начинает подсчет запросов в текущем потоке.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Завершает подсчет запросов в текущем потоке.
+     *
+     * @return количество запросов с момента {@link #start()} (0 если подсчет не начинался)
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Добавляет к счетчику текущего потока запросы, выполненные для него в других потоках.
+     * Если подсчет в текущем потоке не ведется, ничего не делает.
+     *
+     * @param statements количество запросов
+     */
+    public static void add(int statements) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0] += statements;
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
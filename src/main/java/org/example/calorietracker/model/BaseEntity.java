@@ -14,6 +14,14 @@ package org.example.calorietracker.model;
  * Реализующие классы должны соответствовать требованиям JPA.
  */
 public interface BaseEntity {
+    /**
+     * Размер блока идентификаторов, резервируемого Hibernate за одно обращение
+     * к последовательности. Должен совпадать с шагом последовательностей
+     * {@code meals_seq}, {@code dishes_seq}, {@code food_items_seq}, {@code meal_food_items_seq}
+     * и {@code meal_archive_days_seq} в миграциях Liquibase.
+     */
+    int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Предполагается, что реализующие классы будут содержать:
      * <ul>
@@ -0,0 +1,52 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Материализованная дневная сводка питания пользователя.
+ * Хранит суммарные калории и макронутриенты всех блюд пользователя за день.
+ *
+ * <p>Поддерживается инкрементально при изменении приемов пищи и блюд,
+ * поэтому отчеты читают готовые суммы по первичному ключу вместо
+ * агрегации соединения {@code meals} и {@code dishes}.
+ * Расхождения исправляются периодическим пересчетом.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "daily_nutrition_summary")
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNutritionSummary implements BaseEntity {
+    /**
+     * Составной ключ: пользователь и дата.
+     */
+    @EmbeddedId
+    private DailyNutritionSummaryId id;
+
+    /**
+     * Суммарная калорийность блюд за день (в ккал).
+     */
+    private double calories;
+
+    /**
+     * Суммарное содержание белков за день (в граммах).
+     */
+    private double proteins;
+
+    /**
+     * Суммарное содержание жиров за день (в граммах).
+     */
+    private double fats;
+
+    /**
+     * Суммарное содержание углеводов за день (в граммах).
+     */
+    private double carbohydrates;
+}
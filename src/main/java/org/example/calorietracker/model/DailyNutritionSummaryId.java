@@ -0,0 +1,37 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Составной ключ дневной сводки питания: пользователь и дата.
+ *
+ * @see DailyNutritionSummary
+ */
+@Getter
+@Setter
+@Embeddable
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNutritionSummaryId implements Serializable {
+    /**
+     * Идентификатор пользователя, к которому относится сводка.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Дата, за которую собрана сводка.
+     */
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate date;
+}
@@ -0,0 +1,50 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неизменяемый снимок дневного отчета пользователя за завершившийся день.
+ * Создается ночной задачей и читается вместо сборки отчета из {@code meals} и {@code dishes}.
+ *
+ * <p>Снимок не обновляется: если данные дня меняются задним числом, он удаляется
+ * и отчет за этот день снова формируется из исходных таблиц.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "daily_report_snapshots")
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyReportSnapshot implements BaseEntity {
+    /**
+     * Составной ключ: пользователь и дата отчета.
+     */
+    @EmbeddedId
+    @AttributeOverride(name = "date", column = @Column(name = "report_date", nullable = false))
+    private DailyNutritionSummaryId id;
+
+    /**
+     * Суммарная калорийность блюд за день (в ккал).
+     */
+    private double totalCalories;
+
+    /**
+     * Приемы пищи за день в виде JSON-массива {@code MealDTO}.
+     */
+    private String meals;
+
+    /**
+     * Момент создания снимка.
+     */
+    private LocalDateTime computedAt;
+}
@@ -1,22 +1,34 @@
 package org.example.calorietracker.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 /**
  * Сущность блюда, представляющая информацию о пищевой ценности.
  * Содержит данные о калорийности и макронутриентах блюда.
  *
  * <p>Связана с сущностью {@link Meal} отношением Many-to-One.
+ * Может ссылаться на позицию каталога {@link FoodItem}: в этом случае пищевая ценность
+ * блюда равна ценности позиции, умноженной на количество порций {@link #portion},
+ * и фиксируется при создании. Чтобы записать позицию каталога в прием пищи без отдельной строки блюда,
+ * используется {@link MealFoodItem}.
  *
  * <p>Пример использования:
  * <pre>
@@ -32,13 +44,17 @@ import lombok.Setter;
 @Setter
 @Entity
 @Table(name = "dishes")
-public class Dish implements BaseEntity {
+public class Dish implements BaseEntity, MealComponent {
     /**
      * Уникальный идентификатор блюда в базе данных.
-     * Генерируется автоматически при сохранении.
+     * Генерируется автоматически при сохранении из последовательности {@code dishes_seq}.
+     * Hibernate резервирует идентификаторы блоками по {@value BaseEntity#ID_ALLOCATION_SIZE}
+     * (оптимизатор pooled), поэтому вставки могут объединяться в JDBC-пакеты,
+     * что невозможно при {@code GenerationType.IDENTITY}.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dishes_seq")
+    @SequenceGenerator(name = "dishes_seq", sequenceName = "dishes_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -80,8 +96,43 @@ public class Dish implements BaseEntity {
      * Прием пищи, к которому относится это блюдо.
      * Связь Many-to-One с сущностью {@link Meal}.
      * Может быть null, если блюдо не привязано к конкретному приему пищи.
+     * Загружается лениво, чтобы пакетная загрузка блюд не порождала
+     * отдельный запрос на каждый связанный прием пищи.
+     * В PostgreSQL внешний ключ составной ({@code meal_id}, {@code meal_eaten_at})
+     * и создается миграцией, поэтому Hibernate его не генерирует.
      */
-    @ManyToOne
-    @JoinColumn(name = "meal_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "meal_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Meal meal;
+
+    /**
+     * Момент приема пищи, к которому относится блюдо: копия {@link Meal#getEatenAt()}.
+     * Ключ секционирования таблицы {@code dishes}; null для блюд без приема пищи.
+     * Заполняется при сохранении и при перепривязке блюда к другому приему пищи.
+     */
+    @Column(name = "meal_eaten_at")
+    private Instant mealEatenAt;
+
+    /**
+     * Позиция каталога, из которой создано блюдо.
+     * Может быть null для блюд, введенных вручную.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_item_id")
+    private FoodItem foodItem;
+
+    /**
+     * Количество порций позиции каталога.
+     * Заполняется только для блюд из каталога.
+     */
+    private Double portion;
+
+    /**
+     * Копирует момент приема пищи, чтобы блюдо попало в секцию его месяца.
+     */
+    @PrePersist
+    @PreUpdate
+    void fillMealEatenAt() {
+        mealEatenAt = meal != null ? meal.getEatenAt() : null;
+    }
 }
@@ -0,0 +1,113 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+
+import java.util.Locale;
+
+/**
+ * Сущность позиции каталога продуктов: название и пищевая ценность одной порции.
+ * Блюдо приема пищи ссылается на позицию каталога и указывает количество порций,
+ * поэтому клиенту не нужно повторять название и макронутриенты при каждом приеме пищи.
+ *
+ * <p>Для поиска по названию хранится нормализованная копия названия
+ * {@link #searchName}: без лишних пробелов и в нижнем регистре. По ней построены
+ * индексы префиксного и нечеткого (триграммного) поиска.
+ *
+ * <p>Позиции, на которые ссылаются приемы пищи ({@link MealFoodItem}), загружаются
+ * пакетами, чтобы выгрузка и архивация не читали их по одной.
+ *
+ * <p>Пример использования:
+ * <pre>
+ * FoodItem item = new FoodItem();
+ * item.setName("Овсянка 100 г");
+ * item.setCalories(350.0);
+ * item.setProteins(12.0);
+ * item.setFats(6.0);
+ * item.setCarbohydrates(60.0);
+ * </pre>
+ */
+@Getter
+@Setter
+@Entity
+@BatchSize(size = Meal.FOOD_ITEMS_BATCH_SIZE)
+@Table(name = "food_items")
+public class FoodItem implements BaseEntity {
+    /**
+     * Уникальный идентификатор позиции каталога.
+     * Генерируется из последовательности {@code food_items_seq} блоками
+     * по {@value BaseEntity#ID_ALLOCATION_SIZE}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_items_seq")
+    @SequenceGenerator(name = "food_items_seq", sequenceName = "food_items_seq", allocationSize = ID_ALLOCATION_SIZE)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * Название позиции в том виде, в котором его ввел пользователь.
+     */
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    /**
+     * Нормализованное название для поиска (см. {@link #normalize(String)}).
+     * Заполняется автоматически перед сохранением.
+     */
+    @Column(name = "search_name", nullable = false)
+    private String searchName;
+
+    /**
+     * Калорийность одной порции в килокалориях (ккал).
+     */
+    @Min(0)
+    private double calories;
+
+    /**
+     * Содержание белков в одной порции в граммах.
+     */
+    @Min(0)
+    private double proteins;
+
+    /**
+     * Содержание жиров в одной порции в граммах.
+     */
+    @Min(0)
+    private double fats;
+
+    /**
+     * Содержание углеводов в одной порции в граммах.
+     */
+    @Min(0)
+    private double carbohydrates;
+
+    /**
+     * Приводит строку к виду, в котором хранятся и сравниваются названия при поиске:
+     * обрезает пробелы по краям, схлопывает повторяющиеся пробелы и переводит в нижний регистр.
+     *
+     * @param value исходная строка (может быть null)
+     * @return нормализованная строка или null, если value равно null
+     */
+    public static String normalize(String value) {
+        return value == null
+                ? null
+                : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchName() {
+        searchName = normalize(name);
+    }
+}
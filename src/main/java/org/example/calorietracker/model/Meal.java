@@ -1,26 +1,39 @@
 package org.example.calorietracker.model;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 
-import java.time.LocalDate;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Сущность, представляющая прием пищи пользователя.
- * Содержит информацию о времени создания и связях с пользователем и блюдами.
+ * Содержит момент приема пищи и связи с пользователем и блюдами.
+ *
+ * <p>Момент хранится в UTC ({@link Instant}), а день, к которому относится прием пищи,
+ * определяется часовым поясом пользователя ({@link User#getZoneId()}). Поэтому отчеты
+ * за день пользователя выбирают приемы пищи по диапазону моментов
+ * {@code [начало дня, начало следующего дня)} в UTC, не вычисляя функций над столбцом.
  *
  * <p>Пример использования:
  * <pre>
@@ -28,36 +41,74 @@ import java.util.List;
  * meal.setUser(currentUser);
  * // добавление блюд через dish.setMeal(meal)
  * </pre>
+ *
+ * <p>Граф {@value #WITH_DISHES_GRAPH} загружает прием пищи вместе с блюдами одним запросом.
+ * Его используют все методы {@code MealRepository}, результат которых преобразуется в {@code MealDTO},
+ * иначе маппинг списка блюд порождает отдельный запрос на каждый прием пищи (N+1).
+ *
+ * <p>В PostgreSQL таблицы {@code meals}, {@code dishes} и {@code meal_food_items} разбиты на секции
+ * по месяцам момента приема пищи (см. {@code PartitionMaintenanceService}); блюда и ссылки на каталог
+ * хранят копию момента ({@link Dish#getMealEatenAt()}, {@link MealFoodItem#getMealEatenAt()}).
+ * Фильтр {@value #EATEN_AT_RANGE_FILTER} добавляет условие на этот столбец к загрузке блюд,
+ * чтобы запрос за период читал только секции {@code dishes} этого периода.
  */
 @Getter
 @Setter
 @Entity
+@NamedEntityGraph(name = Meal.WITH_DISHES_GRAPH, attributeNodes = @NamedAttributeNode("dishes"))
+@FilterDef(name = Meal.EATEN_AT_RANGE_FILTER, parameters = {
+        @ParamDef(name = "start", type = Instant.class),
+        @ParamDef(name = "end", type = Instant.class)
+})
 @Table(name = "meals")
-@EntityListeners(AuditingEntityListener.class)
 public class Meal implements BaseEntity {
+    /**
+     * Имя графа сущности для загрузки приема пищи вместе с блюдами.
+     */
+    public static final String WITH_DISHES_GRAPH = "Meal.withDishes";
+
+    /**
+     * Имя фильтра блюд по периоду {@code [start, end)} момента приема пищи.
+     * Включается только на время запроса приемов пищи за тот же период,
+     * поэтому не отбрасывает блюда загружаемых приемов пищи.
+     */
+    public static final String EATEN_AT_RANGE_FILTER = "Meal.eatenAtRange";
+
+    /**
+     * Количество приемов пищи, позиции каталога которых загружаются одним запросом.
+     */
+    public static final int FOOD_ITEMS_BATCH_SIZE = 100;
+
     /**
      * Уникальный идентификатор приема пищи.
-     * Генерируется автоматически при сохранении.
+     * Генерируется автоматически при сохранении из последовательности {@code meals_seq}.
+     * Hibernate резервирует идентификаторы блоками по {@value BaseEntity#ID_ALLOCATION_SIZE}
+     * (оптимизатор pooled), поэтому вставки могут объединяться в JDBC-пакеты,
+     * что невозможно при {@code GenerationType.IDENTITY}.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meals_seq")
+    @SequenceGenerator(name = "meals_seq", sequenceName = "meals_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
     /**
-     * Дата и время создания записи о приеме пищи.
-     * Заполняется автоматически при создании сущности.
-     * Формат: YYYY-MM-DD
+     * Момент приема пищи.
+     * Если не задан явно (например, при импорте истории),
+     * заполняется текущим моментом при создании сущности.
+     * Ключ секционирования таблицы {@code meals}.
      */
-    @CreatedDate
-    private LocalDate createdAt;
+    @Column(name = "eaten_at", nullable = false)
+    private Instant eatenAt;
 
     /**
      * Пользователь, которому принадлежит прием пищи.
      * Связь Many-to-One с сущностью {@link User}.
      * Обязательное поле (не может быть null).
+     * Загружается лениво: для маппинга в DTO нужен только идентификатор,
+     * который доступен у прокси без обращения к базе.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -68,5 +119,29 @@ public class Meal implements BaseEntity {
      * Может быть пустым (прием пищи без блюд).
      */
     @OneToMany(mappedBy = "meal")
+    @Filter(name = EATEN_AT_RANGE_FILTER, condition = "meal_eaten_at >= :start AND meal_eaten_at < :end")
     private List<Dish> dishes;
+
+    /**
+     * Позиции каталога, записанные в прием пищи, с количеством порций.
+     * В отличие от блюд принадлежат приему пищи: сохраняются и удаляются вместе с ним.
+     * Граф {@value #WITH_DISHES_GRAPH} их не загружает (две коллекции в одном запросе
+     * размножили бы строки блюд); они загружаются при первом обращении одним запросом
+     * сразу для {@value #FOOD_ITEMS_BATCH_SIZE} приемов пищи контекста.
+     */
+    @OneToMany(mappedBy = "meal", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = FOOD_ITEMS_BATCH_SIZE)
+    private List<MealFoodItem> foodItems = new ArrayList<>();
+
+    /**
+     * Устанавливает момент приема пищи, если он не был задан явно.
+     * Аудит Spring Data ({@code @CreatedDate}) здесь не используется:
+     * он перезаписывает момент и при импорте исторических приемов пищи.
+     */
+    @PrePersist
+    void fillEatenAt() {
+        if (eatenAt == null) {
+            eatenAt = Instant.now();
+        }
+    }
 }
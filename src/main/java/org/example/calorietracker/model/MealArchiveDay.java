@@ -0,0 +1,111 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Архивированные приемы пищи пользователя за один день.
+ * Хранит суммы пищевой ценности дня и сжатый (gzip) JSON-массив {@code MealExportDTO}
+ * с приемами пищи и блюдами целиком.
+ *
+ * <p>Строки создаются архиватором ({@code MealArchiveService}) при переносе старых приемов пищи
+ * из {@code meals} и {@code dishes} и не изменяются. Если приемы пищи одного дня архивируются
+ * в несколько приемов (например, после импорта истории задним числом), у дня несколько строк.
+ * День определяется часовым поясом пользователя на момент архивации ({@link #timeZone}).
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "meal_archive_days")
+@NoArgsConstructor
+public class MealArchiveDay implements BaseEntity {
+    /**
+     * Уникальный идентификатор строки архива.
+     * Генерируется из последовательности {@code meal_archive_days_seq}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meal_archive_days_seq")
+    @SequenceGenerator(name = "meal_archive_days_seq", sequenceName = "meal_archive_days_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * Идентификатор пользователя.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * День пользователя в часовом поясе {@link #timeZone}.
+     */
+    @Column(name = "archive_date", nullable = false)
+    private LocalDate date;
+
+    /**
+     * Часовой пояс пользователя на момент архивации.
+     */
+    @Column(name = "time_zone", nullable = false)
+    private String timeZone;
+
+    /**
+     * Количество приемов пищи в строке.
+     */
+    private int mealCount;
+
+    /**
+     * Суммарная калорийность блюд (в ккал).
+     */
+    private double totalCalories;
+
+    /**
+     * Суммарное содержание белков (в граммах).
+     */
+    private double totalProteins;
+
+    /**
+     * Суммарное содержание жиров (в граммах).
+     */
+    private double totalFats;
+
+    /**
+     * Суммарное содержание углеводов (в граммах).
+     */
+    private double totalCarbohydrates;
+
+    /**
+     * Приемы пищи в виде сжатого gzip JSON-массива {@code MealExportDTO}.
+     */
+    private byte[] meals;
+
+    /**
+     * Момент архивации.
+     */
+    private LocalDateTime archivedAt;
+
+    public MealArchiveDay(Long userId, LocalDate date, String timeZone, int mealCount,
+                          double totalCalories, double totalProteins, double totalFats, double totalCarbohydrates,
+                          byte[] meals, LocalDateTime archivedAt) {
+        this.userId = userId;
+        this.date = date;
+        this.timeZone = timeZone;
+        this.mealCount = mealCount;
+        this.totalCalories = totalCalories;
+        this.totalProteins = totalProteins;
+        this.totalFats = totalFats;
+        this.totalCarbohydrates = totalCarbohydrates;
+        this.meals = meals;
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.calorietracker.model;
+
+/**
+ * Составляющая приема пищи с пищевой ценностью: блюдо ({@link Dish})
+ * или ссылка на позицию каталога ({@link MealFoodItem}).
+ * По составляющим обновляются дневные сводки и суммы архива.
+ */
+public interface MealComponent {
+    /**
+     * @return прием пищи, к которому относится составляющая, или null
+     */
+    Meal getMeal();
+
+    /**
+     * @return калорийность в килокалориях (ккал)
+     */
+    double getCalories();
+
+    /**
+     * @return содержание белков в граммах
+     */
+    double getProteins();
+
+    /**
+     * @return содержание жиров в граммах
+     */
+    double getFats();
+
+    /**
+     * @return содержание углеводов в граммах
+     */
+    double getCarbohydrates();
+}
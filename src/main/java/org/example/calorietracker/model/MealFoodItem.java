@@ -0,0 +1,113 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Ссылка приема пищи на позицию каталога продуктов с количеством порций.
+ *
+ * <p>В отличие от {@link Dish} строка не повторяет название и пищевую ценность позиции:
+ * они читаются из каталога ({@link FoodItem}), поэтому таблица {@code meal_food_items}
+ * остается узкой — идентификаторы, момент приема пищи и количество порций.
+ * Позиции каталога не изменяются после создания, поэтому пищевая ценность
+ * уже записанных приемов пищи остается прежней.
+ *
+ * <p>Пример использования:
+ * <pre>
+ * MealFoodItem item = new MealFoodItem();
+ * item.setMeal(meal);
+ * item.setFoodItem(oatmeal);
+ * item.setPortion(1.5);
+ * </pre>
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "meal_food_items")
+public class MealFoodItem implements BaseEntity, MealComponent {
+    /**
+     * Уникальный идентификатор ссылки.
+     * Генерируется из последовательности {@code meal_food_items_seq} блоками
+     * по {@value BaseEntity#ID_ALLOCATION_SIZE}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meal_food_items_seq")
+    @SequenceGenerator(name = "meal_food_items_seq", sequenceName = "meal_food_items_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * Прием пищи, к которому относится ссылка.
+     * В PostgreSQL внешний ключ составной ({@code meal_id}, {@code meal_eaten_at})
+     * и создается миграцией, поэтому Hibernate его не генерирует.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "meal_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Meal meal;
+
+    /**
+     * Момент приема пищи: копия {@link Meal#getEatenAt()}.
+     * Ключ секционирования таблицы {@code meal_food_items}.
+     */
+    @Column(name = "meal_eaten_at", nullable = false)
+    private Instant mealEatenAt;
+
+    /**
+     * Позиция каталога.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "food_item_id", nullable = false)
+    private FoodItem foodItem;
+
+    /**
+     * Количество порций позиции каталога.
+     */
+    @Column(name = "portion", nullable = false)
+    private double portion;
+
+    @Override
+    public double getCalories() {
+        return foodItem.getCalories() * portion;
+    }
+
+    @Override
+    public double getProteins() {
+        return foodItem.getProteins() * portion;
+    }
+
+    @Override
+    public double getFats() {
+        return foodItem.getFats() * portion;
+    }
+
+    @Override
+    public double getCarbohydrates() {
+        return foodItem.getCarbohydrates() * portion;
+    }
+
+    /**
+     * Копирует момент приема пищи, чтобы ссылка попала в секцию его месяца.
+     */
+    @PrePersist
+    @PreUpdate
+    void fillMealEatenAt() {
+        mealEatenAt = meal.getEatenAt();
+    }
+}
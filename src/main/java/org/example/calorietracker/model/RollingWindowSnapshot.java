@@ -0,0 +1,72 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неизменяемый снимок сводки пользователя за скользящее окно из нескольких завершившихся дней
+ * (например, 7 или 30 дней по вчерашний день включительно). Создается ночной задачей.
+ *
+ * <p>Дни с превышением нормы и серии дней в пределах нормы посчитаны по норме калорий
+ * на момент создания снимка. Если данные дней окна меняются задним числом, снимок удаляется.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "rolling_window_snapshots")
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollingWindowSnapshot implements BaseEntity {
+    /**
+     * Составной ключ: пользователь, последний день окна и длина окна.
+     */
+    @EmbeddedId
+    private RollingWindowSnapshotId id;
+
+    /**
+     * Суммарная калорийность блюд за окно (в ккал).
+     */
+    private double calories;
+
+    /**
+     * Суммарное содержание белков за окно (в граммах).
+     */
+    private double proteins;
+
+    /**
+     * Суммарное содержание жиров за окно (в граммах).
+     */
+    private double fats;
+
+    /**
+     * Суммарное содержание углеводов за окно (в граммах).
+     */
+    private double carbohydrates;
+
+    /**
+     * Количество дней окна с записями.
+     */
+    private int daysLogged;
+
+    /**
+     * Количество дней окна, в которые норма калорий превышена.
+     */
+    private int daysOverLimit;
+
+    /**
+     * Самая длинная серия подряд идущих дней окна в пределах нормы.
+     */
+    private int longestStreakWithinLimit;
+
+    /**
+     * Момент создания снимка.
+     */
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,42 @@
+package org.example.calorietracker.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Составной первичный ключ снимка скользящего окна:
+ * пользователь, последний день окна и длина окна в днях.
+ */
+@Getter
+@Setter
+@Embeddable
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollingWindowSnapshotId implements Serializable {
+    /**
+     * Идентификатор пользователя, к которому относится снимок.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Последний день окна (включительно).
+     */
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    /**
+     * Длина окна в днях.
+     */
+    @Column(name = "window_days", nullable = false)
+    private int days;
+}
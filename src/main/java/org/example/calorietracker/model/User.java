@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.*;
+
+import java.time.ZoneId;
 import java.util.List;
 
 /**
@@ -20,6 +22,7 @@ import java.util.List;
  * user.setHeight(180.0);
  * user.setGender(GenderType.MALE);
  * user.setGoal(GoalType.WEIGHT_LOSS);
+ * user.setTimeZone("Europe/Moscow");
  * </pre>
  */
 @Getter
@@ -29,6 +32,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements BaseEntity {
+    /**
+     * Часовой пояс, который назначается пользователю, если он не указал свой.
+     */
+    public static final String DEFAULT_TIME_ZONE = "UTC";
 
     /**
      * Уникальный идентификатор пользователя.
@@ -102,6 +109,23 @@ public class User implements BaseEntity {
     @Enumerated(EnumType.STRING)
     private GoalType goal;
 
+    /**
+     * Часовой пояс пользователя (идентификатор IANA, например {@code Europe/Moscow}).
+     * Определяет, к какому дню пользователя относится прием пищи,
+     * и границы дней в отчетах. Не может быть null.
+     */
+    @Column(name = "time_zone", nullable = false)
+    private String timeZone = DEFAULT_TIME_ZONE;
+
+    /**
+     * Версия данных о питании пользователя. Увеличивается при каждом изменении
+     * его приемов пищи и блюд и используется как ETag отчетов.
+     * Изменяется только запросами {@code UPDATE} в базе данных, поэтому сохранение
+     * пользователя с устаревшим значением не уменьшает версию.
+     */
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false)
+    private long dataVersion;
+
     /**
      * Список приемов пищи пользователя.
      * Связь One-to-Many с сущностью {@link Meal}.
@@ -110,4 +134,13 @@ public class User implements BaseEntity {
      */
     @OneToMany(mappedBy = "user")
     private List<Meal> meals;
+
+    /**
+     * Возвращает часовой пояс пользователя.
+     *
+     * @return часовой пояс
+     */
+    public ZoneId getZoneId() {
+        return ZoneId.of(timeZone);
+    }
 }
@@ -0,0 +1,215 @@
+package org.example.calorietracker.repository;
+
+import org.example.calorietracker.model.DailyNutritionSummary;
+import org.example.calorietracker.model.DailyNutritionSummaryId;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.example.calorietracker.repository.projection.PeriodNutrition;
+import org.example.calorietracker.repository.projection.PeriodStreak;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сущностями {@link DailyNutritionSummary}.
+ * Предоставляет чтение готовых дневных сумм и их инкрементальное изменение.
+ */
+@Repository
+public interface DailyNutritionSummaryRepository
+        extends JpaRepository<DailyNutritionSummary, DailyNutritionSummaryId> {
+
+    /**
+     * Понедельник недели {@code summary_date} в SQL. Одинаково вычисляется в PostgreSQL и H2,
+     * в отличие от {@code date_trunc('week', ...)}, и совпадает с
+     * {@code TemporalAdjusters.previousOrSame(MONDAY)} на стороне приложения.
+     */
+    String WEEK_START = "(summary_date - CAST(EXTRACT(ISODOW FROM summary_date) AS INTEGER) + 1)";
+
+    /**
+     * Находит дневные сводки пользователя за период.
+     * Чтение идет по диапазону первичного ключа {@code (user_id, summary_date)}.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @return суммы калорий и макронутриентов по дням
+     */
+    @Query("SELECT s.id.date AS date, " +
+            "s.calories AS totalCalories, " +
+            "s.proteins AS totalProteins, " +
+            "s.fats AS totalFats, " +
+            "s.carbohydrates AS totalCarbohydrates " +
+            "FROM DailyNutritionSummary s " +
+            "WHERE s.id.userId = :userId " +
+            "AND s.id.date >= :startDate AND s.id.date < :endDate " +
+            "ORDER BY s.id.date")
+    List<DailyNutrition> findByUserIdAndDateRange(@Param("userId") Long userId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * Суммирует дневные сводки пользователя по неделям (с понедельника) одним запросом.
+     * Группировка выполняется в базе по понедельнику недели над диапазоном первичного ключа;
+     * приемы пищи и блюда не читаются. Понедельник вычисляется через {@code ISODOW}, а не
+     * {@code date_trunc('week', ...)}: H2 начинает неделю с воскресенья.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий для подсчета дней с превышением
+     * @return сводки по неделям, в которых есть записи, в хронологическом порядке
+     */
+    @Query(value = "SELECT " + WEEK_START + " AS periodStart, "
+            + "SUM(calories) AS totalCalories, "
+            + "SUM(proteins) AS totalProteins, "
+            + "SUM(fats) AS totalFats, "
+            + "SUM(carbohydrates) AS totalCarbohydrates, "
+            + "AVG(calories) AS averageCalories, "
+            + "AVG(proteins) AS averageProteins, "
+            + "AVG(fats) AS averageFats, "
+            + "AVG(carbohydrates) AS averageCarbohydrates, "
+            + "COUNT(*) AS daysLogged, "
+            + "SUM(CASE WHEN calories > :calorieLimit THEN 1 ELSE 0 END) AS daysOverLimit "
+            + "FROM daily_nutrition_summary "
+            + "WHERE user_id = :userId AND summary_date >= :startDate AND summary_date < :endDate "
+            + "AND calories > 0 "
+            + "GROUP BY " + WEEK_START + " ORDER BY periodStart", nativeQuery = true)
+    List<PeriodNutrition> findWeeklyByUserIdAndDateRange(@Param("userId") Long userId,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate,
+                                                         @Param("calorieLimit") double calorieLimit);
+
+    /**
+     * Суммирует дневные сводки пользователя по календарным месяцам одним запросом.
+     * Группировка выполняется в базе по {@code date_trunc('month', ...)}.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий для подсчета дней с превышением
+     * @return сводки по месяцам, в которых есть записи, в хронологическом порядке
+     */
+    @Query("SELECT cast(function('date_trunc', 'month', s.id.date) as LocalDate) AS periodStart, " +
+            "SUM(s.calories) AS totalCalories, " +
+            "SUM(s.proteins) AS totalProteins, " +
+            "SUM(s.fats) AS totalFats, " +
+            "SUM(s.carbohydrates) AS totalCarbohydrates, " +
+            "AVG(s.calories) AS averageCalories, " +
+            "AVG(s.proteins) AS averageProteins, " +
+            "AVG(s.fats) AS averageFats, " +
+            "AVG(s.carbohydrates) AS averageCarbohydrates, " +
+            "COUNT(s) AS daysLogged, " +
+            "SUM(CASE WHEN s.calories > :calorieLimit THEN 1 ELSE 0 END) AS daysOverLimit " +
+            "FROM DailyNutritionSummary s " +
+            "WHERE s.id.userId = :userId " +
+            "AND s.id.date >= :startDate AND s.id.date < :endDate " +
+            "AND s.calories > 0 " +
+            "GROUP BY cast(function('date_trunc', 'month', s.id.date) as LocalDate) " +
+            "ORDER BY periodStart")
+    List<PeriodNutrition> findMonthlyByUserIdAndDateRange(@Param("userId") Long userId,
+                                                          @Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate,
+                                                          @Param("calorieLimit") double calorieLimit);
+
+    /**
+     * Находит самую длинную серию подряд идущих дней в пределах нормы калорий в каждой неделе
+     * (с понедельника).
+     *
+     * <p>Серии находятся в базе методом «пробелов и островов»: у дней одной серии разность
+     * даты и порядкового номера дня внутри недели ({@code row_number()}) одинакова, поэтому
+     * длина серии — это размер группы по этой разности. Серия не переходит границу недели.
+     * Приложению возвращается по одной строке на неделю, а не все даты диапазона.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий
+     * @return длина самой длинной серии по неделям, в которых есть такие дни, в хронологическом порядке
+     */
+    @Query(value = "SELECT period_start AS periodStart, MAX(streak) AS longestStreak FROM ("
+            + "SELECT period_start, COUNT(*) AS streak FROM ("
+            + "SELECT " + WEEK_START + " AS period_start, "
+            + "summary_date - CAST(ROW_NUMBER() OVER ("
+            + "PARTITION BY " + WEEK_START + " ORDER BY summary_date) AS INTEGER) AS island "
+            + "FROM daily_nutrition_summary "
+            + "WHERE user_id = :userId AND summary_date >= :startDate AND summary_date < :endDate "
+            + "AND calories > 0 AND calories <= :calorieLimit"
+            + ") days GROUP BY period_start, island"
+            + ") islands GROUP BY period_start ORDER BY period_start", nativeQuery = true)
+    List<PeriodStreak> findWeeklyStreaksWithinLimit(@Param("userId") Long userId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate,
+                                                    @Param("calorieLimit") double calorieLimit);
+
+    /**
+     * Находит самую длинную серию подряд идущих дней в пределах нормы калорий
+     * в каждом календарном месяце. Серии находятся так же, как в
+     * {@link #findWeeklyStreaksWithinLimit}, но в пределах {@code date_trunc('month', ...)}.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий
+     * @return длина самой длинной серии по месяцам, в которых есть такие дни, в хронологическом порядке
+     */
+    @Query(value = "SELECT period_start AS periodStart, MAX(streak) AS longestStreak FROM ("
+            + "SELECT period_start, COUNT(*) AS streak FROM ("
+            + "SELECT CAST(date_trunc('month', summary_date) AS DATE) AS period_start, "
+            + "summary_date - CAST(ROW_NUMBER() OVER ("
+            + "PARTITION BY date_trunc('month', summary_date) ORDER BY summary_date) AS INTEGER) AS island "
+            + "FROM daily_nutrition_summary "
+            + "WHERE user_id = :userId AND summary_date >= :startDate AND summary_date < :endDate "
+            + "AND calories > 0 AND calories <= :calorieLimit"
+            + ") days GROUP BY period_start, island"
+            + ") islands GROUP BY period_start ORDER BY period_start", nativeQuery = true)
+    List<PeriodStreak> findMonthlyStreaksWithinLimit(@Param("userId") Long userId,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate,
+                                                     @Param("calorieLimit") double calorieLimit);
+
+    /**
+     * Находит суммарную калорийность пользователя за день.
+     *
+     * @param userId идентификатор пользователя
+     * @param date дата
+     * @return сумма калорий или пустой Optional, если сводки за день нет
+     */
+    @Query("SELECT s.calories FROM DailyNutritionSummary s " +
+            "WHERE s.id.userId = :userId AND s.id.date = :date")
+    Optional<Double> findCaloriesByUserIdAndDate(@Param("userId") Long userId,
+                                                 @Param("date") LocalDate date);
+
+    /**
+     * Прибавляет значения к существующей дневной сводке.
+     * Для вычитания передаются отрицательные значения.
+     *
+     * @return количество измененных строк (0, если сводки за день еще нет)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DailyNutritionSummary s SET " +
+            "s.calories = s.calories + :calories, " +
+            "s.proteins = s.proteins + :proteins, " +
+            "s.fats = s.fats + :fats, " +
+            "s.carbohydrates = s.carbohydrates + :carbohydrates " +
+            "WHERE s.id.userId = :userId AND s.id.date = :date")
+    int addToSummary(@Param("userId") Long userId,
+                     @Param("date") LocalDate date,
+                     @Param("calories") double calories,
+                     @Param("proteins") double proteins,
+                     @Param("fats") double fats,
+                     @Param("carbohydrates") double carbohydrates);
+
+    /**
+     * Удаляет все дневные сводки пользователя.
+     *
+     * @param userId идентификатор пользователя
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM DailyNutritionSummary s WHERE s.id.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,60 @@
+package org.example.calorietracker.repository;
+
+import org.example.calorietracker.model.DailyNutritionSummaryId;
+import org.example.calorietracker.model.DailyReportSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностями {@link DailyReportSnapshot}.
+ */
+@Repository
+public interface DailyReportSnapshotRepository extends JpaRepository<DailyReportSnapshot, DailyNutritionSummaryId> {
+
+    /**
+     * Находит снимки дневных отчетов пользователя за период.
+     * Чтение идет по диапазону первичного ключа {@code (user_id, report_date)}.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @return снимки в хронологическом порядке
+     */
+    @Query("SELECT s FROM DailyReportSnapshot s " +
+            "WHERE s.id.userId = :userId " +
+            "AND s.id.date >= :startDate AND s.id.date < :endDate " +
+            "ORDER BY s.id.date")
+    List<DailyReportSnapshot> findByUserIdAndDateRange(@Param("userId") Long userId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    /**
+     * Удаляет снимки дневных отчетов пользователя за указанные дни.
+     * Несохраненные изменения сбрасываются в базу до удаления, чтобы снимки, созданные
+     * в той же транзакции, тоже были удалены.
+     *
+     * @param userId идентификатор пользователя
+     * @param dates дни, данные которых изменились
+     * @return количество удаленных снимков
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM DailyReportSnapshot s WHERE s.id.userId = :userId AND s.id.date IN :dates")
+    int deleteByUserIdAndDates(@Param("userId") Long userId, @Param("dates") Collection<LocalDate> dates);
+
+    /**
+     * Удаляет все снимки дневных отчетов пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество удаленных снимков
+     */
+    @Modifying
+    @Query("DELETE FROM DailyReportSnapshot s WHERE s.id.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,9 +1,18 @@
 package org.example.calorietracker.repository;
 
 import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.repository.projection.DishNameUsage;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Репозиторий для работы с сущностями {@link Dish}.
  * Обеспечивает базовые CRUD-операции и доступ к данным о блюдах.
@@ -31,6 +40,40 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface DishRepository extends JpaRepository<Dish, Long> {
+
+    /**
+     * Находит блюда после указанного идентификатора (keyset-пагинация).
+     *
+     * @param afterId идентификатор, после которого начинается выборка
+     * @param limit максимальное количество блюд
+     * @return блюда по возрастанию идентификатора
+     */
+    List<Dish> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Подсчитывает количество блюд с каждым названием.
+     *
+     * @return названия блюд с количеством использований
+     */
+    @Query("SELECT d.name AS name, COUNT(d) AS usageCount FROM Dish d GROUP BY d.name")
+    List<DishNameUsage> findNameUsage();
+
+    /**
+     * Удаляет блюда приемов пищи. Условие на момент приема пищи ограничивает удаление
+     * секциями этого периода.
+     *
+     * @param mealIds идентификаторы приемов пищи
+     * @param start начало периода приемов пищи (включительно)
+     * @param end конец периода приемов пищи (не включительно)
+     * @return количество удаленных блюд
+     */
+    @Modifying
+    @Query("DELETE FROM Dish d WHERE d.meal.id IN :mealIds " +
+            "AND d.mealEatenAt >= :start AND d.mealEatenAt < :end")
+    int deleteByMealIdInAndMealEatenAtRange(@Param("mealIds") Collection<Long> mealIds,
+                                            @Param("start") Instant start,
+                                            @Param("end") Instant end);
+
     // Можно добавить кастомные методы запросов:
     // List<Dish> findByMealId(Long mealId);
     // List<Dish> findByNameContainingIgnoreCase(String name);
@@ -0,0 +1,47 @@
+package org.example.calorietracker.repository;
+
+import org.example.calorietracker.model.FoodItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с каталогом продуктов {@link FoodItem}.
+ *
+ * <p>Поиск выполняется по нормализованному названию {@code search_name}:
+ * <ul>
+ *   <li>префиксный поиск использует B-tree индекс (в PostgreSQL с классом операторов
+ *       {@code text_pattern_ops}, чтобы {@code LIKE 'abc%'} работал независимо от правил сортировки базы);</li>
+ *   <li>нечеткий поиск использует GIN-индекс расширения {@code pg_trgm} и доступен только в PostgreSQL.</li>
+ * </ul>
+ */
+@Repository
+public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
+
+    /**
+     * Находит позиции, нормализованное название которых начинается с префикса.
+     * Символы {@code %}, {@code _} и {@code \} в префиксе должны быть экранированы обратной косой чертой.
+     *
+     * @param pattern экранированный префикс с завершающим {@code %}
+     * @param limit максимальное количество позиций
+     * @return позиции в алфавитном порядке нормализованного названия
+     */
+    @Query("SELECT f FROM FoodItem f WHERE f.searchName LIKE :pattern ESCAPE '\\' "
+            + "ORDER BY f.searchName, f.id")
+    List<FoodItem> findBySearchNamePrefix(String pattern, Limit limit);
+
+    /**
+     * Находит позиции, похожие на запрос по триграммам (оператор {@code %} расширения {@code pg_trgm}).
+     * Находит названия с опечатками и совпадения в середине названия. Только для PostgreSQL.
+     *
+     * @param query нормализованный поисковый запрос
+     * @param limit максимальное количество позиций
+     * @return позиции по убыванию сходства
+     */
+    @Query(value = "SELECT * FROM food_items WHERE search_name % :query "
+            + "ORDER BY similarity(search_name, :query) DESC, id LIMIT :limit", nativeQuery = true)
+    List<FoodItem> findSimilar(String query, int limit);
+}
@@ -0,0 +1,85 @@
+package org.example.calorietracker.repository;
+
+import jakarta.persistence.QueryHint;
+import org.example.calorietracker.model.MealArchiveDay;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Репозиторий для работы с сущностями {@link MealArchiveDay}.
+ * Все запросы читают строки одного пользователя по индексу {@code (user_id, archive_date)}.
+ */
+@Repository
+public interface MealArchiveDayRepository extends JpaRepository<MealArchiveDay, Long> {
+
+    /**
+     * Находит строки архива пользователя за период.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @return строки архива в хронологическом порядке
+     */
+    @Query("SELECT a FROM MealArchiveDay a " +
+            "WHERE a.userId = :userId " +
+            "AND a.date >= :startDate AND a.date < :endDate " +
+            "ORDER BY a.date, a.id")
+    List<MealArchiveDay> findByUserIdAndDateRange(@Param("userId") Long userId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * Суммирует пищевую ценность архива пользователя по дням, архивированным в указанном часовом поясе.
+     * Дни таких строк совпадают с днями пользователя в этом поясе, поэтому распаковывать приемы пищи не нужно.
+     *
+     * @param userId идентификатор пользователя
+     * @param timeZone идентификатор часового пояса
+     * @return суммы калорий и макронутриентов по дням
+     */
+    @Query("SELECT a.date AS date, " +
+            "SUM(a.totalCalories) AS totalCalories, " +
+            "SUM(a.totalProteins) AS totalProteins, " +
+            "SUM(a.totalFats) AS totalFats, " +
+            "SUM(a.totalCarbohydrates) AS totalCarbohydrates " +
+            "FROM MealArchiveDay a " +
+            "WHERE a.userId = :userId AND a.timeZone = :timeZone " +
+            "GROUP BY a.date")
+    List<DailyNutrition> findDailyNutritionByUserIdAndTimeZone(@Param("userId") Long userId,
+                                                               @Param("timeZone") String timeZone);
+
+    /**
+     * Находит строки архива пользователя, архивированные в другом часовом поясе.
+     *
+     * @param userId идентификатор пользователя
+     * @param timeZone идентификатор текущего часового пояса пользователя
+     * @return строки архива
+     */
+    @Query("SELECT a FROM MealArchiveDay a WHERE a.userId = :userId AND a.timeZone <> :timeZone")
+    List<MealArchiveDay> findByUserIdAndOtherTimeZone(@Param("userId") Long userId,
+                                                      @Param("timeZone") String timeZone);
+
+    /**
+     * Последовательно читает все строки архива пользователя.
+     * Поток должен использоваться и закрываться внутри транзакции.
+     *
+     * @param userId идентификатор пользователя
+     * @return поток строк архива в хронологическом порядке
+     */
+    @Query("SELECT a FROM MealArchiveDay a " +
+            "WHERE a.userId = :userId " +
+            "ORDER BY a.date, a.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + MealRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<MealArchiveDay> streamByUserId(@Param("userId") Long userId);
+}
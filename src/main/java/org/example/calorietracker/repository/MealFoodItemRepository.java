@@ -0,0 +1,55 @@
+package org.example.calorietracker.repository;
+
+import org.example.calorietracker.model.MealFoodItem;
+import org.example.calorietracker.repository.projection.MealNutrition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий для работы со ссылками приемов пищи на позиции каталога ({@link MealFoodItem}).
+ * Ссылки сохраняются и удаляются вместе с приемом пищи; репозиторий нужен
+ * для пересчета сводок и массового удаления при архивации.
+ */
+@Repository
+public interface MealFoodItemRepository extends JpaRepository<MealFoodItem, Long> {
+    /**
+     * Вычисляет пищевую ценность позиций каталога каждого приема пищи пользователя за все время:
+     * ценность позиции, умноженную на количество порций.
+     * Дополняет {@link MealRepository#findMealNutritionByUserId(Long)} при полном пересчете дневных сводок.
+     *
+     * @param userId идентификатор пользователя
+     * @return моменты приемов пищи с суммами их позиций каталога
+     */
+    @Query("SELECT r.mealEatenAt AS eatenAt, " +
+            "SUM(f.calories * r.portion) AS totalCalories, " +
+            "SUM(f.proteins * r.portion) AS totalProteins, " +
+            "SUM(f.fats * r.portion) AS totalFats, " +
+            "SUM(f.carbohydrates * r.portion) AS totalCarbohydrates " +
+            "FROM MealFoodItem r JOIN r.foodItem f JOIN r.meal m " +
+            "WHERE m.user.id = :userId " +
+            "GROUP BY m.id, r.mealEatenAt")
+    List<MealNutrition> findMealNutritionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Удаляет ссылки приемов пищи на каталог. Условие на момент приема пищи ограничивает
+     * удаление секциями этого периода.
+     *
+     * @param mealIds идентификаторы приемов пищи
+     * @param start начало периода приемов пищи (включительно)
+     * @param end конец периода приемов пищи (не включительно)
+     * @return количество удаленных ссылок
+     */
+    @Modifying
+    @Query("DELETE FROM MealFoodItem r WHERE r.meal.id IN :mealIds " +
+            "AND r.mealEatenAt >= :start AND r.mealEatenAt < :end")
+    int deleteByMealIdInAndMealEatenAtRange(@Param("mealIds") Collection<Long> mealIds,
+                                            @Param("start") Instant start,
+                                            @Param("end") Instant end);
+}
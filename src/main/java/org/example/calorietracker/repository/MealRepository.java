@@ -1,13 +1,23 @@
 package org.example.calorietracker.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.repository.projection.MealNutrition;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с сущностями {@link Meal}.
@@ -18,40 +28,174 @@ import java.util.List;
  * <ul>
  *   <li>{@code save()}, {@code findAll()}, {@code deleteById()} и др.</li>
  * </ul>
+ *
+ * <p>Методы чтения, результат которых преобразуется в {@code MealDTO},
+ * загружают блюда вместе с приемами пищи через граф {@link Meal#WITH_DISHES_GRAPH}.
+ * Выборка за период реализована в {@link MealRepositoryCustomImpl}.
  */
 @Repository
-public interface MealRepository extends JpaRepository<Meal, Long> {
+public interface MealRepository extends JpaRepository<Meal, Long>, MealRepositoryCustom {
+    /**
+     * Количество строк, получаемых драйвером за одно обращение к базе при потоковом чтении.
+     */
+    int EXPORT_FETCH_SIZE = 500;
 
     /**
-     * Находит все приемы пищи пользователя за указанную дату.
+     * Находит прием пищи по идентификатору вместе с блюдами.
      *
-     * @param userId идентификатор пользователя
-     * @param date дата для поиска (без времени)
-     * @return список приемов пищи или пустой список, если ничего не найдено
+     * @param id идентификатор приема пищи
+     * @return прием пищи или пустой Optional
+     */
+    @Override
+    @EntityGraph(Meal.WITH_DISHES_GRAPH)
+    Optional<Meal> findById(Long id);
+
+    /**
+     * Находит все приемы пищи вместе с блюдами.
+     *
+     * @return список всех приемов пищи
+     */
+    @Override
+    @EntityGraph(Meal.WITH_DISHES_GRAPH)
+    List<Meal> findAll();
+
+    /**
+     * Выбирает идентификаторы приемов пищи после указанного (keyset-пагинация).
+     *
+     * @param afterId идентификатор, после которого начинается выборка
+     * @param limit максимальное количество идентификаторов
+     * @return идентификаторы по возрастанию
      */
-    List<Meal> findByUserIdAndCreatedAt(Long userId, LocalDate date);
+    @Query("SELECT m.id FROM Meal m WHERE m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 
     /**
-     * Вычисляет суммарную калорийность всех блюд пользователя за указанную дату.
+     * Находит приемы пищи по идентификаторам вместе с блюдами.
+     *
+     * @param ids идентификаторы приемов пищи
+     * @return приемы пищи по возрастанию идентификатора
+     */
+    @EntityGraph(Meal.WITH_DISHES_GRAPH)
+    List<Meal> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Вычисляет суммарную калорийность всех блюд пользователя за период.
      *
      * <p>Использует JPQL-запрос для соединения таблиц и агрегации данных.
+     * Период задается полуоткрытым интервалом моментов {@code [start, end)} в UTC: условие
+     * накладывается на сам столбец {@code eaten_at} без обертки в функцию,
+     * поэтому PostgreSQL использует индекс {@code idx_meals_user_id_eaten_at}.
+     * То же условие на копию момента в блюдах ограничивает чтение {@code dishes}
+     * секциями периода. Границы дня пользователя переводятся в моменты до запроса по его часовому поясу.
      *
      * @param userId идентификатор пользователя
-     * @param date дата для расчета (без времени)
+     * @param start начало периода (включительно)
+     * @param end конец периода (не включительно)
      * @return сумма калорий (0 если нет данных)
      *
-     * <p>Пример запроса:
+     * <p>Пример запроса за 10 марта 2024 года пользователя из Москвы (UTC+3):
      * <pre>
      * SELECT SUM(d.calories)
      * FROM Meal m JOIN m.dishes d
      * WHERE m.user.id = 123
-     * AND DATE(m.createdAt) = '2023-01-01'
+     * AND m.eatenAt >= '2024-03-09T21:00:00Z'
+     * AND m.eatenAt < '2024-03-10T21:00:00Z'
      * </pre>
      */
     @Query("SELECT COALESCE(SUM(d.calories), 0) " +
             "FROM Meal m JOIN m.dishes d " +
             "WHERE m.user.id = :userId " +
-            "AND DATE(m.createdAt) = :date")
-    Double findTotalCaloriesByUserIdAndCreatedAt(@Param("userId") Long userId,
-                                                 @Param("date") LocalDate date);
+            "AND m.eatenAt >= :start AND m.eatenAt < :end " +
+            "AND d.mealEatenAt >= :start AND d.mealEatenAt < :end")
+    Double findTotalCaloriesByUserIdAndEatenAtRange(@Param("userId") Long userId,
+                                                    @Param("start") Instant start,
+                                                    @Param("end") Instant end);
+
+    /**
+     * Находит пользователей, у которых есть приемы пищи за период.
+     *
+     * @param start начало периода (включительно)
+     * @param end конец периода (не включительно)
+     * @return идентификаторы пользователей по возрастанию
+     */
+    @Query("SELECT DISTINCT m.user.id FROM Meal m " +
+            "WHERE m.eatenAt >= :start AND m.eatenAt < :end " +
+            "ORDER BY m.user.id")
+    List<Long> findUserIdsWithMealsBetween(@Param("start") Instant start,
+                                           @Param("end") Instant end);
+
+    /**
+     * Находит пользователей, у которых есть приемы пищи раньше указанного момента.
+     *
+     * @param end момент (не включительно)
+     * @return идентификаторы пользователей по возрастанию
+     */
+    @Query("SELECT DISTINCT m.user.id FROM Meal m " +
+            "WHERE m.eatenAt < :end " +
+            "ORDER BY m.user.id")
+    List<Long> findUserIdsWithMealsBefore(@Param("end") Instant end);
+
+    /**
+     * Находит момент самого раннего приема пищи пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return момент или пустой Optional, если приемов пищи нет
+     */
+    @Query("SELECT MIN(m.eatenAt) FROM Meal m WHERE m.user.id = :userId")
+    Optional<Instant> findFirstEatenAtByUserId(@Param("userId") Long userId);
+
+    /**
+     * Удаляет приемы пищи по идентификаторам. Условие на период ограничивает удаление
+     * секциями этого периода. Блюда приемов пищи должны быть удалены или отвязаны заранее.
+     *
+     * @param ids идентификаторы приемов пищи
+     * @param start начало периода приемов пищи (включительно)
+     * @param end конец периода приемов пищи (не включительно)
+     * @return количество удаленных приемов пищи
+     */
+    @Modifying
+    @Query("DELETE FROM Meal m WHERE m.id IN :ids AND m.eatenAt >= :start AND m.eatenAt < :end")
+    int deleteByIdInAndEatenAtRange(@Param("ids") Collection<Long> ids,
+                                    @Param("start") Instant start,
+                                    @Param("end") Instant end);
+
+    /**
+     * Последовательно читает все приемы пищи пользователя вместе с блюдами.
+     *
+     * <p>Результат не загружается в память целиком: строки читаются курсором JDBC
+     * порциями по {@value #EXPORT_FETCH_SIZE}. Поток должен использоваться и закрываться
+     * внутри транзакции. Сущности остаются в контексте персистентности, поэтому
+     * вызывающий код должен отсоединять уже обработанные приемы пищи.
+     *
+     * @param userId идентификатор пользователя
+     * @return поток приемов пищи в хронологическом порядке
+     */
+    @Query("SELECT m FROM Meal m " +
+            "WHERE m.user.id = :userId " +
+            "ORDER BY m.eatenAt, m.id")
+    @EntityGraph(Meal.WITH_DISHES_GRAPH)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Meal> streamByUserId(@Param("userId") Long userId);
+
+    /**
+     * Вычисляет суммарные калории и макронутриенты блюд каждого приема пищи пользователя за все время.
+     * Используется для полного пересчета дневных сводок пользователя: суммы группируются
+     * по дням в его часовом поясе на стороне приложения, чтобы запрос не вычислял
+     * функцию часового пояса для каждой строки.
+     *
+     * @param userId идентификатор пользователя
+     * @return моменты приемов пищи с суммами их блюд
+     */
+    @Query("SELECT m.eatenAt AS eatenAt, " +
+            "COALESCE(SUM(d.calories), 0) AS totalCalories, " +
+            "COALESCE(SUM(d.proteins), 0) AS totalProteins, " +
+            "COALESCE(SUM(d.fats), 0) AS totalFats, " +
+            "COALESCE(SUM(d.carbohydrates), 0) AS totalCarbohydrates " +
+            "FROM Meal m JOIN m.dishes d " +
+            "WHERE m.user.id = :userId AND m.eatenAt IS NOT NULL " +
+            "GROUP BY m.id, m.eatenAt")
+    List<MealNutrition> findMealNutritionByUserId(@Param("userId") Long userId);
 }
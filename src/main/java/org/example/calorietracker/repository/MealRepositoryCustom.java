@@ -0,0 +1,30 @@
+package org.example.calorietracker.repository;
+
+import org.example.calorietracker.model.Meal;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Методы {@link MealRepository}, которые не выражаются одним {@code @Query}.
+ * Реализация — {@link MealRepositoryCustomImpl}.
+ */
+public interface MealRepositoryCustom {
+    /**
+     * Находит все приемы пищи пользователя за период вместе с блюдами одним запросом.
+     * Результат упорядочен по моменту приема пищи и идентификатору, чтобы отчеты
+     * собирались в хронологическом порядке без дополнительной сортировки.
+     * Для одного дня пользователя период равен {@code [начало дня, начало следующего дня)}
+     * в его часовом поясе.
+     *
+     * <p>Условие на период накладывается и на приемы пищи, и на блюда
+     * (фильтр {@link Meal#EATEN_AT_RANGE_FILTER}), поэтому в PostgreSQL запрос
+     * читает только секции {@code meals} и {@code dishes} месяцев этого периода.
+     *
+     * @param userId идентификатор пользователя
+     * @param start начало периода (включительно)
+     * @param end конец периода (не включительно)
+     * @return список приемов пищи или пустой список, если ничего не найдено
+     */
+    List<Meal> findByUserIdAndEatenAtRange(Long userId, Instant start, Instant end);
+}
@@ -0,0 +1,44 @@
+package org.example.calorietracker.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.model.Meal;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Реализация {@link MealRepositoryCustom}.
+ *
+ * <p>Hibernate не допускает условий в {@code JOIN FETCH}, поэтому период для блюд задается
+ * фильтром {@link Meal#EATEN_AT_RANGE_FILTER}, который включается в сессии только на время запроса.
+ */
+@RequiredArgsConstructor
+public class MealRepositoryCustomImpl implements MealRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Meal> findByUserIdAndEatenAtRange(Long userId, Instant start, Instant end) {
+        Session session = entityManager.unwrap(Session.class);
+        session.enableFilter(Meal.EATEN_AT_RANGE_FILTER)
+                .setParameter("start", start)
+                .setParameter("end", end);
+        try {
+            return entityManager.createQuery("SELECT m FROM Meal m " +
+                            "WHERE m.user.id = :userId " +
+                            "AND m.eatenAt >= :start AND m.eatenAt < :end " +
+                            "ORDER BY m.eatenAt, m.id", Meal.class)
+                    .setParameter("userId", userId)
+                    .setParameter("start", start)
+                    .setParameter("end", end)
+                    .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Meal.WITH_DISHES_GRAPH))
+                    .getResultList();
+        } finally {
+            session.disableFilter(Meal.EATEN_AT_RANGE_FILTER);
+        }
+    }
+}
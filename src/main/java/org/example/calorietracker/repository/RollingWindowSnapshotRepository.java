@@ -0,0 +1,45 @@
+package org.example.calorietracker.repository;
+
+import org.example.calorietracker.model.RollingWindowSnapshot;
+import org.example.calorietracker.model.RollingWindowSnapshotId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Репозиторий для работы с сущностями {@link RollingWindowSnapshot}.
+ */
+@Repository
+public interface RollingWindowSnapshotRepository
+        extends JpaRepository<RollingWindowSnapshot, RollingWindowSnapshotId> {
+
+    /**
+     * Удаляет снимки окон пользователя, последний день которых попадает в период.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @return количество удаленных снимков
+     */
+    @Modifying
+    @Query("DELETE FROM RollingWindowSnapshot s " +
+            "WHERE s.id.userId = :userId " +
+            "AND s.id.endDate >= :startDate AND s.id.endDate < :endDate")
+    int deleteByUserIdAndEndDateRange(@Param("userId") Long userId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    /**
+     * Удаляет все снимки окон пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество удаленных снимков
+     */
+    @Modifying
+    @Query("DELETE FROM RollingWindowSnapshot s WHERE s.id.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,9 +1,20 @@
 package org.example.calorietracker.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.calorietracker.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Репозиторий для работы с сущностями {@link User}.
  * Обеспечивает стандартные CRUD-операции для управления пользователями системы.
@@ -33,6 +44,67 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Увеличивает версию данных пользователя и блокирует его строку до конца транзакции.
+     * Используется при каждом изменении приемов пищи и блюд пользователя, поэтому
+     * такие изменения одного пользователя выполняются последовательно.
+     *
+     * @param id идентификатор пользователя
+     * @return количество обновленных строк (0 если пользователь не найден)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.id = :id")
+    int incrementDataVersion(@Param("id") Long id);
+
+    /**
+     * Находит пользователя и блокирует его строку до конца транзакции ({@code SELECT ... FOR UPDATE}).
+     * Изменения приемов пищи и блюд пользователя ({@link #incrementDataVersion}) ждут снятия
+     * блокировки, поэтому данные пользователя не меняются, пока транзакция их читает.
+     *
+     * @param id идентификатор пользователя
+     * @return пользователь или пустой Optional, если он не найден
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Возвращает версию данных пользователя без загрузки сущности.
+     *
+     * @param id идентификатор пользователя
+     * @return версия данных или пустой Optional, если пользователь не найден
+     */
+    @Query("SELECT u.dataVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findDataVersionById(@Param("id") Long id);
+
+    /**
+     * Возвращает идентификаторы всех пользователей.
+     *
+     * @return список идентификаторов
+     */
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    /**
+     * Выбирает идентификаторы пользователей после указанного (keyset-пагинация).
+     *
+     * @param afterId идентификатор, после которого начинается выборка
+     * @param limit максимальное количество идентификаторов
+     * @return идентификаторы по возрастанию
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Находит пользователей по идентификаторам вместе со списками приемов пищи.
+     *
+     * @param ids идентификаторы пользователей
+     * @return пользователи по возрастанию идентификатора
+     */
+    @EntityGraph(attributePaths = "meals")
+    List<User> findByIdInOrderByIdAsc(Collection<Long> ids);
+
     // Примеры возможных дополнительных методов:
     // Optional<User> findByEmail(String email);
     // List<User> findByAgeBetween(int minAge, int maxAge);
@@ -0,0 +1,38 @@
+package org.example.calorietracker.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция суммарной пищевой ценности за один день: калории и макронутриенты.
+ * Используется запросами {@code DailyNutritionSummaryRepository}
+ * к дневным сводкам, сгруппированным по дням в часовом поясе пользователя.
+ *
+ * <p>Spring Data формирует реализацию автоматически по алиасам
+ * в JPQL-запросе ({@code AS date}, {@code AS totalCalories} и т.д.).
+ */
+public interface DailyNutrition {
+    /**
+     * Дата, за которую посчитаны суммы.
+     */
+    LocalDate getDate();
+
+    /**
+     * Сумма калорий всех блюд пользователя за день.
+     */
+    Double getTotalCalories();
+
+    /**
+     * Сумма белков (в граммах) всех блюд пользователя за день.
+     */
+    Double getTotalProteins();
+
+    /**
+     * Сумма жиров (в граммах) всех блюд пользователя за день.
+     */
+    Double getTotalFats();
+
+    /**
+     * Сумма углеводов (в граммах) всех блюд пользователя за день.
+     */
+    Double getTotalCarbohydrates();
+}
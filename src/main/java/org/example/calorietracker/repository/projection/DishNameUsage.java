@@ -0,0 +1,17 @@
+package org.example.calorietracker.repository.projection;
+
+/**
+ * Проекция частоты использования названия блюда.
+ * Используется для построения индекса автодополнения названий блюд.
+ */
+public interface DishNameUsage {
+    /**
+     * Название блюда в том виде, в котором оно сохранено.
+     */
+    String getName();
+
+    /**
+     * Количество блюд с этим названием.
+     */
+    Long getUsageCount();
+}
@@ -0,0 +1,38 @@
+package org.example.calorietracker.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Проекция суммарной пищевой ценности блюд одного приема пищи вместе с его моментом.
+ * Используется при пересчете дневных сводок: день приема пищи определяется
+ * по моменту и часовому поясу пользователя на стороне приложения.
+ *
+ * <p>Spring Data формирует реализацию автоматически по алиасам
+ * в JPQL-запросе ({@code AS eatenAt}, {@code AS totalCalories} и т.д.).
+ */
+public interface MealNutrition {
+    /**
+     * Момент приема пищи.
+     */
+    Instant getEatenAt();
+
+    /**
+     * Сумма калорий блюд приема пищи.
+     */
+    Double getTotalCalories();
+
+    /**
+     * Сумма белков (в граммах) блюд приема пищи.
+     */
+    Double getTotalProteins();
+
+    /**
+     * Сумма жиров (в граммах) блюд приема пищи.
+     */
+    Double getTotalFats();
+
+    /**
+     * Сумма углеводов (в граммах) блюд приема пищи.
+     */
+    Double getTotalCarbohydrates();
+}
@@ -0,0 +1,67 @@
+package org.example.calorietracker.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция сводки питания за неделю или месяц.
+ * Используется агрегирующими запросами {@code DailyNutritionSummaryRepository},
+ * которые группируют дневные сводки по началу периода.
+ *
+ * <p>Учитываются только дни с ненулевой калорийностью.
+ */
+public interface PeriodNutrition {
+    /**
+     * Первый день периода: понедельник недели или первое число месяца.
+     */
+    LocalDate getPeriodStart();
+
+    /**
+     * Сумма калорий за период.
+     */
+    Double getTotalCalories();
+
+    /**
+     * Сумма белков (в граммах) за период.
+     */
+    Double getTotalProteins();
+
+    /**
+     * Сумма жиров (в граммах) за период.
+     */
+    Double getTotalFats();
+
+    /**
+     * Сумма углеводов (в граммах) за период.
+     */
+    Double getTotalCarbohydrates();
+
+    /**
+     * Средняя калорийность дня с записями.
+     */
+    Double getAverageCalories();
+
+    /**
+     * Среднее содержание белков за день с записями.
+     */
+    Double getAverageProteins();
+
+    /**
+     * Среднее содержание жиров за день с записями.
+     */
+    Double getAverageFats();
+
+    /**
+     * Среднее содержание углеводов за день с записями.
+     */
+    Double getAverageCarbohydrates();
+
+    /**
+     * Количество дней с записями.
+     */
+    Long getDaysLogged();
+
+    /**
+     * Количество дней, в которые дневная норма калорий превышена.
+     */
+    Long getDaysOverLimit();
+}
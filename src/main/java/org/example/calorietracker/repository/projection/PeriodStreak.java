@@ -0,0 +1,24 @@
+package org.example.calorietracker.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция самой длинной серии дней в пределах нормы калорий за неделю или месяц.
+ * Используется запросами {@code DailyNutritionSummaryRepository#findWeeklyStreaksWithinLimit}
+ * и {@code #findMonthlyStreaksWithinLimit}, которые находят серии подряд идущих дней в базе.
+ *
+ * <p>Spring Data формирует реализацию автоматически по алиасам
+ * в SQL-запросе ({@code AS periodStart}, {@code AS longestStreak}).
+ */
+public interface PeriodStreak {
+    /**
+     * Первый день периода: понедельник недели или первое число месяца.
+     */
+    LocalDate getPeriodStart();
+
+    /**
+     * Количество дней в самой длинной серии подряд идущих дней периода,
+     * в которые есть записи и норма калорий не превышена.
+     */
+    Integer getLongestStreak();
+}
@@ -0,0 +1,42 @@
+package org.example.calorietracker.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодический пересчет материализованных дневных сводок питания.
+ * Исправляет расхождения между {@code daily_nutrition_summary} и исходными
+ * таблицами {@code meals}/{@code dishes}, если они накопились при инкрементальном обновлении.
+ *
+ * <p>Каждый пользователь пересчитывается в отдельной транзакции, поэтому ошибка
+ * на одном пользователе не прерывает пересчет остальных.
+ * Расписание задается свойством {@code app.summary.rebuild-cron}; значение {@code -} отключает задачу.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyNutritionSummaryRebuildJob {
+    private final UserRepository userRepository;
+    private final DailyNutritionSummaryService summaryService;
+
+    /**
+     * Пересчитывает дневные сводки всех пользователей.
+     */
+    @Scheduled(cron = "${app.summary.rebuild-cron:-}")
+    public void rebuildAll() {
+        int failed = 0;
+        for (Long userId : userRepository.findAllIds()) {
+            try {
+                summaryService.rebuildForUser(userId);
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Failed to rebuild daily nutrition summary for user {}", userId, e);
+            }
+        }
+        log.info("Daily nutrition summary rebuild finished, failed users: {}", failed);
+    }
+}
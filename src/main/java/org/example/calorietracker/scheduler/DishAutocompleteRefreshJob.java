@@ -0,0 +1,34 @@
+package org.example.calorietracker.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодическое перестроение индекса автодополнения названий блюд.
+ * Первое построение выполняется сразу после запуска приложения.
+ *
+ * <p>Период задается свойством {@code app.dish-autocomplete.refresh-interval}
+ * в формате {@link java.time.Duration} (например, {@code PT5M}).
+ * При ошибке продолжает работать предыдущий индекс.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DishAutocompleteRefreshJob {
+    private final DishAutocompleteService dishAutocompleteService;
+
+    /**
+     * Перестраивает индекс автодополнения.
+     */
+    @Scheduled(fixedDelayString = "${app.dish-autocomplete.refresh-interval:PT5M}")
+    public void refresh() {
+        try {
+            dishAutocompleteService.refresh();
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild dish autocomplete index", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.calorietracker.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.service.MealArchiveService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ночной перенос старых приемов пищи в архив ({@link MealArchiveService}).
+ *
+ * <p>Обрабатываются только пользователи, у которых есть приемы пищи старше
+ * {@code app.archive.hot-days} дней. Ошибка на одном пользователе не прерывает
+ * архивацию остальных. Расписание задается свойством {@code app.archive.cron};
+ * значение {@code -} отключает задачу.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MealArchiveJob {
+    private final MealRepository mealRepository;
+    private final MealArchiveService mealArchiveService;
+
+    /**
+     * Архивирует старые приемы пищи всех пользователей.
+     */
+    @Scheduled(cron = "${app.archive.cron:-}")
+    public void archiveAll() {
+        int archived = 0;
+        int failed = 0;
+        for (Long userId : mealRepository.findUserIdsWithMealsBefore(mealArchiveService.archiveHorizon())) {
+            try {
+                archived += mealArchiveService.archiveUser(userId);
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Failed to archive meals of user {}", userId, e);
+            }
+        }
+        log.info("Meal archiving finished, archived meals: {}, failed users: {}", archived, failed);
+    }
+}
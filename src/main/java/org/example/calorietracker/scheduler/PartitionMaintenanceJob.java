@@ -0,0 +1,39 @@
+package org.example.calorietracker.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Ночное обслуживание ежемесячных секций таблиц {@code meals}, {@code dishes} и {@code meal_food_items}
+ * ({@link PartitionMaintenanceService}): создание секций будущих месяцев, отсоединение старых
+ * и проверка строк в секциях по умолчанию.
+ *
+ * <p>Расписание задается свойством {@code app.partitions.cron}; значение {@code -} отключает задачу.
+ * Задача выполняется только для PostgreSQL ({@code app.partitions.enabled}), в других базах
+ * таблицы не секционированы.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenanceJob {
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    /**
+     * Создает и отсоединяет секции относительно текущего месяца в UTC.
+     */
+    @Scheduled(cron = "${app.partitions.cron:-}")
+    public void maintain() {
+        try {
+            int failed = partitionMaintenanceService.maintain(YearMonth.now(ZoneOffset.UTC));
+            log.info("Partition maintenance finished, failed statements: {}", failed);
+        } catch (RuntimeException e) {
+            log.warn("Partition maintenance failed", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.calorietracker.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.config.ReportSnapshotProperties;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ночное создание снимков отчетов за завершившиеся дни ({@link ReportSnapshotService}).
+ *
+ * <p>Снимки создаются для активных пользователей — с приемами пищи за последние
+ * {@code app.reports.snapshots.active-days} дней. Пользователи делятся на пакеты,
+ * которые обрабатываются параллельно не более чем {@code app.reports.snapshots.concurrency}
+ * потоками; каждый пользователь обрабатывается в отдельной транзакции, поэтому ошибка
+ * на одном пользователе не прерывает обработку остальных. Уже созданные снимки
+ * не пересоздаются, поэтому повторный запуск за тот же день безопасен.
+ *
+ * <p>День завершается в разное время в зависимости от часового пояса пользователя. Пользователи,
+ * у которых вчерашний день к моменту запуска еще не закончился, пропускаются, и их снимки
+ * создаются следующим запуском: каждый запуск обрабатывает два последних дня.
+ *
+ * <p>Расписание задается свойством {@code app.reports.snapshots.cron}; значение {@code -} отключает задачу.
+ * Задача должна запускаться после пересчета дневных сводок ({@link DailyNutritionSummaryRebuildJob}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportSnapshotJob {
+    private final MealRepository mealRepository;
+    private final ReportSnapshotService reportSnapshotService;
+    private final ReportSnapshotProperties properties;
+
+    /**
+     * Создает снимки за позавчерашний и вчерашний дни.
+     */
+    @Scheduled(cron = "${app.reports.snapshots.cron:-}")
+    public void snapshotRecentDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        snapshotAll(yesterday.minusDays(1));
+        snapshotAll(yesterday);
+    }
+
+    /**
+     * Создает снимки за указанный день для всех активных пользователей,
+     * у которых этот день уже закончился.
+     *
+     * @param date день пользователей
+     * @return количество пользователей, снимки которых создать не удалось
+     */
+    public int snapshotAll(LocalDate date) {
+        // Период расширен на сутки в обе стороны, чтобы охватить дни пользователей во всех часовых поясах
+        Instant start = date.minusDays(properties.getActiveDays()).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = date.plusDays(2).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<Long> userIds = mealRepository.findUserIdsWithMealsBetween(start, end);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+
+        // Пул создается на время запуска, чтобы не держать потоки между ночными запусками
+        ExecutorService pool = Executors.newFixedThreadPool(
+                properties.getConcurrency(), new CustomizableThreadFactory("report-snapshot-"));
+        try {
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += properties.getBatchSize()) {
+                List<Long> batch = userIds.subList(from, Math.min(from + properties.getBatchSize(), userIds.size()));
+                batches.add(CompletableFuture.runAsync(() -> batch.forEach(userId -> {
+                    try {
+                        if (!reportSnapshotService.createSnapshots(userId, date)) {
+                            skipped.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.warn("Failed to create report snapshots for user {} on {}", userId, date, e);
+                    }
+                }), pool));
+            }
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        log.info("Report snapshots for {} finished, users: {}, skipped users: {}, failed users: {}",
+                date, userIds.size(), skipped.get(), failed.get());
+        return failed.get();
+    }
+}
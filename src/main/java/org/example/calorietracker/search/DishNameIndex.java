@@ -0,0 +1,308 @@
+package org.example.calorietracker.search;
+
+import org.example.calorietracker.model.FoodItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Неизменяемый индекс названий блюд в памяти для автодополнения.
+ * Возвращает названия, начинающиеся с префикса, в порядке убывания частоты использования.
+ *
+ * <p>Индекс хранится в нескольких примитивных массивах без объекта на каждое название:
+ * <ul>
+ *   <li>нормализованные названия (см. {@link FoodItem#normalize(String)}) отсортированы
+ *       и записаны подряд в один {@code char[]} с массивом смещений;</li>
+ *   <li>отображаемые названия записаны так же в отдельный {@code char[]};</li>
+ *   <li>частоты лежат в {@code int[]}, а над ними построено дерево отрезков
+ *       с индексом самого частого названия на каждом отрезке.</li>
+ * </ul>
+ *
+ * <p>Названия с общим префиксом образуют непрерывный диапазон отсортированного массива,
+ * который находится двоичным поиском. Первые K названий диапазона по частоте выбираются
+ * очередью отрезков: из очереди извлекается отрезок с самым частым названием, а его части
+ * слева и справа от этого названия возвращаются в очередь. Запрос стоит O(log N + K log N)
+ * независимо от того, сколько названий начинается с префикса.
+ *
+ * <p>Экземпляр безопасен для чтения из нескольких потоков.
+ */
+public final class DishNameIndex {
+    private static final DishNameIndex EMPTY = build(Map.of());
+
+    /**
+     * Накладные расходы на заголовок массива в байтах (оценка для 64-битной JVM со сжатыми указателями).
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final int size;
+    private final char[] keys;
+    private final int[] keyOffsets;
+    private final char[] labels;
+    private final int[] labelOffsets;
+    private final int[] counts;
+    private final int[] tree;
+
+    private DishNameIndex(int size, char[] keys, int[] keyOffsets, char[] labels, int[] labelOffsets, int[] counts) {
+        this.size = size;
+        this.keys = keys;
+        this.keyOffsets = keyOffsets;
+        this.labels = labels;
+        this.labelOffsets = labelOffsets;
+        this.counts = counts;
+        this.tree = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @return пустой индекс
+     */
+    public static DishNameIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Строит индекс по количеству использований каждого названия.
+     * Названия, совпадающие после нормализации, объединяются: частоты складываются,
+     * а отображается вариант написания, который встречался чаще остальных.
+     * Пустые названия пропускаются.
+     *
+     * @param usageByName количество блюд с каждым названием
+     * @return новый индекс
+     */
+    public static DishNameIndex build(Map<String, Long> usageByName) {
+        TreeMap<String, Usage> usageByKey = new TreeMap<>();
+        usageByName.forEach((name, count) -> {
+            String key = FoodItem.normalize(name);
+            if (key == null || key.isEmpty() || count == null || count <= 0) {
+                return;
+            }
+            usageByKey.computeIfAbsent(key, k -> new Usage()).add(displayName(name), count);
+        });
+
+        int size = usageByKey.size();
+        int[] keyOffsets = new int[size + 1];
+        int[] labelOffsets = new int[size + 1];
+        int[] counts = new int[size];
+        StringBuilder keys = new StringBuilder();
+        StringBuilder labels = new StringBuilder();
+        int i = 0;
+        for (Map.Entry<String, Usage> entry : usageByKey.entrySet()) {
+            keys.append(entry.getKey());
+            labels.append(entry.getValue().label);
+            counts[i] = (int) Math.min(entry.getValue().total, Integer.MAX_VALUE);
+            i++;
+            keyOffsets[i] = keys.length();
+            labelOffsets[i] = labels.length();
+        }
+        return new DishNameIndex(size, toArray(keys), keyOffsets, toArray(labels), labelOffsets, counts);
+    }
+
+    /**
+     * Приводит название к виду, в котором оно показывается в подсказках:
+     * без пробелов по краям и без повторяющихся пробелов.
+     *
+     * @param name исходное название
+     * @return отображаемое название
+     */
+    public static String displayName(String name) {
+        return name.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Находит самые частые названия, нормализованная форма которых начинается с префикса.
+     *
+     * @param prefix нормализованный префикс
+     * @param limit максимальное количество названий
+     * @return названия по убыванию частоты, при равной частоте в алфавитном порядке
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        int from = lowerBound(prefix);
+        int to = upperBound(prefix, from);
+        if (from >= to || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Элемент очереди: {начало отрезка, конец отрезка, самое частое название отрезка}
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                (a, b) -> better(a[2], b[2]) == a[2] ? -1 : 1);
+        ranges.add(new int[]{from, to, argMax(from, to)});
+        List<Entry> result = new ArrayList<>(Math.min(limit, to - from));
+        while (result.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            result.add(entry(best));
+            if (range[0] < best) {
+                ranges.add(new int[]{range[0], best, argMax(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[]{best + 1, range[1], argMax(best + 1, range[1])});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Находит название по точному совпадению нормализованной формы.
+     *
+     * @param key нормализованное название
+     * @return найденное название или null
+     */
+    public Entry find(String key) {
+        int position = lowerBound(key);
+        return position < size && compare(position, key, false) == 0 ? entry(position) : null;
+    }
+
+    /**
+     * @return количество различных названий в индексе
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Оценивает объем памяти, занимаемый массивами индекса.
+     *
+     * @return размер в байтах
+     */
+    public long estimatedSizeInBytes() {
+        return 7L * ARRAY_HEADER_BYTES
+                + 2L * keys.length
+                + 2L * labels.length
+                + 4L * keyOffsets.length
+                + 4L * labelOffsets.length
+                + 4L * counts.length
+                + 4L * tree.length;
+    }
+
+    private Entry entry(int position) {
+        return new Entry(
+                new String(keys, keyOffsets[position], keyOffsets[position + 1] - keyOffsets[position]),
+                new String(labels, labelOffsets[position], labelOffsets[position + 1] - labelOffsets[position]),
+                counts[position]);
+    }
+
+    /**
+     * Первая позиция, название на которой не меньше value.
+     */
+    private int lowerBound(String value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, value, false) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Первая позиция начиная с from, название на которой больше любой строки с префиксом prefix.
+     */
+    private int upperBound(String prefix, int from) {
+        int low = from;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, prefix, true) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Сравнивает название на позиции со строкой. В режиме prefixOnly название,
+     * начинающееся с value, считается равным ей.
+     */
+    private int compare(int position, String value, boolean prefixOnly) {
+        int start = keyOffsets[position];
+        int length = keyOffsets[position + 1] - start;
+        int common = Math.min(length, value.length());
+        for (int i = 0; i < common; i++) {
+            int diff = keys[start + i] - value.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        if (prefixOnly && length >= value.length()) {
+            return 0;
+        }
+        return length - value.length();
+    }
+
+    /**
+     * Самое частое название на отрезке [from, to) по дереву отрезков.
+     */
+    private int argMax(int from, int to) {
+        int best = -1;
+        for (int left = from + size, right = to + size; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = better(best, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                best = better(best, tree[--right]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Из двух позиций выбирает более частое название, при равенстве — меньшее по алфавиту.
+     */
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        if (counts[a] != counts[b]) {
+            return counts[a] > counts[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    private static char[] toArray(StringBuilder builder) {
+        char[] chars = new char[builder.length()];
+        builder.getChars(0, builder.length(), chars, 0);
+        return chars;
+    }
+
+    /**
+     * Название из индекса.
+     *
+     * @param key нормализованное название
+     * @param name отображаемое название
+     * @param usageCount количество блюд с этим названием
+     */
+    public record Entry(String key, String name, long usageCount) {
+    }
+
+    private static final class Usage {
+        private String label;
+        private long labelCount;
+        private long total;
+
+        void add(String name, long count) {
+            total += count;
+            if (count > labelCount) {
+                label = name;
+                labelCount = count;
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.example.calorietracker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.model.DailyNutritionSummary;
+import org.example.calorietracker.model.DailyNutritionSummaryId;
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.MealComponent;
+import org.example.calorietracker.model.MealFoodItem;
+import org.example.calorietracker.repository.DailyNutritionSummaryRepository;
+import org.example.calorietracker.repository.MealFoodItemRepository;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.example.calorietracker.repository.projection.MealNutrition;
+import org.example.calorietracker.repository.projection.PeriodNutrition;
+import org.example.calorietracker.repository.projection.PeriodStreak;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Сервис для работы с материализованными дневными сводками питания.
+ * Поддерживает таблицу {@code daily_nutrition_summary} в актуальном состоянии
+ * при изменении блюд, позиций каталога в приемах пищи ({@link MealFoodItem}) и самих приемов пищи
+ * и отдает из нее готовые суммы для отчетов.
+ * Дни сводок — дни пользователя в его часовом поясе ({@link org.example.calorietracker.model.User#getZoneId()}).
+ *
+ * <p>Методы изменения должны вызываться внутри транзакции той операции,
+ * которая меняет блюда: сводка и данные фиксируются или откатываются вместе.
+ * Каждое изменение увеличивает версию данных пользователя в {@code users};
+ * это же обновление блокирует строку пользователя, поэтому изменения одного
+ * пользователя выполняются последовательно.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailyNutritionSummaryService {
+    private final DailyNutritionSummaryRepository summaryRepository;
+    private final MealRepository mealRepository;
+    private final MealFoodItemRepository mealFoodItemRepository;
+    private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+    private final ReportSnapshotService reportSnapshotService;
+    private final MealArchiveService mealArchiveService;
+
+    /**
+     * Получает дневные сводки пользователя за период.
+     * Дни без блюд в результат не попадают.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @return суммы калорий и макронутриентов по дням
+     */
+    @Transactional(readOnly = true)
+    public List<DailyNutrition> getDailyNutrition(Long userId, LocalDate startDate, LocalDate endDate) {
+        return summaryRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+    }
+
+    /**
+     * Получает сводки пользователя по неделям (с понедельника) за период.
+     * Недели без блюд в результат не попадают.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий
+     * @return суммы, средние значения и количество дней с превышением нормы по неделям
+     */
+    @Transactional(readOnly = true)
+    public List<PeriodNutrition> getWeeklyNutrition(Long userId, LocalDate startDate, LocalDate endDate,
+                                                    double calorieLimit) {
+        return summaryRepository.findWeeklyByUserIdAndDateRange(userId, startDate, endDate, calorieLimit);
+    }
+
+    /**
+     * Получает сводки пользователя по календарным месяцам за период.
+     * Месяцы без блюд в результат не попадают.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий
+     * @return суммы, средние значения и количество дней с превышением нормы по месяцам
+     */
+    @Transactional(readOnly = true)
+    public List<PeriodNutrition> getMonthlyNutrition(Long userId, LocalDate startDate, LocalDate endDate,
+                                                     double calorieLimit) {
+        return summaryRepository.findMonthlyByUserIdAndDateRange(userId, startDate, endDate, calorieLimit);
+    }
+
+    /**
+     * Получает самые длинные серии дней в пределах нормы калорий по неделям (с понедельника).
+     * Серии считаются в базе; недели без таких дней в результат не попадают.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий
+     * @return длина самой длинной серии по неделям
+     */
+    @Transactional(readOnly = true)
+    public List<PeriodStreak> getWeeklyStreaks(Long userId, LocalDate startDate, LocalDate endDate,
+                                               double calorieLimit) {
+        return summaryRepository.findWeeklyStreaksWithinLimit(userId, startDate, endDate, calorieLimit);
+    }
+
+    /**
+     * Получает самые длинные серии дней в пределах нормы калорий по календарным месяцам.
+     * Серии считаются в базе; месяцы без таких дней в результат не попадают.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начало периода (включительно)
+     * @param endDate конец периода (не включительно)
+     * @param calorieLimit дневная норма калорий
+     * @return длина самой длинной серии по месяцам
+     */
+    @Transactional(readOnly = true)
+    public List<PeriodStreak> getMonthlyStreaks(Long userId, LocalDate startDate, LocalDate endDate,
+                                                double calorieLimit) {
+        return summaryRepository.findMonthlyStreaksWithinLimit(userId, startDate, endDate, calorieLimit);
+    }
+
+    /**
+     * Получает суммарную калорийность блюд пользователя за день.
+     *
+     * @param userId идентификатор пользователя
+     * @param date дата
+     * @return сумма калорий (0 если нет данных)
+     */
+    @Transactional(readOnly = true)
+    public double getTotalCalories(Long userId, LocalDate date) {
+        return summaryRepository.findCaloriesByUserIdAndDate(userId, date).orElse(0.0);
+    }
+
+    /**
+     * Учитывает блюда в сводках дней, к приемам пищи которых они привязаны.
+     * Блюда без приема пищи пропускаются.
+     *
+     * @param dishes добавленные блюда
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addDishes(Collection<Dish> dishes) {
+        apply(dishes, 1);
+    }
+
+    /**
+     * Исключает блюда из сводок дней, к приемам пищи которых они привязаны.
+     * Блюда без приема пищи пропускаются.
+     *
+     * @param dishes удаляемые или отвязываемые блюда
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeDishes(Collection<Dish> dishes) {
+        apply(dishes, -1);
+    }
+
+    /**
+     * Учитывает позиции каталога в сводках дней их приемов пищи.
+     *
+     * @param foodItems записанные позиции каталога
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addFoodItems(Collection<MealFoodItem> foodItems) {
+        apply(foodItems, 1);
+    }
+
+    /**
+     * Исключает позиции каталога из сводок дней их приемов пищи.
+     *
+     * @param foodItems удаляемые позиции каталога
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeFoodItems(Collection<MealFoodItem> foodItems) {
+        apply(foodItems, -1);
+    }
+
+    /**
+     * Полностью пересчитывает дневные сводки пользователя по таблицам
+     * {@code meals}, {@code dishes} и {@code meal_food_items} и архиву старых приемов пищи ({@link MealArchiveService}).
+     * Исправляет расхождения, накопившиеся при инкрементальном обновлении. Приемы пищи
+     * распределяются по дням текущего часового пояса пользователя, поэтому пересчет нужен и при его смене.
+     *
+     * @param userId идентификатор пользователя
+     */
+    @Transactional
+    public void rebuildForUser(Long userId) {
+        if (!dataVersionService.increment(userId)) {
+            return;
+        }
+
+        summaryRepository.deleteByUserId(userId);
+
+        // Суммы приемов пищи группируются по дням пользователя здесь, а не в запросе,
+        // чтобы база не вычисляла функцию часового пояса для каждой строки
+        ZoneId zone = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"))
+                .getZoneId();
+        Map<LocalDate, double[]> totalsByDate = new TreeMap<>();
+        for (DailyNutrition nutrition : mealArchiveService.findDailyNutrition(userId, zone)) {
+            double[] totals = totalsByDate.computeIfAbsent(nutrition.getDate(), date -> new double[4]);
+            totals[0] += nutrition.getTotalCalories();
+            totals[1] += nutrition.getTotalProteins();
+            totals[2] += nutrition.getTotalFats();
+            totals[3] += nutrition.getTotalCarbohydrates();
+        }
+        List<MealNutrition> meals = Stream.concat(
+                mealRepository.findMealNutritionByUserId(userId).stream(),
+                mealFoodItemRepository.findMealNutritionByUserId(userId).stream()).toList();
+        for (MealNutrition nutrition : meals) {
+            double[] totals = totalsByDate.computeIfAbsent(
+                    LocalDate.ofInstant(nutrition.getEatenAt(), zone), date -> new double[4]);
+            totals[0] += nutrition.getTotalCalories();
+            totals[1] += nutrition.getTotalProteins();
+            totals[2] += nutrition.getTotalFats();
+            totals[3] += nutrition.getTotalCarbohydrates();
+        }
+
+        List<DailyNutritionSummary> summaries = totalsByDate.entrySet().stream()
+                .map(entry -> new DailyNutritionSummary(
+                        new DailyNutritionSummaryId(userId, entry.getKey()),
+                        entry.getValue()[0],
+                        entry.getValue()[1],
+                        entry.getValue()[2],
+                        entry.getValue()[3]))
+                .toList();
+        summaryRepository.saveAll(summaries);
+    }
+
+    /**
+     * Прибавляет (sign = 1) или вычитает (sign = -1) пищевую ценность блюд или позиций каталога
+     * из сводок дней их приемов пищи. День приема пищи определяется часовым поясом
+     * его пользователя. Изменения группируются по пользователю и дню,
+     * поэтому на каждый затронутый день выполняется одно обновление.
+     */
+    private void apply(Collection<? extends MealComponent> components, int sign) {
+        Map<DailyNutritionSummaryId, double[]> deltas = new LinkedHashMap<>();
+        for (MealComponent component : components) {
+            Meal meal = component.getMeal();
+            if (meal == null || meal.getUser() == null || meal.getEatenAt() == null) {
+                continue;
+            }
+            LocalDate date = LocalDate.ofInstant(meal.getEatenAt(), meal.getUser().getZoneId());
+            double[] delta = deltas.computeIfAbsent(
+                    new DailyNutritionSummaryId(meal.getUser().getId(), date),
+                    id -> new double[4]);
+            delta[0] += sign * component.getCalories();
+            delta[1] += sign * component.getProteins();
+            delta[2] += sign * component.getFats();
+            delta[3] += sign * component.getCarbohydrates();
+        }
+
+        // Строки пользователей блокируются в порядке идентификаторов, чтобы параллельные
+        // изменения нескольких пользователей не взаимоблокировались
+        deltas.keySet().stream()
+                .map(DailyNutritionSummaryId::getUserId)
+                .distinct()
+                .sorted()
+                .forEach(dataVersionService::increment);
+        // Снимки отчетов за затронутые прошедшие дни больше не соответствуют данным
+        deltas.keySet().stream()
+                .collect(Collectors.groupingBy(DailyNutritionSummaryId::getUserId,
+                        Collectors.mapping(DailyNutritionSummaryId::getDate, Collectors.toSet())))
+                .forEach(reportSnapshotService::invalidate);
+
+        deltas.forEach((id, delta) -> {
+            int updated = summaryRepository.addToSummary(id.getUserId(), id.getDate(),
+                    delta[0], delta[1], delta[2], delta[3]);
+            if (updated == 0) {
+                summaryRepository.save(new DailyNutritionSummary(id, delta[0], delta[1], delta[2], delta[3]));
+            }
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.calorietracker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Сервис версий данных о питании пользователей.
+ * Вызывается при каждом изменении приемов пищи и блюд пользователя.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+    private final UserRepository userRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * Увеличивает версию данных пользователя и блокирует его строку до конца транзакции.
+     * Последующие запросы пользователя на чтение в течение окна read-your-writes
+     * выполняются в основной базе.
+     *
+     * @param userId идентификатор пользователя
+     * @return true если пользователь найден
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean increment(Long userId) {
+        readYourWritesTracker.markWritten(userId);
+        return userRepository.incrementDataVersion(userId) > 0;
+    }
+}
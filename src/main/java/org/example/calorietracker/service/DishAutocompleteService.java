@@ -0,0 +1,208 @@
+package org.example.calorietracker.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.dto.dish.DishSuggestionDTO;
+import org.example.calorietracker.model.FoodItem;
+import org.example.calorietracker.repository.DishRepository;
+import org.example.calorietracker.repository.projection.DishNameUsage;
+import org.example.calorietracker.search.DishNameIndex;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис автодополнения названий блюд из индекса в памяти.
+ * Подсказки не обращаются к базе данных.
+ *
+ * <p>Индекс {@link DishNameIndex} неизменяем и периодически перестраивается по таблице
+ * {@code dishes} ({@link #refresh()}). Между перестроениями названия новых блюд
+ * накапливаются в небольшой таблице приращений и учитываются при ранжировании подсказок.
+ * Удаления и переименования блюд уменьшают частоты только после перестроения.
+ *
+ * <p>Публикует метрики {@value #ENTRIES_GAUGE} и {@value #BYTES_GAUGE}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DishAutocompleteService implements MeterBinder {
+    /**
+     * Количество различных названий в индексе.
+     */
+    public static final String ENTRIES_GAUGE = "calorietracker.dish.autocomplete.entries";
+
+    /**
+     * Оценка памяти, занимаемой индексом, в байтах.
+     */
+    public static final String BYTES_GAUGE = "calorietracker.dish.autocomplete.bytes";
+
+    private final DishRepository dishRepository;
+    private final DishAutocompleteProperties properties;
+
+    /**
+     * Индекс и приращения, накопленные до начала его построения.
+     * Заменяются одной записью, поэтому читатель видит согласованную пару.
+     */
+    private volatile Snapshot snapshot = new Snapshot(DishNameIndex.empty(), Map.of());
+
+    /**
+     * Приращения, накопленные после начала построения текущего индекса.
+     */
+    private volatile Map<String, PendingName> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает самые часто используемые названия блюд, начинающиеся с запроса.
+     *
+     * @param query начало названия
+     * @param limit максимальное количество подсказок (null для значения по умолчанию)
+     * @return подсказки по убыванию частоты использования
+     * @throws IllegalArgumentException если запрос пустой или количество некорректно
+     */
+    public List<DishSuggestionDTO> suggest(String query, Integer limit) {
+        String prefix = FoodItem.normalize(query);
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int maxSuggestions = limit(limit);
+
+        Snapshot current = snapshot;
+        Map<String, DishSuggestionDTO> candidates = new HashMap<>();
+        for (DishNameIndex.Entry entry : current.index().suggest(prefix, maxSuggestions)) {
+            candidates.put(entry.key(), new DishSuggestionDTO(entry.name(), entry.usageCount()));
+        }
+        // Приращения повышают частоту только своих названий, поэтому остальные названия
+        // индекса не могут обогнать его первые maxSuggestions результатов
+        addPending(current.draining(), prefix, current.index(), candidates);
+        addPending(pending, prefix, current.index(), candidates);
+
+        return candidates.values().stream()
+                .sorted(Comparator.comparingLong(DishSuggestionDTO::getUsageCount).reversed()
+                        .thenComparing(DishSuggestionDTO::getName))
+                .limit(maxSuggestions)
+                .toList();
+    }
+
+    /**
+     * Учитывает названия созданных блюд. В транзакции названия учитываются
+     * после ее фиксации, чтобы откат не оставлял подсказок.
+     *
+     * @param names названия блюд (null пропускаются)
+     */
+    public void recordUsage(Collection<String> names) {
+        List<String> nonNullNames = names.stream().filter(Objects::nonNull).toList();
+        if (nonNullNames.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addUsage(nonNullNames);
+                }
+            });
+        } else {
+            addUsage(nonNullNames);
+        }
+    }
+
+    /**
+     * Перестраивает индекс по текущему содержимому таблицы {@code dishes}.
+     *
+     * <p>Приращения, накопленные до начала построения, продолжают учитываться, пока
+     * новый индекс не будет готов. Блюда, созданные во время построения, могут быть учтены
+     * дважды (в индексе и в приращениях) до следующего перестроения; для ранжирования подсказок это допустимо.
+     */
+    public synchronized void refresh() {
+        Map<String, PendingName> draining = pending;
+        pending = new ConcurrentHashMap<>();
+        snapshot = new Snapshot(snapshot.index(), draining);
+
+        Map<String, Long> usageByName = dishRepository.findNameUsage().stream()
+                .filter(usage -> usage.getName() != null)
+                .collect(Collectors.toMap(DishNameUsage::getName, DishNameUsage::getUsageCount, Long::sum));
+        DishNameIndex index = DishNameIndex.build(usageByName);
+        snapshot = new Snapshot(index, Map.of());
+
+        log.debug("Dish autocomplete index rebuilt: {} names, ~{} bytes", index.size(), index.estimatedSizeInBytes());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(ENTRIES_GAUGE, this, service -> service.snapshot.index().size())
+                .description("Number of distinct dish names in the autocomplete index")
+                .register(registry);
+        Gauge.builder(BYTES_GAUGE, this, service -> service.snapshot.index().estimatedSizeInBytes())
+                .description("Estimated memory used by the autocomplete index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private int limit(Integer requested) {
+        if (requested == null) {
+            return properties.getDefaultLimit();
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(requested, properties.getMaxLimit());
+    }
+
+    private void addUsage(List<String> names) {
+        Map<String, PendingName> target = pending;
+        for (String name : names) {
+            String key = FoodItem.normalize(name);
+            if (key.isEmpty()) {
+                continue;
+            }
+            PendingName pendingName = target.get(key);
+            if (pendingName == null) {
+                if (target.size() >= properties.getMaxPendingNames()) {
+                    continue;
+                }
+                pendingName = target.computeIfAbsent(key, k -> new PendingName(DishNameIndex.displayName(name)));
+            }
+            pendingName.count().increment();
+        }
+    }
+
+    private static void addPending(Map<String, PendingName> increments, String prefix, DishNameIndex index,
+                                   Map<String, DishSuggestionDTO> candidates) {
+        increments.forEach((key, pendingName) -> {
+            if (!key.startsWith(prefix)) {
+                return;
+            }
+            DishSuggestionDTO candidate = candidates.get(key);
+            if (candidate == null) {
+                DishNameIndex.Entry entry = index.find(key);
+                candidate = entry != null
+                        ? new DishSuggestionDTO(entry.name(), entry.usageCount())
+                        : new DishSuggestionDTO(pendingName.name(), 0);
+                candidates.put(key, candidate);
+            }
+            candidate.setUsageCount(candidate.getUsageCount() + pendingName.count().sum());
+        });
+    }
+
+    private record Snapshot(DishNameIndex index, Map<String, PendingName> draining) {
+    }
+
+    private record PendingName(String name, LongAdder count) {
+        PendingName(String name) {
+            this(name, new LongAdder());
+        }
+    }
+}
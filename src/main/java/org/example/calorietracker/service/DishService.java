@@ -1,6 +1,10 @@
 package org.example.calorietracker.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.config.MetricsConfig;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.CursorPage;
 import org.example.calorietracker.dto.dish.DishCreateDTO;
 import org.example.calorietracker.dto.dish.DishDTO;
 import org.example.calorietracker.dto.dish.DishUpdateDTO;
@@ -10,9 +14,12 @@ import org.example.calorietracker.model.Dish;
 import org.example.calorietracker.model.Meal;
 import org.example.calorietracker.repository.DishRepository;
 import org.example.calorietracker.repository.MealRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Сервис для работы с блюдами.
@@ -23,7 +30,11 @@ import java.util.List;
 public class DishService {
     private final DishRepository dishRepository;
     private final MealRepository mealRepository;
+    private final DailyNutritionSummaryService summaryService;
     private final DishMapper dishMapper;
+    private final KeysetPagination keysetPagination;
+    private final DishAutocompleteService dishAutocompleteService;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     /**
      * Получает блюдо по идентификатору.
@@ -32,6 +43,8 @@ public class DishService {
      * @return DTO блюда
      * @throws ResourceNotFoundException если блюдо не найдено
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public DishDTO getById(Long id) {
         Dish dish = dishRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
@@ -39,14 +52,20 @@ public class DishService {
     }
 
     /**
-     * Получает список всех блюд.
+     * Получает страницу блюд, упорядоченных по идентификатору.
      *
-     * @return список DTO всех блюд
+     * @param cursor курсор из предыдущего ответа (null для первой страницы)
+     * @param limit размер страницы (null для размера по умолчанию)
+     * @return страница DTO блюд с курсором следующей страницы
+     * @throws IllegalArgumentException если курсор или размер страницы некорректны
      */
-    public List<DishDTO> getAll() {
-        return dishRepository.findAll().stream()
-                .map(dishMapper::map)
-                .toList();
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public CursorPage<DishDTO> getAll(String cursor, Integer limit) {
+        Limit pageLimit = keysetPagination.limit(limit);
+        List<Dish> dishes = dishRepository.findByIdGreaterThanOrderByIdAsc(
+                keysetPagination.afterId(cursor), keysetPagination.probe(pageLimit));
+        return keysetPagination.page(dishes, pageLimit, Dish::getId, dishMapper::map);
     }
 
     /**
@@ -56,13 +75,19 @@ public class DishService {
      * @return DTO созданного блюда
      * @throws ResourceNotFoundException если связанный прием пищи не найден
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public DishDTO create(DishCreateDTO createDTO) {
         Meal meal = resolveMeal(createDTO.getMealId());
 
         Dish dish = dishMapper.map(createDTO);
         dish.setMeal(meal);
 
-        return dishMapper.map(dishRepository.save(dish));
+        Dish savedDish = dishRepository.save(dish);
+        markWritten(savedDish);
+        summaryService.addDishes(List.of(savedDish));
+        dishAutocompleteService.recordUsage(List.of(savedDish.getName()));
+        return dishMapper.map(savedDish);
     }
 
     /**
@@ -73,12 +98,25 @@ public class DishService {
      * @return DTO обновленного блюда
      * @throws ResourceNotFoundException если блюдо не найдено
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public DishDTO update(DishUpdateDTO updateDTO, Long id) {
         Dish dish = dishRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
 
+        // Старые значения и привязка вычитаются из сводки до изменения, новые добавляются после
+        summaryService.removeDishes(List.of(dish));
+        markWritten(dish);
+        String previousName = dish.getName();
         dishMapper.update(updateDTO, dish);
-        return dishMapper.map(dishRepository.save(dish));
+        Dish savedDish = dishRepository.save(dish);
+        markWritten(savedDish);
+        summaryService.addDishes(List.of(savedDish));
+        if (!Objects.equals(previousName, savedDish.getName())) {
+            dishAutocompleteService.recordUsage(List.of(savedDish.getName()));
+        }
+
+        return dishMapper.map(savedDish);
     }
 
     /**
@@ -87,11 +125,28 @@ public class DishService {
      * @param id идентификатор удаляемого блюда
      * @throws ResourceNotFoundException если блюдо не найдено
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public void delete(Long id) {
-        if (!dishRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Dish not found");
+        Dish dish = dishRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Dish not found"));
+
+        summaryService.removeDishes(List.of(dish));
+        markWritten(dish);
+        dishRepository.delete(dish);
+    }
+
+    /**
+     * Отмечает изменение блюда и приема пищи, к которому оно привязано, чтобы их чтение
+     * по идентификатору в течение окна read-your-writes выполнялось в основной базе.
+     *
+     * @param dish измененное блюдо
+     */
+    private void markWritten(Dish dish) {
+        readYourWritesTracker.markWritten(ReadYourWritesTracker.DISHES, dish.getId());
+        if (dish.getMeal() != null) {
+            readYourWritesTracker.markWritten(ReadYourWritesTracker.MEALS, dish.getMeal().getId());
         }
-        dishRepository.deleteById(id);
     }
 
     /**
@@ -0,0 +1,109 @@
+package org.example.calorietracker.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.config.FoodCatalogProperties;
+import org.example.calorietracker.config.MetricsConfig;
+import org.example.calorietracker.dto.food.FoodItemCreateDTO;
+import org.example.calorietracker.dto.food.FoodItemDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.mapper.FoodItemMapper;
+import org.example.calorietracker.model.FoodItem;
+import org.example.calorietracker.repository.FoodItemRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис для работы с каталогом продуктов.
+ * Обеспечивает добавление позиций и поиск по названию для автодополнения.
+ */
+@Service
+@RequiredArgsConstructor
+public class FoodItemService {
+    private final FoodItemRepository foodItemRepository;
+    private final FoodItemMapper foodItemMapper;
+    private final KeysetPagination keysetPagination;
+    private final FoodCatalogProperties properties;
+
+    /**
+     * Получает позицию каталога по идентификатору.
+     *
+     * @param id идентификатор позиции
+     * @return DTO позиции каталога
+     * @throws ResourceNotFoundException если позиция не найдена
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public FoodItemDTO getById(Long id) {
+        FoodItem foodItem = foodItemRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Food item not found"));
+        return foodItemMapper.map(foodItem);
+    }
+
+    /**
+     * Добавляет позицию в каталог.
+     *
+     * @param createDTO DTO с данными позиции
+     * @return DTO созданной позиции
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public FoodItemDTO create(FoodItemCreateDTO createDTO) {
+        FoodItem foodItem = foodItemRepository.save(foodItemMapper.map(createDTO));
+        return foodItemMapper.map(foodItem);
+    }
+
+    /**
+     * Ищет позиции каталога по названию.
+     *
+     * <p>Сначала выполняется префиксный поиск по индексу нормализованного названия.
+     * Если он вернул меньше позиций, чем запрошено, и нечеткий поиск включен, результат
+     * дополняется позициями, похожими на запрос по триграммам (опечатки, совпадения
+     * в середине названия). Префиксные совпадения всегда идут первыми.
+     *
+     * @param query поисковая строка
+     * @param limit максимальное количество позиций (null для размера по умолчанию)
+     * @return найденные позиции
+     * @throws IllegalArgumentException если запрос пустой или размер некорректен
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public List<FoodItemDTO> search(String query, Integer limit) {
+        String normalized = FoodItem.normalize(query);
+        if (normalized == null || normalized.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        Limit searchLimit = keysetPagination.limit(limit);
+
+        Map<Long, FoodItem> found = new LinkedHashMap<>();
+        foodItemRepository.findBySearchNamePrefix(escapeLike(normalized) + "%", searchLimit)
+                .forEach(item -> found.put(item.getId(), item));
+
+        if (properties.isFuzzySearch()
+                && found.size() < searchLimit.max()
+                && normalized.length() >= properties.getFuzzyMinLength()) {
+            for (FoodItem item : foodItemRepository.findSimilar(normalized, searchLimit.max())) {
+                if (found.size() == searchLimit.max()) {
+                    break;
+                }
+                found.putIfAbsent(item.getId(), item);
+            }
+        }
+
+        return found.values().stream().map(foodItemMapper::map).toList();
+    }
+
+    /**
+     * Экранирует символы шаблона LIKE, чтобы строка пользователя сравнивалась буквально.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.calorietracker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.config.PaginationProperties;
+import org.example.calorietracker.dto.CursorPage;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Вспомогательный компонент для курсорной (keyset) пагинации по идентификатору.
+ *
+ * <p>Вместо смещения страница запрашивается условием {@code id > :afterId ORDER BY id LIMIT n},
+ * поэтому стоимость запроса не зависит от номера страницы и размера таблицы.
+ * Курсор кодирует последний идентификатор страницы в Base64 и не раскрывает клиенту свое устройство.
+ *
+ * <p>Пример использования в сервисе:
+ * <pre>
+ * Limit limit = keysetPagination.limit(requestedLimit);
+ * List&lt;Dish&gt; dishes = dishRepository.findByIdGreaterThanOrderByIdAsc(
+ *         keysetPagination.afterId(cursor), keysetPagination.probe(limit));
+ * return keysetPagination.page(dishes, limit, Dish::getId, dishMapper::map);
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPagination {
+    private static final String CURSOR_PREFIX = "id:";
+
+    private final PaginationProperties properties;
+
+    /**
+     * Определяет размер страницы с учетом значения по умолчанию и максимального размера.
+     *
+     * @param requested размер, запрошенный клиентом (может быть null)
+     * @return ограничение размера страницы
+     * @throws IllegalArgumentException если запрошенный размер меньше 1
+     */
+    public Limit limit(Integer requested) {
+        if (requested == null) {
+            return Limit.of(properties.getDefaultPageSize());
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Limit.of(Math.min(requested, properties.getMaxPageSize()));
+    }
+
+    /**
+     * Возвращает ограничение на один элемент больше размера страницы.
+     * Лишний элемент показывает, что следующая страница существует.
+     *
+     * @param limit размер страницы
+     * @return ограничение для запроса к базе
+     */
+    public Limit probe(Limit limit) {
+        return Limit.of(limit.max() + 1);
+    }
+
+    /**
+     * Декодирует курсор в идентификатор, после которого начинается страница.
+     *
+     * @param cursor курсор из предыдущего ответа (может быть null для первой страницы)
+     * @return идентификатор последнего элемента предыдущей страницы или 0 для первой страницы
+     * @throws IllegalArgumentException если курсор некорректен
+     */
+    public long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Формирует страницу из результата запроса, выполненного с ограничением {@link #probe(Limit)}.
+     *
+     * @param fetched элементы, упорядоченные по идентификатору
+     * @param limit размер страницы
+     * @param idExtractor функция получения идентификатора элемента
+     * @param mapper функция преобразования элемента в DTO
+     * @param <E> тип сущности
+     * @param <D> тип DTO
+     * @return страница с курсором следующей страницы
+     */
+    public <E, D> CursorPage<D> page(List<E> fetched, Limit limit,
+                                     Function<E, Long> idExtractor, Function<E, D> mapper) {
+        boolean hasNext = fetched.size() > limit.max();
+        List<E> items = hasNext ? fetched.subList(0, limit.max()) : fetched;
+
+        String next = hasNext
+                ? encode(idExtractor.apply(items.get(items.size() - 1)))
+                : null;
+
+        return new CursorPage<>(items.stream().map(mapper).toList(), next);
+    }
+
+    /**
+     * Формирует страницу в два шага: сначала запрос с ограничением {@link #probe(Limit)}
+     * выбирает только идентификаторы, затем сущности страницы загружаются по ним.
+     * Используется для сущностей, которые загружаются вместе с коллекциями: выборка коллекции
+     * через join вместе с LIMIT заставила бы Hibernate ограничивать результат в памяти.
+     *
+     * @param fetchedIds идентификаторы, упорядоченные по возрастанию
+     * @param limit размер страницы
+     * @param loader функция загрузки сущностей по идентификаторам в порядке возрастания
+     * @param mapper функция преобразования сущности в DTO
+     * @param <E> тип сущности
+     * @param <D> тип DTO
+     * @return страница с курсором следующей страницы
+     */
+    public <E, D> CursorPage<D> pageByIds(List<Long> fetchedIds, Limit limit,
+                                          Function<List<Long>, List<E>> loader, Function<E, D> mapper) {
+        CursorPage<Long> idPage = page(fetchedIds, limit, Function.identity(), Function.identity());
+        List<E> entities = idPage.getItems().isEmpty() ? List.of() : loader.apply(idPage.getItems());
+        return new CursorPage<>(entities.stream().map(mapper).toList(), idPage.getNext());
+    }
+
+    private String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
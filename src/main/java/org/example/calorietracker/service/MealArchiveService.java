@@ -0,0 +1,343 @@
+package org.example.calorietracker.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.config.MealArchiveProperties;
+import org.example.calorietracker.dto.dish.DishDTO;
+import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.dto.meal.MealExportDTO;
+import org.example.calorietracker.dto.meal.MealFoodItemDTO;
+import org.example.calorietracker.dto.meal.MealFoodItemExportDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.mapper.MealMapper;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.MealArchiveDay;
+import org.example.calorietracker.model.MealComponent;
+import org.example.calorietracker.repository.DishRepository;
+import org.example.calorietracker.repository.MealArchiveDayRepository;
+import org.example.calorietracker.repository.MealFoodItemRepository;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Архив старых приемов пищи (холодный уровень хранения).
+ *
+ * <p>Приемы пищи старше {@code app.archive.hot-days} дней пользователя переносятся из {@code meals},
+ * {@code dishes} и {@code meal_food_items} в {@code meal_archive_days}: одна строка на день пользователя
+ * с суммами пищевой ценности и сжатым JSON-массивом приемов пищи с блюдами и позициями каталога
+ * ({@link MealExportDTO}). Позиции каталога сохраняются вместе с названием и пищевой ценностью порций.
+ * Поэтому объем горячих таблиц и их индексов ограничен последними днями, а отчеты по давним
+ * периодам читают по строке на день вместо всех приемов пищи и блюд.
+ *
+ * <p>Дневные сводки при архивации не меняются: суммы дней остаются в {@code daily_nutrition_summary}.
+ * Архивированные приемы пищи доступны только для чтения — в отчетах и выгрузке истории.
+ * Идентификаторы приемов пищи и блюд сохраняются, поэтому уже созданные снимки отчетов остаются верными.
+ *
+ * <p>Период архивации пользователя обрабатывается по календарным месяцам его часового пояса,
+ * каждый месяц — в отдельной транзакции. Дни месяца не делятся между транзакциями, а блокировка
+ * строки пользователя ({@link DataVersionService#increment}) удерживается недолго.
+ */
+@Slf4j
+@Service
+public class MealArchiveService {
+    private static final TypeReference<List<MealExportDTO>> MEALS_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Наибольшее расхождение дня в часовом поясе пользователя и дня UTC.
+     */
+    private static final int MAX_ZONE_OFFSET_DAYS = 1;
+
+    private final MealArchiveDayRepository archiveRepository;
+    private final MealRepository mealRepository;
+    private final DishRepository dishRepository;
+    private final MealFoodItemRepository mealFoodItemRepository;
+    private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+    private final MealMapper mealMapper;
+    private final ObjectMapper objectMapper;
+    private final MealArchiveProperties properties;
+    private final TransactionTemplate transaction;
+
+    public MealArchiveService(MealArchiveDayRepository archiveRepository, MealRepository mealRepository,
+                              DishRepository dishRepository, MealFoodItemRepository mealFoodItemRepository,
+                              UserRepository userRepository,
+                              DataVersionService dataVersionService, MealMapper mealMapper,
+                              ObjectMapper objectMapper, MealArchiveProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.archiveRepository = archiveRepository;
+        this.mealRepository = mealRepository;
+        this.dishRepository = dishRepository;
+        this.mealFoodItemRepository = mealFoodItemRepository;
+        this.userRepository = userRepository;
+        this.dataVersionService = dataVersionService;
+        this.mealMapper = mealMapper;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Момент, раньше которого находятся все приемы пищи, подлежащие архивации,
+     * в любом часовом поясе. Используется для выбора пользователей, которым нужна архивация.
+     *
+     * @return граница архивации с запасом на часовые пояса
+     */
+    public Instant archiveHorizon() {
+        return LocalDate.now(ZoneOffset.UTC).minusDays(properties.getHotDays() - 1L - MAX_ZONE_OFFSET_DAYS)
+                .atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * Переносит в архив приемы пищи пользователя, которые старше {@code app.archive.hot-days} его дней.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество архивированных приемов пищи
+     * @throws ResourceNotFoundException если пользователь не найден
+     */
+    public int archiveUser(Long userId) {
+        ZoneId zone = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"))
+                .getZoneId();
+        LocalDate cutoffDate = LocalDate.now(zone).minusDays(properties.getHotDays() - 1L);
+        Optional<Instant> first = mealRepository.findFirstEatenAtByUserId(userId);
+        if (first.isEmpty()) {
+            return 0;
+        }
+
+        int archived = 0;
+        LocalDate month = LocalDate.ofInstant(first.get(), zone).withDayOfMonth(1);
+        while (month.isBefore(cutoffDate)) {
+            LocalDate next = month.plusMonths(1).isBefore(cutoffDate) ? month.plusMonths(1) : cutoffDate;
+            Instant start = month.atStartOfDay(zone).toInstant();
+            Instant end = next.atStartOfDay(zone).toInstant();
+            Integer count = transaction.execute(status -> archiveRange(userId, zone, start, end));
+            archived += count == null ? 0 : count;
+            month = next;
+        }
+        if (archived > 0) {
+            log.info("Archived {} meals of user {}", archived, userId);
+        }
+        return archived;
+    }
+
+    /**
+     * Находит архивированные приемы пищи пользователя за период.
+     *
+     * @param userId идентификатор пользователя
+     * @param start начало периода (включительно)
+     * @param end конец периода (не включительно)
+     * @return приемы пищи в хронологическом порядке
+     */
+    @Transactional(readOnly = true)
+    public List<MealDTO> findMeals(Long userId, Instant start, Instant end) {
+        // День строки архива отличается от дня UTC ее приемов пищи не больше чем на сутки
+        LocalDate startDate = LocalDate.ofInstant(start, ZoneOffset.UTC).minusDays(MAX_ZONE_OFFSET_DAYS);
+        LocalDate endDate = LocalDate.ofInstant(end, ZoneOffset.UTC).plusDays(MAX_ZONE_OFFSET_DAYS + 1L);
+        return archiveRepository.findByUserIdAndDateRange(userId, startDate, endDate).stream()
+                .flatMap(day -> readMeals(day).stream())
+                .filter(meal -> !meal.getEatenAt().isBefore(start) && meal.getEatenAt().isBefore(end))
+                .sorted(Comparator.comparing(MealExportDTO::getEatenAt).thenComparing(MealExportDTO::getId))
+                .map(meal -> new MealDTO(meal.getId(), meal.getEatenAt(), userId,
+                        meal.getDishes().stream().map(DishDTO::getId).toList(),
+                        foodItems(meal).stream()
+                                .map(foodItem -> new MealFoodItemDTO(foodItem.getFoodItemId(), foodItem.getPortion()))
+                                .toList()))
+                .toList();
+    }
+
+    /**
+     * Суммирует пищевую ценность архива пользователя по его дням в часовом поясе {@code zone}.
+     * Для строк, архивированных в этом же поясе, используются готовые суммы; строки
+     * другого пояса распаковываются и распределяются по дням заново.
+     *
+     * @param userId идентификатор пользователя
+     * @param zone текущий часовой пояс пользователя
+     * @return суммы калорий и макронутриентов по дням в хронологическом порядке
+     */
+    @Transactional(readOnly = true)
+    public List<DailyNutrition> findDailyNutrition(Long userId, ZoneId zone) {
+        Map<LocalDate, double[]> totalsByDate = new TreeMap<>();
+        for (DailyNutrition nutrition : archiveRepository.findDailyNutritionByUserIdAndTimeZone(userId, zone.getId())) {
+            add(totalsByDate, nutrition.getDate(), nutrition.getTotalCalories(), nutrition.getTotalProteins(),
+                    nutrition.getTotalFats(), nutrition.getTotalCarbohydrates());
+        }
+        for (MealArchiveDay day : archiveRepository.findByUserIdAndOtherTimeZone(userId, zone.getId())) {
+            for (MealExportDTO meal : readMeals(day)) {
+                LocalDate date = LocalDate.ofInstant(meal.getEatenAt(), zone);
+                for (DishDTO dish : meal.getDishes()) {
+                    add(totalsByDate, date, dish.getCalories(), dish.getProteins(),
+                            dish.getFats(), dish.getCarbohydrates());
+                }
+                for (MealFoodItemExportDTO foodItem : foodItems(meal)) {
+                    add(totalsByDate, date, foodItem.getCalories(), foodItem.getProteins(),
+                            foodItem.getFats(), foodItem.getCarbohydrates());
+                }
+            }
+        }
+        return totalsByDate.entrySet().stream()
+                .<DailyNutrition>map(entry -> new ArchivedNutrition(entry.getKey(),
+                        entry.getValue()[0], entry.getValue()[1], entry.getValue()[2], entry.getValue()[3]))
+                .toList();
+    }
+
+    /**
+     * Передает архивированные приемы пищи пользователя по одному в хронологическом порядке.
+     * Строки архива читаются курсором, поэтому в памяти находится только один день.
+     *
+     * @param userId идентификатор пользователя
+     * @param consumer получатель приемов пищи
+     */
+    @Transactional(readOnly = true)
+    public void forEachMeal(Long userId, Consumer<MealExportDTO> consumer) {
+        try (Stream<MealArchiveDay> days = archiveRepository.streamByUserId(userId)) {
+            days.forEach(day -> readMeals(day).stream()
+                    .sorted(Comparator.comparing(MealExportDTO::getEatenAt).thenComparing(MealExportDTO::getId))
+                    .forEach(consumer));
+        }
+    }
+
+    /**
+     * Переносит приемы пищи пользователя за период {@code [start, end)} в архив.
+     * Вызывается внутри транзакции.
+     */
+    private int archiveRange(Long userId, ZoneId zone, Instant start, Instant end) {
+        if (!dataVersionService.increment(userId)) {
+            return 0;
+        }
+        List<Meal> meals = mealRepository.findByUserIdAndEatenAtRange(userId, start, end);
+        if (meals.isEmpty()) {
+            return 0;
+        }
+
+        Map<LocalDate, List<Meal>> mealsByDate = new TreeMap<>();
+        for (Meal meal : meals) {
+            mealsByDate.computeIfAbsent(LocalDate.ofInstant(meal.getEatenAt(), zone), date -> new ArrayList<>())
+                    .add(meal);
+        }
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<MealArchiveDay> days = mealsByDate.entrySet().stream()
+                .map(entry -> toArchiveDay(userId, entry.getKey(), zone, entry.getValue(), archivedAt))
+                .toList();
+        archiveRepository.saveAll(days);
+
+        // Блюда и позиции каталога удаляются раньше приемов пищи: их внешние ключи ссылаются на приемы пищи
+        List<Long> mealIds = meals.stream().map(Meal::getId).toList();
+        dishRepository.deleteByMealIdInAndMealEatenAtRange(mealIds, start, end);
+        mealFoodItemRepository.deleteByMealIdInAndMealEatenAtRange(mealIds, start, end);
+        mealRepository.deleteByIdInAndEatenAtRange(mealIds, start, end);
+        return meals.size();
+    }
+
+    private MealArchiveDay toArchiveDay(Long userId, LocalDate date, ZoneId zone, List<Meal> meals,
+                                        LocalDateTime archivedAt) {
+        double[] totals = new double[4];
+        for (Meal meal : meals) {
+            List<MealComponent> components = Stream.<MealComponent>concat(
+                    meal.getDishes().stream(), meal.getFoodItems().stream()).toList();
+            for (MealComponent component : components) {
+                totals[0] += component.getCalories();
+                totals[1] += component.getProteins();
+                totals[2] += component.getFats();
+                totals[3] += component.getCarbohydrates();
+            }
+        }
+        return new MealArchiveDay(userId, date, zone.getId(), meals.size(),
+                totals[0], totals[1], totals[2], totals[3],
+                writeMeals(meals.stream().map(mealMapper::mapToExport).toList()), archivedAt);
+    }
+
+    private static void add(Map<LocalDate, double[]> totalsByDate, LocalDate date,
+                            double calories, double proteins, double fats, double carbohydrates) {
+        double[] totals = totalsByDate.computeIfAbsent(date, key -> new double[4]);
+        totals[0] += calories;
+        totals[1] += proteins;
+        totals[2] += fats;
+        totals[3] += carbohydrates;
+    }
+
+    /**
+     * Позиции каталога архивированного приема пищи; в строках, архивированных
+     * до появления ссылок на каталог, их нет.
+     */
+    private static List<MealFoodItemExportDTO> foodItems(MealExportDTO meal) {
+        return meal.getFoodItems() != null ? meal.getFoodItems() : List.of();
+    }
+
+    private byte[] writeMeals(List<MealExportDTO> meals) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, meals);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<MealExportDTO> readMeals(MealArchiveDay day) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(day.getMeals()))) {
+            return objectMapper.readValue(in, MEALS_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Суммы пищевой ценности архива за день.
+     */
+    private record ArchivedNutrition(LocalDate date, Double totalCalories, Double totalProteins,
+                                     Double totalFats, Double totalCarbohydrates) implements DailyNutrition {
+        @Override
+        public LocalDate getDate() {
+            return date;
+        }
+
+        @Override
+        public Double getTotalCalories() {
+            return totalCalories;
+        }
+
+        @Override
+        public Double getTotalProteins() {
+            return totalProteins;
+        }
+
+        @Override
+        public Double getTotalFats() {
+            return totalFats;
+        }
+
+        @Override
+        public Double getTotalCarbohydrates() {
+            return totalCarbohydrates;
+        }
+    }
+}
@@ -1,20 +1,64 @@
 package org.example.calorietracker.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.config.MetricsConfig;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.CursorPage;
+import org.example.calorietracker.dto.DailyMacroSummary;
 import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.dto.PeriodReport;
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchResultDTO;
 import org.example.calorietracker.dto.meal.MealCreateDTO;
 import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.dto.meal.MealExportDTO;
+import org.example.calorietracker.dto.meal.MealFoodItemDTO;
+import org.example.calorietracker.dto.meal.MealImportDTO;
 import org.example.calorietracker.exception.ResourceNotFoundException;
 import org.example.calorietracker.mapper.MealMapper;
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.FoodItem;
 import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.MealFoodItem;
 import org.example.calorietracker.model.User;
 import org.example.calorietracker.repository.MealRepository;
 import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.example.calorietracker.repository.projection.PeriodNutrition;
+import org.example.calorietracker.repository.projection.PeriodStreak;
+import org.example.calorietracker.service.ReportRequestCoalescer.ReportType;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjuster;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Сервис для работы с приемами пищи.
@@ -24,10 +68,37 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class MealService {
+    /**
+     * Количество приемов пищи, после сохранения которых пакетный импорт
+     * сбрасывает изменения в базу и очищает контекст персистентности.
+     */
+    private static final int IMPORT_FLUSH_SIZE = 500;
+
+    /**
+     * Максимальная длина скользящего окна в днях.
+     */
+    private static final int MAX_WINDOW_DAYS = 366;
+    /**
+     * Максимальная длина диапазона недельных и месячных отчетов в днях.
+     */
+    private static final int MAX_PERIOD_DAYS = 366;
+
     private final MealRepository mealRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final DailyNutritionSummaryService summaryService;
+    private final DataVersionService dataVersionService;
     private final MealMapper mealMapper;
+    private final KeysetPagination keysetPagination;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final DishAutocompleteService dishAutocompleteService;
+    private final ReportRequestCoalescer reportRequestCoalescer;
+    private final ReportSnapshotService reportSnapshotService;
+    private final MealArchiveService mealArchiveService;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     /**
      * Получает прием пищи по идентификатору.
@@ -36,6 +107,7 @@ public class MealService {
      * @return DTO приема пищи
      * @throws ResourceNotFoundException если прием пищи не найден
      */
+    @Transactional(readOnly = true)
     public MealDTO getById(Long id) throws ResourceNotFoundException {
         Meal meal = mealRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Meal not found"));
@@ -43,15 +115,20 @@ public class MealService {
     }
 
     /**
-     * Получает список всех приемов пищи.
+     * Получает страницу приемов пищи, упорядоченных по идентификатору.
      *
-     * @return список DTO всех приемов пищи
+     * @param cursor курсор из предыдущего ответа (null для первой страницы)
+     * @param limit размер страницы (null для размера по умолчанию)
+     * @return страница DTO приемов пищи с курсором следующей страницы
+     * @throws IllegalArgumentException если курсор или размер страницы некорректны
      */
-    public List<MealDTO> getAll() {
-        List<Meal> meals = mealRepository.findAll();
-        return meals.stream()
-                .map(mealMapper::map)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPage<MealDTO> getAll(String cursor, Integer limit) {
+        Limit pageLimit = keysetPagination.limit(limit);
+        List<Long> ids = mealRepository.findIdsAfter(
+                keysetPagination.afterId(cursor), keysetPagination.probe(pageLimit));
+        return keysetPagination.pageByIds(ids, pageLimit,
+                mealRepository::findByIdInOrderByIdAsc, mealMapper::map);
     }
 
     /**
@@ -59,31 +136,167 @@ public class MealService {
      *
      * @param createDTO DTO с данными для создания приема пищи
      * @return DTO созданного приема пищи
-     * @throws ResourceNotFoundException если пользователь не найден
+     * @throws ResourceNotFoundException если пользователь, одно из блюд или одна из позиций каталога не найдены
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public MealDTO create(MealCreateDTO createDTO) {
         User user = userRepository.findById(createDTO.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         Meal meal = mealMapper.map(createDTO);
         meal.setUser(user);
+        // Позиции каталога сохраняются вместе с приемом пищи и копируют его момент
+        meal.getFoodItems().forEach(foodItem -> foodItem.setMeal(meal));
 
         mealRepository.save(meal);
+        readYourWritesTracker.markWritten(ReadYourWritesTracker.MEALS, meal.getId());
+        // Прием пищи попадает в дневной отчет даже без блюд, поэтому версия увеличивается явно
+        dataVersionService.increment(user.getId());
+        reportSnapshotService.invalidate(user.getId(), Collections.singleton(localDate(meal)));
+
+        // Связь хранится на стороне блюда, поэтому блюда перепривязываются явно,
+        // а их пищевая ценность переносится из сводок прежних дней в сводку нового
+        summaryService.removeDishes(meal.getDishes());
+        markDishesWritten(meal.getDishes());
+        meal.getDishes().forEach(dish -> dish.setMeal(meal));
+        summaryService.addDishes(meal.getDishes());
+        summaryService.addFoodItems(meal.getFoodItems());
+
         return mealMapper.map(meal);
     }
 
+    /**
+     * Импортирует приемы пищи вместе с блюдами одной транзакцией.
+     *
+     * <p>Все пользователи проверяются одним запросом до начала вставки.
+     * Секции месяцев импортируемых приемов пищи создаются заранее ({@link PartitionMaintenanceService}),
+     * чтобы импортированная история не попала в секции по умолчанию.
+     * Идентификаторы берутся из последовательностей блоками, поэтому Hibernate
+     * объединяет вставки в JDBC-пакеты размером {@code hibernate.jdbc.batch_size}.
+     * Контекст персистентности сбрасывается каждые {@value #IMPORT_FLUSH_SIZE}
+     * приемов пищи, чтобы память не росла с размером запроса.
+     * Дневные сводки обновляются одним изменением на каждый затронутый день.
+     * Позиции каталога всех приемов пищи загружаются одним запросом.
+     *
+     * @param batchCreateDTO DTO с импортируемыми приемами пищи
+     * @return количество созданных приемов пищи, блюд и записанных позиций каталога
+     * @throws ResourceNotFoundException если хотя бы один пользователь или одна позиция каталога не найдены;
+     *                                   сообщение содержит все отсутствующие ID
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public MealBatchResultDTO importMeals(MealBatchCreateDTO batchCreateDTO) {
+        Set<Long> userIds = batchCreateDTO.getMeals().stream()
+                .map(MealImportDTO::getUserId)
+                .collect(Collectors.toSet());
+        Map<Long, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Long> missingIds = userIds.stream()
+                .filter(id -> !usersById.containsKey(id))
+                .sorted()
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Users not found: " + missingIds);
+        }
+        Map<Long, FoodItem> catalog = mealMapper.findFoodItems(batchCreateDTO.getMeals().stream()
+                .filter(importDTO -> importDTO.getFoodItems() != null)
+                .flatMap(importDTO -> importDTO.getFoodItems().stream())
+                .toList());
+        partitionMaintenanceService.ensurePartitions(batchCreateDTO.getMeals().stream()
+                .map(importDTO -> YearMonth.from(importDTO.getEatenAt().atOffset(ZoneOffset.UTC)))
+                .collect(Collectors.toSet()));
+        userIds.stream().sorted().forEach(dataVersionService::increment);
+
+        List<Dish> dishes = new ArrayList<>();
+        List<MealFoodItem> foodItems = new ArrayList<>();
+        Map<Long, Set<LocalDate>> datesByUser = new HashMap<>();
+        int mealCount = 0;
+        for (MealImportDTO importDTO : batchCreateDTO.getMeals()) {
+            Meal meal = mealMapper.map(importDTO);
+            meal.setUser(usersById.get(importDTO.getUserId()));
+            entityManager.persist(meal);
+            readYourWritesTracker.markWritten(ReadYourWritesTracker.MEALS, meal.getId());
+            datesByUser.computeIfAbsent(importDTO.getUserId(), id -> new HashSet<>()).add(localDate(meal));
+
+            if (importDTO.getDishes() != null) {
+                for (DishCreateDTO dishDTO : importDTO.getDishes()) {
+                    Dish dish = mealMapper.map(dishDTO);
+                    dish.setMeal(meal);
+                    entityManager.persist(dish);
+                    readYourWritesTracker.markWritten(ReadYourWritesTracker.DISHES, dish.getId());
+                    dishes.add(dish);
+                }
+            }
+            if (importDTO.getFoodItems() != null) {
+                for (MealFoodItemDTO foodItemDTO : importDTO.getFoodItems()) {
+                    MealFoodItem foodItem = mealMapper.toFoodItem(foodItemDTO, catalog);
+                    foodItem.setMeal(meal);
+                    entityManager.persist(foodItem);
+                    foodItems.add(foodItem);
+                }
+            }
+
+            if (++mealCount % IMPORT_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        // Сводки читают только пользователя, дату и пищевую ценность блюд,
+        // поэтому отсоединенные после очистки сущности для них подходят
+        summaryService.addDishes(dishes);
+        summaryService.addFoodItems(foodItems);
+        datesByUser.forEach(reportSnapshotService::invalidate);
+        dishAutocompleteService.recordUsage(dishes.stream().map(Dish::getName).toList());
+
+        return new MealBatchResultDTO(mealCount, dishes.size(), foodItems.size());
+    }
+
     /**
      * Удаляет прием пищи.
      *
      * @param id идентификатор удаляемого приема пищи
      * @throws ResourceNotFoundException если прием пищи не найден
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public void delete(Long id) throws ResourceNotFoundException {
-        mealRepository.deleteById(id);
+        mealRepository.findById(id).ifPresent(meal -> {
+            dataVersionService.increment(meal.getUser().getId());
+            reportSnapshotService.invalidate(meal.getUser().getId(), Collections.singleton(localDate(meal)));
+            // Блюда остаются без приема пищи, иначе удаление нарушит внешний ключ;
+            // позиции каталога удаляются вместе с приемом пищи
+            summaryService.removeDishes(meal.getDishes());
+            summaryService.removeFoodItems(meal.getFoodItems());
+            markDishesWritten(meal.getDishes());
+            meal.getDishes().forEach(dish -> dish.setMeal(null));
+            mealRepository.delete(meal);
+        });
+    }
+
+    /**
+     * Получает версию данных о питании пользователя. Версия увеличивается при каждом
+     * изменении его приемов пищи и блюд, поэтому отчеты с одинаковой версией совпадают.
+     * Версия читается в транзакции только для чтения из той же базы, что и отчеты
+     * этого HTTP-запроса ({@link org.example.calorietracker.datasource.ReadYourWritesTracker}),
+     * поэтому ETag не может оказаться новее данных отчета.
+     *
+     * @param userId идентификатор пользователя
+     * @return версия данных
+     * @throws ResourceNotFoundException если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public long getDataVersion(Long userId) throws ResourceNotFoundException {
+        return userRepository.findDataVersionById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
     /**
-     * Формирует дневной отчет о питании.
+     * Формирует дневной отчет о питании за день в часовом поясе пользователя.
+     * Одновременные запросы одного и того же отчета объединяются ({@link ReportRequestCoalescer}).
+     * Отчет за прошедший день читается из снимка ({@link ReportSnapshotService}), если он есть.
      *
      * @param userId идентификатор пользователя
      * @param date дата для формирования отчета
@@ -91,16 +304,27 @@ public class MealService {
      * @throws ResourceNotFoundException если пользователь не найден
      */
     public DailyReport getDailyReport(Long userId, LocalDate date) throws ResourceNotFoundException {
-        // Получаем все приемы пищи за день
-        List<Meal> meals = mealRepository.findByUserIdAndCreatedAt(userId, date);
-        List<MealDTO> mealDTOS = meals.stream()
-                .map(mealMapper::map)
-                .toList();
-
-        Double totalCalories = mealRepository.findTotalCaloriesByUserIdAndCreatedAt(userId, date);
+        return getDailyReport(userId, date, null);
+    }
 
-        // Формируем отчет
-        return new DailyReport(date, mealDTOS, totalCalories);
+    /**
+     * Формирует дневной отчет, который отдается с ETag по версии данных пользователя.
+     * Запрос объединяется только с одновременными запросами той же версии.
+     *
+     * @param userId идентификатор пользователя
+     * @param date дата для формирования отчета
+     * @param dataVersion версия данных из {@link #getDataVersion} (null, если отчет отдается без ETag)
+     * @return отчет с приемами пищи и суммарной калорийностью
+     * @throws ResourceNotFoundException если пользователь не найден
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public DailyReport getDailyReport(Long userId, LocalDate date, Long dataVersion) throws ResourceNotFoundException {
+        // Приемы пищи за день и сумма калорий читаются независимо друг от друга
+        return reportRequestCoalescer.execute(ReportType.DAILY, userId, dataVersion, List.of(date),
+                () -> reportSnapshotService.findDailyReport(userId, date).orElseGet(() -> parallelQueryExecutor.join(
+                        () -> findMeals(userId, userService.getZoneId(userId), date, date.plusDays(1)),
+                        () -> summaryService.getTotalCalories(userId, date),
+                        (mealDTOS, totalCalories) -> new DailyReport(date, mealDTOS, totalCalories))));
     }
 
     /**
@@ -111,10 +335,13 @@ public class MealService {
      * @return true если норма не превышена, false в противном случае
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public boolean isWithinDailyLimit(Long userId, LocalDate date) {
-        double dailyIntake = userService.getDailyCalorieIntake(userId);
-        double totalCalories = mealRepository.findTotalCaloriesByUserIdAndCreatedAt(userId, date);
-        return totalCalories <= dailyIntake;
+        return parallelQueryExecutor.join(
+                () -> userService.getDailyCalorieIntake(userId),
+                () -> summaryService.getTotalCalories(userId, date),
+                (dailyIntake, totalCalories) -> totalCalories <= dailyIntake);
     }
 
     /**
@@ -129,11 +356,369 @@ public class MealService {
      */
     public List<DailyReport> getNutritionHistory(
             Long userId, LocalDate startDate, LocalDate endDate) throws ResourceNotFoundException{
-        List<LocalDate> dates = startDate.datesUntil(endDate.plusDays(1))
-                .collect(Collectors.toList());
+        return getNutritionHistory(userId, startDate, endDate, null);
+    }
+
+    /**
+     * Получает историю питания, которая отдается с ETag по версии данных пользователя.
+     * Запрос объединяется только с одновременными запросами той же версии.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начальная дата периода (включительно)
+     * @param endDate конечная дата периода (включительно)
+     * @param dataVersion версия данных из {@link #getDataVersion} (null, если история отдается без ETag)
+     * @return список дневных отчетов за период
+     * @throws ResourceNotFoundException если пользователь не найден
+     * @throws IllegalArgumentException если даты некорректны (startDate > endDate)
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<DailyReport> getNutritionHistory(Long userId, LocalDate startDate, LocalDate endDate,
+                                                 Long dataVersion) throws ResourceNotFoundException {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        return reportRequestCoalescer.execute(ReportType.HISTORY, userId, dataVersion, List.of(startDate, endDate), () -> {
+            // Прошедшие дни читаются из снимков; из исходных таблиц собираются только дни без снимков
+            Map<LocalDate, DailyReport> snapshots = reportSnapshotService.findDailyReports(userId, startDate, endDate);
+            List<LocalDate> missing = startDate.datesUntil(endDate.plusDays(1))
+                    .filter(date -> !snapshots.containsKey(date))
+                    .toList();
+            Map<LocalDate, DailyReport> live = missing.isEmpty()
+                    ? Map.of()
+                    : computeNutritionHistory(userId, missing.get(0), missing.get(missing.size() - 1));
+            return startDate.datesUntil(endDate.plusDays(1))
+                    .map(date -> snapshots.getOrDefault(date, live.get(date)))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Собирает дневные отчеты за период из приемов пищи и дневных сводок.
+     *
+     * @return отчеты за каждый день периода по дате
+     */
+    private Map<LocalDate, DailyReport> computeNutritionHistory(Long userId, LocalDate startDate, LocalDate endDate) {
+        // Два независимых запроса на весь период вместо двух запросов на каждый день;
+        // суммы читаются из материализованных дневных сводок
+        return parallelQueryExecutor.join(
+                () -> {
+                    ZoneId zone = userService.getZoneId(userId);
+                    return findMeals(userId, zone, startDate, endDate.plusDays(1)).stream()
+                            .collect(Collectors.groupingBy(meal -> LocalDate.ofInstant(meal.getEatenAt(), zone)));
+                },
+                () -> summaryService
+                        .getDailyNutrition(userId, startDate, endDate.plusDays(1))
+                        .stream()
+                        .collect(Collectors.toMap(DailyNutrition::getDate, DailyNutrition::getTotalCalories)),
+                (mealsByDate, caloriesByDate) -> startDate.datesUntil(endDate.plusDays(1))
+                        .collect(Collectors.toMap(Function.identity(), date -> new DailyReport(
+                                date,
+                                mealsByDate.getOrDefault(date, List.of()),
+                                caloriesByDate.getOrDefault(date, 0.0)))));
+    }
+
+    /**
+     * Находит приемы пищи за дни пользователя {@code [startDate, endDate)}. Дни переводятся
+     * в диапазон моментов UTC по часовому поясу пользователя {@code zone}, поэтому запрос использует
+     * индекс {@code (user_id, eaten_at)} без вычислений над столбцом.
+     * Приемы пищи старых дней читаются из архива ({@link MealArchiveService}); если период начинается
+     * не раньше границы архивации, архив не запрашивается.
+     *
+     * @return приемы пищи в хронологическом порядке
+     */
+    private List<MealDTO> findMeals(Long userId, ZoneId zone, LocalDate startDate, LocalDate endDate) {
+        Instant start = startDate.atStartOfDay(zone).toInstant();
+        Instant end = endDate.atStartOfDay(zone).toInstant();
+        List<MealDTO> archived = start.isBefore(mealArchiveService.archiveHorizon())
+                ? mealArchiveService.findMeals(userId, start, end)
+                : List.of();
+        List<MealDTO> meals = mealRepository.findByUserIdAndEatenAtRange(userId, start, end).stream()
+                .map(mealMapper::map)
+                .toList();
+        if (archived.isEmpty()) {
+            return meals;
+        }
+        // Приемы пищи архивируются в фоне, поэтому период может захватывать оба уровня хранения
+        return Stream.concat(archived.stream(), meals.stream())
+                .sorted(Comparator.comparing(MealDTO::getEatenAt).thenComparing(MealDTO::getId))
+                .toList();
+    }
+
+    /**
+     * Отмечает изменение блюд и приемов пищи, к которым они были привязаны, чтобы их чтение
+     * по идентификатору в течение окна read-your-writes выполнялось в основной базе.
+     * Вызывается до перепривязки блюд.
+     */
+    private void markDishesWritten(Collection<Dish> dishes) {
+        for (Dish dish : dishes) {
+            readYourWritesTracker.markWritten(ReadYourWritesTracker.DISHES, dish.getId());
+            if (dish.getMeal() != null) {
+                readYourWritesTracker.markWritten(ReadYourWritesTracker.MEALS, dish.getMeal().getId());
+            }
+        }
+    }
 
-        return dates.stream()
-                .map(date -> getDailyReport(userId, date))
-                .collect(Collectors.toList());
+    /**
+     * День приема пищи в часовом поясе его пользователя.
+     */
+    private static LocalDate localDate(Meal meal) {
+        return LocalDate.ofInstant(meal.getEatenAt(), meal.getUser().getZoneId());
+    }
+
+    /**
+     * Выгружает всю историю питания пользователя в формате NDJSON:
+     * по одной строке JSON ({@code MealExportDTO}) на прием пищи,
+     * в хронологическом порядке. Сначала выгружаются архивированные приемы пищи ({@link MealArchiveService}).
+     *
+     * <p>Приемы пищи читаются курсором и записываются в поток по одному, а уже записанные
+     * сущности сразу отсоединяются от контекста персистентности. Поэтому расход памяти
+     * не зависит от объема истории.
+     *
+     * @param userId идентификатор пользователя
+     * @param out поток, в который записывается выгрузка (не закрывается)
+     * @throws IOException если запись в поток не удалась
+     */
+    @Transactional(readOnly = true)
+    public void exportHistory(Long userId, OutputStream out) throws IOException {
+        try {
+            mealArchiveService.forEachMeal(userId, meal -> writeLine(out, meal));
+            try (Stream<Meal> meals = mealRepository.streamByUserId(userId)) {
+                meals.forEach(meal -> {
+                    writeLine(out, mealMapper.mapToExport(meal));
+                    meal.getDishes().forEach(entityManager::detach);
+                    entityManager.detach(meal);
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, MealExportDTO meal) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(meal));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Формирует облегченный дневной отчет: суммарные калории и макронутриенты без списка приемов пищи.
+     *
+     * @param userId идентификатор пользователя
+     * @param date дата для формирования отчета
+     * @return суммы калорий, белков, жиров и углеводов за день
+     */
+    public DailyMacroSummary getMacroSummary(Long userId, LocalDate date) {
+        return getMacroSummary(userId, date, null);
+    }
+
+    /**
+     * Формирует облегченный дневной отчет, который отдается с ETag по версии данных пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param date дата для формирования отчета
+     * @param dataVersion версия данных из {@link #getDataVersion} (null, если отчет отдается без ETag)
+     * @return суммы калорий, белков, жиров и углеводов за день
+     */
+    public DailyMacroSummary getMacroSummary(Long userId, LocalDate date, Long dataVersion) {
+        return getMacroHistory(userId, date, date, dataVersion).get(0);
+    }
+
+    /**
+     * Получает облегченные дневные отчеты за указанный период.
+     * Все суммы считаются одним агрегирующим запросом; дни без блюд возвращаются с нулями.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начальная дата периода (включительно)
+     * @param endDate конечная дата периода (включительно)
+     * @return список облегченных дневных отчетов за период
+     * @throws IllegalArgumentException если даты некорректны (startDate > endDate)
+     */
+    public List<DailyMacroSummary> getMacroHistory(Long userId, LocalDate startDate, LocalDate endDate) {
+        return getMacroHistory(userId, startDate, endDate, null);
+    }
+
+    /**
+     * Получает облегченные дневные отчеты за период, которые отдаются с ETag по версии данных пользователя.
+     * Запрос объединяется только с одновременными запросами той же версии.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начальная дата периода (включительно)
+     * @param endDate конечная дата периода (включительно)
+     * @param dataVersion версия данных из {@link #getDataVersion} (null, если отчеты отдаются без ETag)
+     * @return список облегченных дневных отчетов за период
+     * @throws IllegalArgumentException если даты некорректны (startDate > endDate)
+     */
+    public List<DailyMacroSummary> getMacroHistory(Long userId, LocalDate startDate, LocalDate endDate,
+                                                   Long dataVersion) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        return reportRequestCoalescer.execute(ReportType.MACROS, userId, dataVersion, List.of(startDate, endDate), () -> {
+            Map<LocalDate, DailyNutrition> nutritionByDate = summaryService
+                    .getDailyNutrition(userId, startDate, endDate.plusDays(1))
+                    .stream()
+                    .collect(Collectors.toMap(DailyNutrition::getDate, Function.identity()));
+
+            return startDate.datesUntil(endDate.plusDays(1))
+                    .map(date -> {
+                        DailyNutrition nutrition = nutritionByDate.get(date);
+                        return nutrition == null
+                                ? new DailyMacroSummary(date, 0, 0, 0, 0)
+                                : new DailyMacroSummary(date,
+                                nutrition.getTotalCalories(),
+                                nutrition.getTotalProteins(),
+                                nutrition.getTotalFats(),
+                                nutrition.getTotalCarbohydrates());
+                    })
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Получает сводные отчеты по неделям (с понедельника по воскресенье) за указанный период.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начальная дата периода (включительно)
+     * @param endDate конечная дата периода (включительно)
+     * @return отчеты по всем неделям периода, включая недели без записей
+     * @throws ResourceNotFoundException если пользователь не найден
+     * @throws IllegalArgumentException если даты некорректны (startDate > endDate) или период длиннее 366 дней
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<PeriodReport> getWeeklyReports(Long userId, LocalDate startDate, LocalDate endDate) {
+        return getPeriodReports(ReportType.WEEKLY, userId, startDate, endDate,
+                TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY), start -> start.plusWeeks(1),
+                summaryService::getWeeklyNutrition, summaryService::getWeeklyStreaks);
+    }
+
+    /**
+     * Получает сводные отчеты по календарным месяцам за указанный период.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начальная дата периода (включительно)
+     * @param endDate конечная дата периода (включительно)
+     * @return отчеты по всем месяцам периода, включая месяцы без записей
+     * @throws ResourceNotFoundException если пользователь не найден
+     * @throws IllegalArgumentException если даты некорректны (startDate > endDate) или период длиннее 366 дней
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<PeriodReport> getMonthlyReports(Long userId, LocalDate startDate, LocalDate endDate) {
+        return getPeriodReports(ReportType.MONTHLY, userId, startDate, endDate,
+                TemporalAdjusters.firstDayOfMonth(), start -> start.plusMonths(1),
+                summaryService::getMonthlyNutrition, summaryService::getMonthlyStreaks);
+    }
+
+    /**
+     * Получает сводку за скользящее окно из нескольких дней, которое заканчивается указанным днем.
+     * Для завершившихся дней и окон из {@code app.reports.snapshots.windows} сводка читается
+     * из снимка, иначе считается по дневным сводкам.
+     *
+     * @param userId идентификатор пользователя
+     * @param endDate последний день окна (включительно)
+     * @param days длина окна в днях
+     * @return суммы, средние значения, дни с превышением нормы и самая длинная серия дней в пределах нормы
+     * @throws ResourceNotFoundException если пользователь не найден
+     * @throws IllegalArgumentException если длина окна некорректна
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public PeriodReport getRollingWindowReport(Long userId, LocalDate endDate, int days) {
+        if (days < 1 || days > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW_DAYS + " days");
+        }
+        LocalDate startDate = endDate.minusDays(days - 1);
+        return reportRequestCoalescer.execute(ReportType.ROLLING, userId, null, List.of(endDate, days),
+                () -> reportSnapshotService.findRollingWindow(userId, endDate, days).orElseGet(
+                        () -> parallelQueryExecutor.join(
+                                () -> userService.getDailyCalorieIntake(userId),
+                                () -> summaryService.getDailyNutrition(userId, startDate, endDate.plusDays(1)),
+                                (calorieLimit, nutrition) -> ReportSnapshotService.rollingWindow(
+                                        startDate, endDate, nutrition, calorieLimit))));
+    }
+
+    /**
+     * Формирует сводные отчеты по периодам. Суммы, средние и дни с превышением нормы
+     * считаются в базе одним группирующим запросом по дневным сводкам, самые длинные серии
+     * дней в пределах нормы — вторым запросом, который выполняется параллельно с ним.
+     * Длина диапазона ограничена {@value #MAX_PERIOD_DAYS} днями, чтобы один запрос
+     * не читал всю историю пользователя.
+     *
+     * @param type тип отчета для объединения одновременных запросов
+     * @param periodStart корректор даты к началу ее периода
+     * @param nextPeriod переход от начала периода к началу следующего
+     * @param query группирующий запрос по периодам
+     * @param streakQuery запрос самых длинных серий по периодам
+     */
+    private List<PeriodReport> getPeriodReports(ReportType type, Long userId, LocalDate startDate, LocalDate endDate,
+                                                TemporalAdjuster periodStart, UnaryOperator<LocalDate> nextPeriod,
+                                                PeriodQuery<PeriodNutrition> query,
+                                                PeriodQuery<PeriodStreak> streakQuery) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (!endDate.isBefore(startDate.plusDays(MAX_PERIOD_DAYS))) {
+            throw new IllegalArgumentException("Period must not be longer than " + MAX_PERIOD_DAYS + " days");
+        }
+        return reportRequestCoalescer.execute(type, userId, null, List.of(startDate, endDate),
+                () -> computePeriodReports(userId, startDate, endDate, periodStart, nextPeriod, query, streakQuery));
+    }
+
+    private List<PeriodReport> computePeriodReports(Long userId, LocalDate startDate, LocalDate endDate,
+                                                    TemporalAdjuster periodStart, UnaryOperator<LocalDate> nextPeriod,
+                                                    PeriodQuery<PeriodNutrition> query,
+                                                    PeriodQuery<PeriodStreak> streakQuery) {
+        double calorieLimit = userService.getDailyCalorieIntake(userId);
+        LocalDate rangeEnd = endDate.plusDays(1);
+
+        return parallelQueryExecutor.join(
+                () -> query.find(userId, startDate, rangeEnd, calorieLimit).stream()
+                        .collect(Collectors.toMap(PeriodNutrition::getPeriodStart, Function.identity())),
+                () -> streakQuery.find(userId, startDate, rangeEnd, calorieLimit).stream()
+                        .collect(Collectors.toMap(PeriodStreak::getPeriodStart, PeriodStreak::getLongestStreak)),
+                (nutritionByPeriod, streakByPeriod) -> {
+                    List<PeriodReport> reports = new ArrayList<>();
+                    for (LocalDate start = startDate.with(periodStart); !start.isAfter(endDate);
+                         start = nextPeriod.apply(start)) {
+                        LocalDate next = nextPeriod.apply(start);
+                        reports.add(toPeriodReport(
+                                start.isBefore(startDate) ? startDate : start,
+                                next.isAfter(endDate) ? endDate : next.minusDays(1),
+                                nutritionByPeriod.get(start),
+                                streakByPeriod.getOrDefault(start, 0)));
+                    }
+                    return reports;
+                });
+    }
+
+    private static PeriodReport toPeriodReport(LocalDate start, LocalDate end, PeriodNutrition nutrition,
+                                               int longestStreak) {
+        if (nutrition == null) {
+            return new PeriodReport(start, end, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new PeriodReport(start, end,
+                nutrition.getTotalCalories(),
+                nutrition.getTotalProteins(),
+                nutrition.getTotalFats(),
+                nutrition.getTotalCarbohydrates(),
+                nutrition.getAverageCalories(),
+                nutrition.getAverageProteins(),
+                nutrition.getAverageFats(),
+                nutrition.getAverageCarbohydrates(),
+                nutrition.getDaysLogged().intValue(),
+                nutrition.getDaysOverLimit().intValue(),
+                longestStreak);
+    }
+
+    /**
+     * Группирующий запрос дневных сводок по периодам.
+     */
+    @FunctionalInterface
+    private interface PeriodQuery<T> {
+        List<T> find(Long userId, LocalDate startDate, LocalDate endDate, double calorieLimit);
     }
 }
@@ -0,0 +1,169 @@
+package org.example.calorietracker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.calorietracker.config.ParallelQueryProperties;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.metrics.StatementCounter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет независимые запросы на чтение параллельно и объединяет их результаты.
+ *
+ * <p>Если параллельное выполнение включено ({@code app.reports.parallel-queries.enabled}),
+ * первый запрос выполняется в вызывающем потоке — в его транзакции, если она есть, — а второй
+ * одновременно с ним в ограниченном пуле потоков в отдельной транзакции только для чтения,
+ * то есть на отдельном соединении. Время ответа при этом определяется самым медленным
+ * запросом, а не их суммой. Если очередь пула заполнена, запрос выполняется в вызывающем
+ * потоке. Если выключено, запросы выполняются по очереди в вызывающем потоке.
+ *
+ * <p>Вызывающий поток может удерживать соединение своей транзакции, пока ждет запрос из пула.
+ * Чтобы такие потоки не заняли все соединения, вызывающий поток никогда не ждет запрос,
+ * который пул еще не начал выполнять, а выполняет его сам. Ожидание начатого запроса
+ * ограничено {@code app.reports.parallel-queries.timeout}: если за это время запрос не выполнился
+ * (например, все еще ждет соединения), он прерывается и выполняется в вызывающем потоке.
+ *
+ * <p>Запросы, выполненные в пуле, учитываются в счетчике {@link StatementCounter}
+ * вызывающего потока, а привязка пользователя для чтения из реплики
+ * ({@link ReadYourWritesTracker}) передается в поток пула, поэтому оба запроса читают из одной базы.
+ */
+@Component
+public class ParallelQueryExecutor {
+    private final boolean enabled;
+    private final Duration timeout;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ParallelQueryExecutor(ParallelQueryProperties properties, PlatformTransactionManager transactionManager) {
+        this.enabled = properties.isEnabled();
+        this.timeout = properties.getTimeout();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        // Пул не регистрируется как бин, чтобы не заменить собой пул асинхронных задач Spring MVC
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.getPoolSize());
+        this.executor.setMaxPoolSize(properties.getPoolSize());
+        this.executor.setQueueCapacity(properties.getQueueCapacity());
+        this.executor.setThreadNamePrefix("report-query-");
+        this.executor.initialize();
+    }
+
+    /**
+     * Выполняет два независимых запроса и объединяет их результаты.
+     * Исключение любого из запросов пробрасывается вызывающему без обертки.
+     *
+     * @param first первый запрос (выполняется в вызывающем потоке)
+     * @param second второй запрос
+     * @param combiner функция объединения результатов
+     * @return результат объединения
+     */
+    public <A, B, R> R join(Supplier<A> first, Supplier<B> second,
+                            BiFunction<? super A, ? super B, ? extends R> combiner) {
+        if (!enabled) {
+            return combiner.apply(first.get(), second.get());
+        }
+
+        PooledQuery<B> pooled = submit(second);
+        A a;
+        try {
+            a = readOnlyTransaction.execute(status -> first.get());
+        } catch (RuntimeException | Error e) {
+            pooled.cancel();
+            throw e;
+        }
+        B b = pooled.claim() ? readOnlyTransaction.execute(status -> second.get()) : await(pooled, second);
+        return combiner.apply(a, b);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> PooledQuery<T> submit(Supplier<T> query) {
+        ReadYourWritesTracker.Binding binding = ReadYourWritesTracker.currentBinding();
+        PooledQuery<T> pooled = new PooledQuery<>();
+        try {
+            pooled.task = executor.submit(() -> {
+                if (!pooled.claim()) {
+                    return;
+                }
+                StatementCounter.start();
+                try {
+                    T value = ReadYourWritesTracker.withBinding(binding,
+                            () -> readOnlyTransaction.execute(status -> query.get()));
+                    pooled.result.complete(new Counted<>(value, StatementCounter.stop()));
+                } catch (RuntimeException | Error e) {
+                    StatementCounter.stop();
+                    pooled.result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Запрос остается невзятым, и его выполнит вызывающий поток
+        }
+        return pooled;
+    }
+
+    private <T> T await(PooledQuery<T> pooled, Supplier<T> query) {
+        try {
+            Counted<T> counted = pooled.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            StatementCounter.add(counted.statements());
+            return counted.value();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Запрос в пуле, скорее всего, ждет соединения, которые заняты вызывающими потоками
+            pooled.cancel();
+            return readOnlyTransaction.execute(status -> query.get());
+        } catch (InterruptedException e) {
+            pooled.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a report query", e);
+        }
+    }
+
+    /**
+     * Запрос, переданный в пул. Выполняет его тот, кто первым возьмет запрос:
+     * поток пула или вызывающий поток.
+     */
+    private static final class PooledQuery<T> {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<Counted<T>> result = new CompletableFuture<>();
+        private volatile Future<?> task;
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void cancel() {
+            claim();
+            Future<?> submitted = task;
+            if (submitted != null) {
+                submitted.cancel(true);
+            }
+        }
+    }
+
+    private record Counted<T>(T value, int statements) {
+    }
+}
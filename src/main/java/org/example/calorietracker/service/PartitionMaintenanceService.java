@@ -0,0 +1,284 @@
+package org.example.calorietracker.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.example.calorietracker.config.PartitionProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Обслуживание ежемесячных секций таблиц {@code meals}, {@code dishes} и {@code meal_food_items}
+ * (только PostgreSQL).
+ *
+ * <p>Таблицы разбиты на секции по месяцу (UTC) момента приема пищи: {@code meals} — по столбцу
+ * {@code eaten_at}, {@code dishes} и {@code meal_food_items} — по его копии {@code meal_eaten_at}. Секция месяца называется
+ * {@code <таблица>_yГГГГmММ}, например {@code meals_y2024m03}; строки вне всех секций
+ * (блюда без приема пищи) попадают в секцию по умолчанию {@code <таблица>_default}.
+ * Запросы с условием на ключ секционирования читают только секции месяцев своего периода.
+ *
+ * <p>{@link #maintain(YearMonth)} создает секции текущего и {@code app.partitions.months-ahead}
+ * следующих месяцев заранее, чтобы новые строки не попадали в секцию по умолчанию, и отсоединяет
+ * секции месяцев старше {@code app.partitions.retention-months}. Отсоединенная секция остается
+ * отдельной таблицей с теми же данными, но приложение ее больше не читает.
+ * Секции {@code dishes} и {@code meal_food_items} отсоединяются раньше секции {@code meals} того же
+ * месяца: их составные внешние ключи ссылаются только на приемы пищи своего месяца.
+ * Секции прошлых месяцев создаются по требованию перед импортом истории ({@link #ensurePartitions(Collection)}).
+ *
+ * <p>Строки с датой в секции по умолчанию означают, что секция их месяца не была создана вовремя:
+ * запросы за этот месяц читают секцию по умолчанию целиком, а создать секцию месяца нельзя,
+ * пока строки не перенесены из секции по умолчанию. {@link #maintain(YearMonth)} считает такие строки,
+ * пишет предупреждение в журнал и публикует их количество в метрике {@value #DEFAULT_ROWS_GAUGE}.
+ *
+ * <p>Каждая команда выполняется в отдельной транзакции, поэтому ошибка одной команды
+ * (например, если в секции по умолчанию уже есть строки нового месяца) не мешает остальным.
+ * Транзакция команды не присоединяется к транзакции вызывающего: создание секции блокирует
+ * родительскую таблицу, и блокировка не должна удерживаться до конца импорта.
+ *
+ * <p>Если {@code app.partitions.enabled} выключено (базы, отличные от PostgreSQL), методы ничего не делают.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService implements MeterBinder {
+    /**
+     * Количество строк с датой в секции по умолчанию по таблицам (тег {@code table}).
+     */
+    public static final String DEFAULT_ROWS_GAUGE = "calorietracker.partitions.default.rows";
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("'_y'yyyy'm'MM");
+
+    private final EntityManager entityManager;
+    private final PartitionProperties properties;
+    private final TransactionTemplate transaction;
+    private final Map<PartitionedTable, AtomicLong> defaultRows = new EnumMap<>(PartitionedTable.class);
+
+    public PartitionMaintenanceService(EntityManager entityManager, PartitionProperties properties,
+                                       PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (PartitionedTable table : PartitionedTable.values()) {
+            defaultRows.put(table, new AtomicLong());
+        }
+    }
+
+    /**
+     * Создает недостающие секции, отсоединяет устаревшие и проверяет секции по умолчанию.
+     *
+     * @param currentMonth текущий месяц в UTC
+     * @return количество команд, которые выполнить не удалось
+     */
+    public int maintain(YearMonth currentMonth) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        Map<PartitionedTable, Set<YearMonth>> existing = new EnumMap<>(PartitionedTable.class);
+        for (PartitionedTable table : PartitionedTable.values()) {
+            existing.put(table, findPartitionMonths(table));
+        }
+
+        int failed = 0;
+        for (PartitionedTable table : PartitionedTable.values()) {
+            for (YearMonth month : missingMonths(existing.get(table), currentMonth, properties.getMonthsAhead())) {
+                failed += execute(table.createPartitionSql(month));
+            }
+        }
+        if (properties.getRetentionMonths() > 0) {
+            for (PartitionedTable table : List.of(PartitionedTable.DISHES, PartitionedTable.MEAL_FOOD_ITEMS,
+                    PartitionedTable.MEALS)) {
+                for (YearMonth month : expiredMonths(existing.get(table), currentMonth, properties.getRetentionMonths())) {
+                    failed += execute(table.detachPartitionSql(month));
+                }
+            }
+        }
+        for (PartitionedTable table : PartitionedTable.values()) {
+            long rows = countDatedDefaultRows(table);
+            defaultRows.get(table).set(rows);
+            if (rows > 0) {
+                log.warn("Default partition {} holds {} rows that belong to monthly partitions; " +
+                        "move them out and create the partitions of their months", table.defaultPartitionName(), rows);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Создает секции месяцев, в которые попадут вставляемые строки, если этих секций еще нет.
+     * Вызывается перед импортом истории: иначе строки прошлых месяцев попали бы в секции по умолчанию.
+     *
+     * <p>Если секции уже существуют, выполняются только запросы к системному каталогу. Каждая
+     * создаваемая секция на время команды занимает отдельное соединение.
+     *
+     * @param months месяцы (UTC) вставляемых строк
+     * @return количество команд, которые выполнить не удалось
+     */
+    public int ensurePartitions(Collection<YearMonth> months) {
+        if (!properties.isEnabled() || months.isEmpty()) {
+            return 0;
+        }
+        int failed = 0;
+        for (PartitionedTable table : PartitionedTable.values()) {
+            Set<YearMonth> existing = findPartitionMonths(table);
+            for (YearMonth month : new TreeSet<>(months)) {
+                if (!existing.contains(month)) {
+                    failed += execute(table.createPartitionSql(month));
+                }
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        defaultRows.forEach((table, rows) -> Gauge.builder(DEFAULT_ROWS_GAUGE, rows, AtomicLong::get)
+                .description("Rows with a meal moment in the default partition, found by the last maintenance run")
+                .tags("table", table.tableName)
+                .register(registry));
+    }
+
+    /**
+     * Имя секции таблицы за месяц.
+     *
+     * @param table имя секционированной таблицы
+     * @param month месяц
+     * @return имя секции, например {@code meals_y2024m03}
+     */
+    public static String partitionName(String table, YearMonth month) {
+        return table + month.format(SUFFIX_FORMAT);
+    }
+
+    /**
+     * Месяц секции по ее имени.
+     *
+     * @param table имя секционированной таблицы
+     * @param partitionName имя секции
+     * @return месяц или пустой Optional для секций, не относящихся к месяцу (например, секции по умолчанию)
+     */
+    public static Optional<YearMonth> partitionMonth(String table, String partitionName) {
+        if (!partitionName.startsWith(table + "_y")) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partitionName.substring(table.length()), SUFFIX_FORMAT));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Месяцы от текущего до {@code monthsAhead} месяцев вперед, у которых еще нет секции.
+     *
+     * @return месяцы по возрастанию
+     */
+    public static List<YearMonth> missingMonths(Collection<YearMonth> existing, YearMonth currentMonth, int monthsAhead) {
+        return Stream.iterate(currentMonth, month -> month.plusMonths(1))
+                .limit(monthsAhead + 1L)
+                .filter(month -> !existing.contains(month))
+                .toList();
+    }
+
+    /**
+     * Месяцы секций, предшествующие последним {@code retentionMonths} полным месяцам перед текущим.
+     *
+     * @return месяцы по возрастанию
+     */
+    public static List<YearMonth> expiredMonths(Collection<YearMonth> existing, YearMonth currentMonth, int retentionMonths) {
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        return existing.stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .sorted()
+                .toList();
+    }
+
+    private Set<YearMonth> findPartitionMonths(PartitionedTable table) {
+        List<?> names = entityManager.createNativeQuery("SELECT CAST(c.relname AS text) FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = :table")
+                .setParameter("table", table.tableName)
+                .getResultList();
+        return names.stream()
+                .map(name -> partitionMonth(table.tableName, (String) name))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private long countDatedDefaultRows(PartitionedTable table) {
+        try {
+            Number rows = transaction.execute(status -> (Number) entityManager.createNativeQuery(
+                    "SELECT COUNT(*) FROM " + table.defaultPartitionName()
+                            + " WHERE " + table.partitionKey + " IS NOT NULL").getSingleResult());
+            return rows.longValue();
+        } catch (RuntimeException e) {
+            log.warn("Failed to check default partition {}", table.defaultPartitionName(), e);
+            return 0;
+        }
+    }
+
+    private int execute(String sql) {
+        try {
+            transaction.executeWithoutResult(status -> entityManager.createNativeQuery(sql).executeUpdate());
+            log.info("Partition maintenance: {}", sql);
+            return 0;
+        } catch (RuntimeException e) {
+            log.warn("Partition maintenance statement failed: {}", sql, e);
+            return 1;
+        }
+    }
+
+    /**
+     * Секционированные таблицы в порядке создания секций.
+     */
+    private enum PartitionedTable {
+        MEALS("meals", "eaten_at", ""),
+        // Первичный ключ dishes не может включать ключ секционирования (он null у блюд без приема пищи),
+        // поэтому он объявляется в каждой секции отдельно
+        DISHES("dishes", "meal_eaten_at", " (PRIMARY KEY (id))"),
+        MEAL_FOOD_ITEMS("meal_food_items", "meal_eaten_at", "");
+
+        private final String tableName;
+        private final String partitionKey;
+        private final String partitionConstraints;
+
+        PartitionedTable(String tableName, String partitionKey, String partitionConstraints) {
+            this.tableName = tableName;
+            this.partitionKey = partitionKey;
+            this.partitionConstraints = partitionConstraints;
+        }
+
+        String defaultPartitionName() {
+            return tableName + "_default";
+        }
+
+        String createPartitionSql(YearMonth month) {
+            return "CREATE TABLE IF NOT EXISTS " + partitionName(tableName, month)
+                    + " PARTITION OF " + tableName + partitionConstraints
+                    + " FOR VALUES FROM ('" + month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+                    + "') TO ('" + month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant() + "')";
+        }
+
+        String detachPartitionSql(YearMonth month) {
+            return "ALTER TABLE " + tableName + " DETACH PARTITION " + partitionName(tableName, month);
+        }
+    }
+}
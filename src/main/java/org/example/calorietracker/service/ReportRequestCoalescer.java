@@ -0,0 +1,165 @@
+package org.example.calorietracker.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.calorietracker.config.ReportCoalescingProperties;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные одинаковые запросы отчетов (single-flight).
+ *
+ * <p>Запросы считаются одинаковыми, если совпадают тип отчета, пользователь, параметры
+ * и версия данных пользователя, которую прочитал вызывающий для ETag. Поэтому запрос,
+ * уже получивший новую версию, не присоединяется к ведущему, начавшему формировать отчет
+ * по предыдущей, и не отдает старый отчет с новым ETag.
+ * Первый запрос (ведущий) формирует отчет в своем потоке; запросы, пришедшие, пока он
+ * выполняется, ждут его и получают тот же результат или то же исключение. После завершения
+ * результат не сохраняется: следующий запрос формирует отчет заново, поэтому объединение
+ * не заменяет кэш и не продлевает жизнь устаревших данных.
+ *
+ * <p>Запросы пользователя, данные которого недавно изменились ({@link ReadYourWritesTracker}),
+ * не объединяются: иначе запрос, пришедший сразу после изменения, мог бы получить отчет,
+ * формирование которого началось до него.
+ *
+ * <p>Отчет формируется в одной транзакции только для чтения, а ожидающие запросы транзакцию
+ * не открывают и соединение не занимают. Поэтому методы отчетов не объявляют
+ * {@code @Transactional(readOnly = true)} сами: иначе каждый ожидающий удерживал бы соединение,
+ * пока ведущий формирует отчет.
+ *
+ * <p>Результат один на всех ожидающих, поэтому вызывающие не должны его изменять.
+ *
+ * <p>Публикует метрику {@value #REQUESTS_COUNTER} с тегами {@code report} и {@code role}
+ * ({@code leader} или {@code follower}); доля объединенных запросов равна отношению
+ * {@code follower} к сумме обоих значений. Метрика {@value #IN_FLIGHT_GAUGE} показывает
+ * количество отчетов, формируемых в данный момент.
+ */
+@Component
+public class ReportRequestCoalescer implements MeterBinder {
+    /**
+     * Количество запросов отчетов, прошедших через объединение.
+     */
+    public static final String REQUESTS_COUNTER = "calorietracker.report.coalescing.requests";
+
+    /**
+     * Количество отчетов, формируемых в данный момент ведущими запросами.
+     */
+    public static final String IN_FLIGHT_GAUGE = "calorietracker.report.coalescing.in.flight";
+
+    /**
+     * Тип отчета, входящий в ключ объединения и в теги метрик.
+     */
+    public enum ReportType {
+        DAILY, HISTORY, MACROS, WEEKLY, MONTHLY, ROLLING
+    }
+
+    private final boolean enabled;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<ReportType, LongAdder> leaders = new EnumMap<>(ReportType.class);
+    private final Map<ReportType, LongAdder> followers = new EnumMap<>(ReportType.class);
+
+    public ReportRequestCoalescer(ReportCoalescingProperties properties, ReadYourWritesTracker readYourWritesTracker,
+                                  PlatformTransactionManager transactionManager) {
+        this.enabled = properties.isEnabled();
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        for (ReportType type : ReportType.values()) {
+            leaders.put(type, new LongAdder());
+            followers.put(type, new LongAdder());
+        }
+    }
+
+    /**
+     * Формирует отчет или присоединяется к уже формируемому такому же отчету.
+     * Исключение формирования пробрасывается всем ожидающим без обертки.
+     *
+     * @param type тип отчета
+     * @param userId идентификатор пользователя
+     * @param dataVersion версия данных пользователя, отдаваемая вместе с отчетом в ETag,
+     *                    или null, если отчет отдается без ETag
+     * @param params параметры отчета (должны корректно реализовывать equals и hashCode)
+     * @param report формирование отчета (выполняется в транзакции только для чтения)
+     * @return отчет
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(ReportType type, Long userId, Long dataVersion, List<?> params, Supplier<T> report) {
+        if (!enabled || readYourWritesTracker.isRecentlyWritten(userId)) {
+            return readOnlyTransaction.execute(status -> report.get());
+        }
+
+        Key key = new Key(type, userId, dataVersion, params);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            followers.get(type).increment();
+            return (T) await(existing);
+        }
+
+        leaders.get(type).increment();
+        T result;
+        try {
+            result = readOnlyTransaction.execute(status -> report.get());
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+        // Ключ снимается до публикации результата: запросы, пришедшие после завершения,
+        // формируют отчет заново, а не получают уже готовый
+        inFlight.remove(key, own);
+        own.complete(result);
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ReportType type : ReportType.values()) {
+            String report = type.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder(REQUESTS_COUNTER, leaders.get(type), LongAdder::sum)
+                    .description("Report requests that computed the report themselves or joined an identical one")
+                    .tags("report", report, "role", "leader")
+                    .register(registry);
+            FunctionCounter.builder(REQUESTS_COUNTER, followers.get(type), LongAdder::sum)
+                    .description("Report requests that computed the report themselves or joined an identical one")
+                    .tags("report", report, "role", "follower")
+                    .register(registry);
+        }
+        Gauge.builder(IN_FLIGHT_GAUGE, inFlight, Map::size)
+                .description("Reports currently being computed by leading requests")
+                .register(registry);
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(ReportType type, Long userId, Long dataVersion, List<?> params) {
+    }
+}
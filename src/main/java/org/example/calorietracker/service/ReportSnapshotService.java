@@ -0,0 +1,316 @@
+package org.example.calorietracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.config.ReportSnapshotProperties;
+import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.dto.PeriodReport;
+import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.mapper.MealMapper;
+import org.example.calorietracker.model.DailyNutritionSummaryId;
+import org.example.calorietracker.model.DailyReportSnapshot;
+import org.example.calorietracker.model.RollingWindowSnapshot;
+import org.example.calorietracker.model.RollingWindowSnapshotId;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.DailyNutritionSummaryRepository;
+import org.example.calorietracker.repository.DailyReportSnapshotRepository;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.repository.RollingWindowSnapshotRepository;
+import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис неизменяемых снимков отчетов за завершившиеся дни.
+ *
+ * <p>Ночная задача сохраняет для активных пользователей дневной отчет за вчерашний день
+ * и сводки за скользящие окна, которые заканчиваются этим днем
+ * ({@link ReportSnapshotProperties#getWindows()}). Отчеты за прошлые дни затем читаются
+ * из снимков по первичному ключу, а не собираются из {@code meals} и {@code dishes}.
+ *
+ * <p>Снимки не обновляются. Изменения приемов пищи и блюд задним числом удаляют снимки
+ * затронутых дней ({@link #invalidate}), и отчеты за них снова формируются из исходных таблиц.
+ * Снимки создаются только для дней, которые закончились в часовом поясе пользователя.
+ * Поэтому изменения за день, который еще не закончился ни в одном часовом поясе,
+ * не требуют обращений к таблицам снимков.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportSnapshotService {
+    private static final TypeReference<List<MealDTO>> MEALS_TYPE = new TypeReference<>() {
+    };
+
+    private final DailyReportSnapshotRepository dailyReportSnapshotRepository;
+    private final RollingWindowSnapshotRepository rollingWindowSnapshotRepository;
+    private final MealRepository mealRepository;
+    private final DailyNutritionSummaryRepository summaryRepository;
+    private final UserRepository userRepository;
+    private final MealMapper mealMapper;
+    private final ObjectMapper objectMapper;
+    private final ReportSnapshotProperties properties;
+    private final EntityManager entityManager;
+
+    /**
+     * Сохраняет снимки пользователя за завершившийся день: дневной отчет и сводки
+     * скользящих окон, которые заканчиваются этим днем. Уже существующие снимки не пересоздаются,
+     * поэтому повторный запуск безопасен.
+     *
+     * <p>Строка пользователя блокируется до чтения приемов пищи и сводок. Изменение задним числом,
+     * начатое раньше, успевает зафиксироваться до чтения, а начатое позже ждет сохранения снимков
+     * и затем удаляет их ({@link #invalidate}). Без блокировки снимок мог бы сохраниться по данным
+     * до изменения уже после того, как изменение удалило снимки этого дня.
+     *
+     * @param userId идентификатор пользователя
+     * @param date день пользователя
+     * @return false, если день в часовом поясе пользователя еще не закончился и снимки не созданы
+     * @throws ResourceNotFoundException если пользователь не найден
+     */
+    @Transactional
+    public boolean createSnapshots(Long userId, LocalDate date) {
+        User user = userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        ZoneId zone = user.getZoneId();
+        if (!date.isBefore(LocalDate.now(zone))) {
+            return false;
+        }
+        LocalDateTime computedAt = LocalDateTime.now();
+
+        DailyNutritionSummaryId reportId = new DailyNutritionSummaryId(userId, date);
+        if (!dailyReportSnapshotRepository.existsById(reportId)) {
+            List<MealDTO> meals = mealRepository.findByUserIdAndEatenAtRange(userId,
+                            date.atStartOfDay(zone).toInstant(), date.plusDays(1).atStartOfDay(zone).toInstant())
+                    .stream()
+                    .map(mealMapper::map)
+                    .toList();
+            double totalCalories = summaryRepository.findCaloriesByUserIdAndDate(userId, date).orElse(0.0);
+            dailyReportSnapshotRepository.save(
+                    new DailyReportSnapshot(reportId, totalCalories, writeMeals(meals), computedAt));
+        }
+
+        List<Integer> windows = properties.getWindows().stream()
+                .filter(days -> !rollingWindowSnapshotRepository.existsById(new RollingWindowSnapshotId(userId, date, days)))
+                .toList();
+        if (windows.isEmpty()) {
+            return true;
+        }
+        // Все окна считаются по одному чтению дневных сводок за самое длинное из них
+        int longest = Collections.max(windows);
+        List<DailyNutrition> days = summaryRepository.findByUserIdAndDateRange(
+                userId, date.minusDays(longest - 1), date.plusDays(1));
+        double calorieLimit = user.getDailyCalorieIntake();
+        for (int windowDays : windows) {
+            PeriodReport report = rollingWindow(date.minusDays(windowDays - 1), date, days, calorieLimit);
+            rollingWindowSnapshotRepository.save(new RollingWindowSnapshot(
+                    new RollingWindowSnapshotId(userId, date, windowDays),
+                    report.getTotalCalories(),
+                    report.getTotalProteins(),
+                    report.getTotalFats(),
+                    report.getTotalCarbohydrates(),
+                    report.getDaysLogged(),
+                    report.getDaysOverLimit(),
+                    report.getLongestStreakWithinLimit(),
+                    computedAt));
+        }
+        return true;
+    }
+
+    /**
+     * Находит снимок дневного отчета.
+     *
+     * @param userId идентификатор пользователя
+     * @param date дата отчета
+     * @return отчет из снимка или пустой результат, если снимка нет
+     */
+    @Transactional(readOnly = true)
+    public Optional<DailyReport> findDailyReport(Long userId, LocalDate date) {
+        if (!date.isBefore(latestToday())) {
+            return Optional.empty();
+        }
+        return dailyReportSnapshotRepository.findById(new DailyNutritionSummaryId(userId, date))
+                .map(this::toDailyReport);
+    }
+
+    /**
+     * Находит снимки дневных отчетов за период одним запросом.
+     *
+     * @param userId идентификатор пользователя
+     * @param startDate начальная дата периода (включительно)
+     * @param endDate конечная дата периода (включительно)
+     * @return отчеты из снимков по дате; дни без снимков отсутствуют
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, DailyReport> findDailyReports(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (!startDate.isBefore(latestToday())) {
+            return Map.of();
+        }
+        return dailyReportSnapshotRepository.findByUserIdAndDateRange(userId, startDate, endDate.plusDays(1))
+                .stream()
+                .collect(Collectors.toMap(snapshot -> snapshot.getId().getDate(), this::toDailyReport));
+    }
+
+    /**
+     * Находит снимок сводки за скользящее окно.
+     *
+     * @param userId идентификатор пользователя
+     * @param endDate последний день окна (включительно)
+     * @param days длина окна в днях
+     * @return сводка из снимка или пустой результат, если снимка нет
+     */
+    @Transactional(readOnly = true)
+    public Optional<PeriodReport> findRollingWindow(Long userId, LocalDate endDate, int days) {
+        if (!properties.getWindows().contains(days) || !endDate.isBefore(latestToday())) {
+            return Optional.empty();
+        }
+        return rollingWindowSnapshotRepository.findById(new RollingWindowSnapshotId(userId, endDate, days))
+                .map(snapshot -> toPeriodReport(endDate.minusDays(days - 1), endDate,
+                        snapshot.getCalories(), snapshot.getProteins(), snapshot.getFats(),
+                        snapshot.getCarbohydrates(), snapshot.getDaysLogged(), snapshot.getDaysOverLimit(),
+                        snapshot.getLongestStreakWithinLimit()));
+    }
+
+    /**
+     * Удаляет снимки, на которые влияют изменения данных пользователя за указанные дни:
+     * дневные отчеты этих дней и сводки окон, в которые они входят.
+     *
+     * @param userId идентификатор пользователя
+     * @param dates дни, приемы пищи или блюда которых изменились (null пропускаются)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidate(Long userId, Collection<LocalDate> dates) {
+        LocalDate today = latestToday();
+        List<LocalDate> pastDates = dates.stream()
+                .filter(date -> date != null && date.isBefore(today))
+                .distinct()
+                .toList();
+        if (pastDates.isEmpty()) {
+            return;
+        }
+        dailyReportSnapshotRepository.deleteByUserIdAndDates(userId, pastDates);
+        // Массовое удаление не меняет контекст персистентности: снимки, уже загруженные или
+        // созданные в этой транзакции, отсоединяются, иначе чтение по ключу вернет удаленный снимок.
+        // Контекст целиком не очищается, потому что вызывающий код продолжает менять приемы пищи и блюда
+        pastDates.forEach(date -> entityManager.detach(entityManager.getReference(
+                DailyReportSnapshot.class, new DailyNutritionSummaryId(userId, date))));
+        int longest = Collections.max(properties.getWindows());
+        rollingWindowSnapshotRepository.deleteByUserIdAndEndDateRange(
+                userId, Collections.min(pastDates), Collections.max(pastDates).plusDays(longest));
+    }
+
+    /**
+     * Удаляет все снимки пользователя. Используется, когда меняются границы всех его дней,
+     * например при смене часового пояса.
+     *
+     * @param userId идентификатор пользователя
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidateAll(Long userId) {
+        dailyReportSnapshotRepository.deleteByUserId(userId);
+        rollingWindowSnapshotRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Удаляет снимки скользящих окон пользователя. Используется при смене его дневной нормы
+     * калорий: дни с превышением нормы и серии дней в пределах нормы в этих снимках
+     * посчитаны по прежней норме. Дневные отчеты от нормы не зависят и сохраняются.
+     *
+     * @param userId идентификатор пользователя
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidateRollingWindows(Long userId) {
+        rollingWindowSnapshotRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Считает сводку за окно по дневным сводкам. Учитываются только дни с записями
+     * (калорийность больше нуля), как и в недельных и месячных отчетах.
+     *
+     * @param startDate первый день окна
+     * @param endDate последний день окна
+     * @param days дневные сводки в хронологическом порядке (могут выходить за окно)
+     * @param calorieLimit дневная норма калорий
+     * @return сводка за окно
+     */
+    public static PeriodReport rollingWindow(LocalDate startDate, LocalDate endDate, List<DailyNutrition> days,
+                                             double calorieLimit) {
+        double[] totals = new double[4];
+        int daysLogged = 0;
+        int daysOverLimit = 0;
+        int longestStreak = 0;
+        int streak = 0;
+        LocalDate previous = null;
+        for (DailyNutrition day : days) {
+            if (day.getDate().isBefore(startDate) || day.getDate().isAfter(endDate) || day.getTotalCalories() <= 0) {
+                continue;
+            }
+            totals[0] += day.getTotalCalories();
+            totals[1] += day.getTotalProteins();
+            totals[2] += day.getTotalFats();
+            totals[3] += day.getTotalCarbohydrates();
+            daysLogged++;
+            if (day.getTotalCalories() > calorieLimit) {
+                daysOverLimit++;
+                streak = 0;
+            } else {
+                streak = previous != null && previous.plusDays(1).equals(day.getDate()) ? streak + 1 : 1;
+                longestStreak = Math.max(longestStreak, streak);
+            }
+            previous = day.getDate();
+        }
+        return toPeriodReport(startDate, endDate, totals[0], totals[1], totals[2], totals[3],
+                daysLogged, daysOverLimit, longestStreak);
+    }
+
+    /**
+     * Текущая дата в самом восточном часовом поясе. Дни начиная с нее еще не закончились
+     * ни у одного пользователя, поэтому снимков за них нет; для такой проверки
+     * часовой пояс пользователя не нужен.
+     */
+    private static LocalDate latestToday() {
+        return LocalDate.now(ZoneOffset.MAX);
+    }
+
+    private static PeriodReport toPeriodReport(LocalDate startDate, LocalDate endDate,
+                                               double calories, double proteins, double fats, double carbohydrates,
+                                               int daysLogged, int daysOverLimit, int longestStreak) {
+        int divisor = Math.max(daysLogged, 1);
+        return new PeriodReport(startDate, endDate, calories, proteins, fats, carbohydrates,
+                calories / divisor, proteins / divisor, fats / divisor, carbohydrates / divisor,
+                daysLogged, daysOverLimit, longestStreak);
+    }
+
+    private DailyReport toDailyReport(DailyReportSnapshot snapshot) {
+        try {
+            return new DailyReport(snapshot.getId().getDate(),
+                    objectMapper.readValue(snapshot.getMeals(), MEALS_TYPE),
+                    snapshot.getTotalCalories());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String writeMeals(List<MealDTO> meals) {
+        try {
+            return objectMapper.writeValueAsString(meals);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
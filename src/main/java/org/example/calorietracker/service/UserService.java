@@ -1,6 +1,11 @@
 package org.example.calorietracker.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.calorietracker.config.CacheConfig;
+import org.example.calorietracker.config.MetricsConfig;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.CursorPage;
 import org.example.calorietracker.dto.user.UserCreateDTO;
 import org.example.calorietracker.dto.user.UserDTO;
 import org.example.calorietracker.dto.user.UserUpdateDTO;
@@ -10,29 +15,51 @@ import org.example.calorietracker.model.GenderType;
 import org.example.calorietracker.model.GoalType;
 import org.example.calorietracker.model.User;
 import org.example.calorietracker.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Сервис для работы с пользователями.
  * Обеспечивает управление пользователями и расчет их дневной нормы калорий.
+ *
+ * <p>Часовой пояс пользователя определяет, к какому дню относятся его приемы пищи.
+ * При смене пояса дневные сводки пользователя пересчитываются, а снимки отчетов удаляются.
  */
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final KeysetPagination keysetPagination;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final DailyNutritionSummaryService summaryService;
+    private final ReportSnapshotService reportSnapshotService;
 
     /**
-     * Получает список всех пользователей.
+     * Получает страницу пользователей, упорядоченных по идентификатору.
      *
-     * @return список DTO всех пользователей
+     * @param cursor курсор из предыдущего ответа (null для первой страницы)
+     * @param limit размер страницы (null для размера по умолчанию)
+     * @return страница DTO пользователей с курсором следующей страницы
+     * @throws IllegalArgumentException если курсор или размер страницы некорректны
      */
-    public List<UserDTO> getAll() {
-        return userRepository.findAll().stream()
-                .map(userMapper::map)
-                .toList();
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> getAll(String cursor, Integer limit) {
+        Limit pageLimit = keysetPagination.limit(limit);
+        List<Long> ids = userRepository.findIdsAfter(
+                keysetPagination.afterId(cursor), keysetPagination.probe(pageLimit));
+        return keysetPagination.pageByIds(ids, pageLimit,
+                userRepository::findByIdInOrderByIdAsc, userMapper::map);
     }
 
     /**
@@ -42,6 +69,8 @@ public class UserService {
      * @return DTO пользователя
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public UserDTO getById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -54,9 +83,14 @@ public class UserService {
      *
      * @param createDTO DTO с данными для создания пользователя
      * @return DTO созданного пользователя
+     * @throws IllegalArgumentException если часовой пояс неизвестен
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public UserDTO create(UserCreateDTO createDTO) {
         User user = userMapper.map(createDTO);
+        user.setTimeZone(createDTO.getTimeZone() == null
+                ? User.DEFAULT_TIME_ZONE
+                : normalizeTimeZone(createDTO.getTimeZone()));
 
         double bmr = calculateBMR(user);
         double dailyCalories = calculateDailyCalorieIntake(bmr, user.getGoal());
@@ -67,17 +101,36 @@ public class UserService {
 
     /**
      * Обновляет данные пользователя.
+     * При смене часового пояса дневные сводки пользователя пересчитываются по дням нового пояса,
+     * а снимки его отчетов удаляются в той же транзакции. При смене дневной нормы калорий
+     * удаляются снимки скользящих окон: дни с превышением нормы и серии в них считались по старой норме.
+     *
+     * <p>Строка пользователя блокируется сразу, поэтому ночная задача не сохранит снимки
+     * по старой норме после их удаления ({@link ReportSnapshotService#createSnapshots}).
      *
      * @param updateDTO DTO с обновленными данными
      * @param id идентификатор пользователя
      * @return DTO обновленного пользователя
      * @throws ResourceNotFoundException если пользователь не найден
+     * @throws IllegalArgumentException если часовой пояс неизвестен
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DAILY_CALORIE_INTAKE_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_ZONE_CACHE, key = "#id")
+    })
+    @Transactional
     public UserDTO update(UserUpdateDTO updateDTO, Long id) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        String previousTimeZone = user.getTimeZone();
+        Double previousCalorieIntake = user.getDailyCalorieIntake();
+        String timeZone = updateDTO.getTimeZone() == null
+                ? previousTimeZone
+                : normalizeTimeZone(updateDTO.getTimeZone());
 
         userMapper.update(updateDTO, user);
+        user.setTimeZone(timeZone);
 
         // Пересчет калорий при изменении параметров
         if (needsRecalculation(updateDTO)) {
@@ -86,7 +139,16 @@ public class UserService {
             user.setDailyCalorieIntake(dailyCalories);
         }
 
-        return userMapper.map(userRepository.save(user));
+        UserDTO updated = userMapper.map(userRepository.save(user));
+        // Дни прошлых приемов пищи определяются новым поясом
+        if (!timeZone.equals(previousTimeZone)) {
+            summaryService.rebuildForUser(id);
+            reportSnapshotService.invalidateAll(id);
+        } else if (!Objects.equals(user.getDailyCalorieIntake(), previousCalorieIntake)) {
+            reportSnapshotService.invalidateRollingWindows(id);
+        }
+        readYourWritesTracker.markWritten(id);
+        return updated;
     }
 
     /**
@@ -95,6 +157,11 @@ public class UserService {
      * @param id идентификатор пользователя
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DAILY_CALORIE_INTAKE_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_ZONE_CACHE, key = "#id")
+    })
     public void delete(Long id) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found");
@@ -104,17 +171,36 @@ public class UserService {
 
     /**
      * Получает дневную норму калорий пользователя.
+     * Результат кешируется: норма меняется только в {@link #update}, который сбрасывает запись кеша
+     * после фиксации транзакции.
      *
      * @param userId идентификатор пользователя
      * @return дневная норма калорий
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @Cacheable(cacheNames = CacheConfig.DAILY_CALORIE_INTAKE_CACHE, key = "#userId")
     public double getDailyCalorieIntake(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"))
                 .getDailyCalorieIntake();
     }
 
+    /**
+     * Получает часовой пояс пользователя, по которому его дни переводятся в диапазоны моментов UTC.
+     * Результат кешируется: пояс меняется только в {@link #update}, который сбрасывает запись кеша
+     * после фиксации транзакции.
+     *
+     * @param userId идентификатор пользователя
+     * @return часовой пояс
+     * @throws ResourceNotFoundException если пользователь не найден
+     */
+    @Cacheable(cacheNames = CacheConfig.USER_ZONE_CACHE, key = "#userId")
+    public ZoneId getZoneId(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"))
+                .getZoneId();
+    }
+
     /**
      * Рассчитывает базовый метаболизм (BMR) по формуле Миффлина-Сан Жеора.
      *
@@ -158,6 +244,17 @@ public class UserService {
                 updateDTO.getGoal() != null;
     }
 
+    /**
+     * Проверяет идентификатор часового пояса и приводит его к каноническому виду.
+     */
+    private static String normalizeTimeZone(String timeZone) {
+        try {
+            return ZoneId.of(timeZone).getId();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + timeZone);
+        }
+    }
+
     /**
      * Валидирует параметры пользователя для расчета BMR.
      */
@@ -0,0 +1,64 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.datasource.ConcurrencyLimitingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimitingDataSourceTest {
+    @Mock
+    private DataSource targetDataSource;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitingDataSource("test", targetDataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Connections beyond the limit time out until one is closed")
+    void getConnection_ShouldWaitForClosedConnection() throws SQLException {
+        Connection target = mock(Connection.class);
+        given(targetDataSource.getConnection()).willReturn(target);
+
+        Connection first = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        Connection second = dataSource.getConnection();
+
+        assertThat(second).isNotNull();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("A failed connection attempt returns its permit")
+    void getConnection_ShouldReleasePermitOnFailure() throws SQLException {
+        given(targetDataSource.getConnection())
+                .willThrow(new SQLException("Connection refused"))
+                .willReturn(mock(Connection.class));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("Connection refused");
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.FoodItem;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.MealFoodItem;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.DataVersionService;
+import org.example.calorietracker.service.MealArchiveService;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DailyNutritionSummaryService.class, DataVersionService.class})
+public class DailyNutritionSummaryServiceTest {
+    private final LocalDate date = LocalDate.of(2024, 3, 10);
+    private User user;
+    private Meal meal;
+
+    @Autowired
+    private DailyNutritionSummaryService summaryService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @MockBean
+    private ReportSnapshotService reportSnapshotService;
+
+    @MockBean
+    private MealArchiveService mealArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test User");
+        user.setEmail("summary@example.com");
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        entityManager.persist(user);
+
+        meal = new Meal();
+        meal.setUser(user);
+        meal.setEatenAt(date.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        entityManager.persist(meal);
+    }
+
+    @Test
+    @DisplayName("Adding and removing dishes keeps per-day sums")
+    void addAndRemoveDishes_ShouldMaintainDailySums() {
+        Dish oatmeal = persistDish(350, 12, 6, 60);
+        Dish eggs = persistDish(150, 13, 10, 1);
+
+        summaryService.addDishes(List.of(oatmeal));
+        summaryService.addDishes(List.of(eggs));
+        summaryService.removeDishes(List.of(oatmeal));
+
+        assertThat(summaryService.getTotalCalories(user.getId(), date)).isEqualTo(150.0);
+        assertThat(summaryService.getTotalCalories(user.getId(), date.plusDays(1))).isZero();
+
+        DailyNutrition nutrition = summaryService
+                .getDailyNutrition(user.getId(), date, date.plusDays(1)).get(0);
+        assertThat(nutrition.getTotalProteins()).isEqualTo(13.0);
+        assertThat(nutrition.getTotalFats()).isEqualTo(10.0);
+        assertThat(nutrition.getTotalCarbohydrates()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Rebuild repairs drift from the meals and dishes tables")
+    void rebuildForUser_ShouldRepairDrift() {
+        summaryService.addDishes(List.of(persistDish(500, 20, 20, 50)));
+        persistDish(250, 10, 5, 30);
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE daily_nutrition_summary SET calories = 1 WHERE user_id = ?", user.getId());
+
+        summaryService.rebuildForUser(user.getId());
+        entityManager.flush();
+
+        assertThat(summaryService.getTotalCalories(user.getId(), date)).isEqualTo(750.0);
+    }
+
+    @Test
+    @DisplayName("Catalog items are summed as catalog values times portion, incrementally and on rebuild")
+    void addFoodItems_ShouldSumPortionsOfCatalogValues() {
+        summaryService.addDishes(List.of(persistDish(500, 20, 20, 50)));
+        summaryService.addFoodItems(List.of(persistFoodItem(1.5)));
+        entityManager.flush();
+
+        assertThat(summaryService.getTotalCalories(user.getId(), date)).isEqualTo(800.0);
+
+        jdbcTemplate.update("UPDATE daily_nutrition_summary SET calories = 1 WHERE user_id = ?", user.getId());
+        summaryService.rebuildForUser(user.getId());
+        entityManager.flush();
+
+        assertThat(summaryService.getTotalCalories(user.getId(), date)).isEqualTo(800.0);
+        DailyNutrition nutrition = summaryService
+                .getDailyNutrition(user.getId(), date, date.plusDays(1)).get(0);
+        assertThat(nutrition.getTotalProteins()).isEqualTo(26.0);
+    }
+
+    @Test
+    @DisplayName("Dishes are summed into the meal's day in the user's time zone, incrementally and on rebuild")
+    void addDishes_ShouldBucketByUsersTimeZone() {
+        user.setTimeZone("Asia/Tokyo");
+        // 20:00 UTC 9 марта — это 05:00 10 марта по Токио
+        meal.setEatenAt(Instant.parse("2024-03-09T20:00:00Z"));
+
+        summaryService.addDishes(List.of(persistDish(400, 10, 10, 10)));
+
+        assertThat(summaryService.getTotalCalories(user.getId(), date)).isEqualTo(400.0);
+        assertThat(summaryService.getTotalCalories(user.getId(), date.minusDays(1))).isZero();
+
+        summaryService.rebuildForUser(user.getId());
+        entityManager.flush();
+
+        assertThat(summaryService.getTotalCalories(user.getId(), date)).isEqualTo(400.0);
+        assertThat(summaryService.getTotalCalories(user.getId(), date.minusDays(1))).isZero();
+    }
+
+    @Test
+    @DisplayName("Summary changes bump the user's data version and saving the user keeps it")
+    void addDishes_ShouldBumpDataVersion() {
+        summaryService.addDishes(List.of(persistDish(500, 20, 20, 50)));
+        summaryService.removeDishes(List.of(persistDish(250, 10, 5, 30)));
+        user.setName("Renamed User");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(entityManager.find(User.class, user.getId()).getDataVersion()).isEqualTo(2);
+    }
+
+    private MealFoodItem persistFoodItem(double portion) {
+        FoodItem rice = new FoodItem();
+        rice.setName("Rice");
+        rice.setCalories(200);
+        rice.setProteins(4);
+        rice.setFats(1);
+        rice.setCarbohydrates(45);
+        entityManager.persist(rice);
+
+        MealFoodItem foodItem = new MealFoodItem();
+        foodItem.setMeal(meal);
+        foodItem.setFoodItem(rice);
+        foodItem.setPortion(portion);
+        return entityManager.persist(foodItem);
+    }
+
+    private Dish persistDish(double calories, double proteins, double fats, double carbohydrates) {
+        Dish dish = new Dish();
+        dish.setName("Dish");
+        dish.setCalories(calories);
+        dish.setProteins(proteins);
+        dish.setFats(fats);
+        dish.setCarbohydrates(carbohydrates);
+        dish.setMeal(meal);
+        return entityManager.persist(dish);
+    }
+}
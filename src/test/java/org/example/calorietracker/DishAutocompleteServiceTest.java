@@ -0,0 +1,103 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.dto.dish.DishSuggestionDTO;
+import org.example.calorietracker.repository.DishRepository;
+import org.example.calorietracker.repository.projection.DishNameUsage;
+import org.example.calorietracker.search.DishNameIndex;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class DishAutocompleteServiceTest {
+    private final DishRepository dishRepository = mock(DishRepository.class);
+    private DishAutocompleteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DishAutocompleteService(dishRepository, new DishAutocompleteProperties());
+        given(dishRepository.findNameUsage()).willReturn(List.of(
+                usage("Oatmeal", 40),
+                usage("oatmeal ", 2),
+                usage("Oat milk", 10),
+                usage("Orange", 25),
+                usage("Eggs", 90)));
+        service.refresh();
+    }
+
+    @Test
+    @DisplayName("Index returns prefix matches ranked by usage with names merged after normalization")
+    void index_ShouldRankPrefixMatchesByUsage() {
+        DishNameIndex index = DishNameIndex.build(Map.of(
+                "Oatmeal", 40L, "oatmeal ", 2L, "Oat  milk", 10L, "Orange", 25L, "Eggs", 90L));
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.suggest("o", 10)).extracting(DishNameIndex.Entry::name, DishNameIndex.Entry::usageCount)
+                .containsExactly(
+                        tuple("Oatmeal", 42L),
+                        tuple("Orange", 25L),
+                        tuple("Oat milk", 10L));
+        assertThat(index.suggest("oat", 1)).extracting(DishNameIndex.Entry::name).containsExactly("Oatmeal");
+        assertThat(index.suggest("x", 10)).isEmpty();
+        assertThat(index.find("oat milk")).isNotNull();
+        assertThat(index.find("oat")).isNull();
+    }
+
+    @Test
+    @DisplayName("Suggestions come from the rebuilt index")
+    void suggest_ShouldUseRefreshedIndex() {
+        assertThat(service.suggest(" OA ", null)).extracting(DishSuggestionDTO::getName)
+                .containsExactly("Oatmeal", "Oat milk");
+        assertThat(service.suggest("o", 2)).extracting(DishSuggestionDTO::getName)
+                .containsExactly("Oatmeal", "Orange");
+    }
+
+    @Test
+    @DisplayName("Recorded dishes affect ranking before the next rebuild")
+    void recordUsage_ShouldUpdateRankingImmediately() {
+        for (int i = 0; i < 20; i++) {
+            service.recordUsage(List.of("Oat milk"));
+        }
+        service.recordUsage(List.of("Oat cookies", "Oat cookies"));
+
+        assertThat(service.suggest("oat", 10))
+                .extracting(DishSuggestionDTO::getName, DishSuggestionDTO::getUsageCount)
+                .containsExactly(
+                        tuple("Oatmeal", 42L),
+                        tuple("Oat milk", 30L),
+                        tuple("Oat cookies", 2L));
+    }
+
+    @Test
+    @DisplayName("Blank queries and non-positive limits are rejected")
+    void suggest_WhenQueryInvalid_ShouldThrow() {
+        assertThatThrownBy(() -> service.suggest("  ", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.suggest("oat", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static DishNameUsage usage(String name, long count) {
+        return new DishNameUsage() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getUsageCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -2,11 +2,14 @@ package org.example.calorietracker;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.calorietracker.controller.DishController;
+import org.example.calorietracker.dto.CursorPage;
 import org.example.calorietracker.dto.dish.DishCreateDTO;
 import org.example.calorietracker.dto.dish.DishDTO;
+import org.example.calorietracker.dto.dish.DishSuggestionDTO;
 import org.example.calorietracker.dto.dish.DishUpdateDTO;
 import org.example.calorietracker.exception.ResourceNotFoundException;
 import org.example.calorietracker.handler.GlobalExceptionHandler;
+import org.example.calorietracker.service.DishAutocompleteService;
 import org.example.calorietracker.service.DishService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -53,16 +56,19 @@ public class DishControllerTest {
     @MockBean
     private DishService dishService;
 
+    @MockBean
+    private DishAutocompleteService dishAutocompleteService;
+
     @BeforeEach
     void setup() {
         this.mockMvc = MockMvcBuilders
-                .standaloneSetup(new DishController(dishService))
+                .standaloneSetup(new DishController(dishService, dishAutocompleteService))
                 .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
 
-        sampleDish = new DishDTO(1L, "Pasta", 350.0, 12.5, 5.2, 60.0, 1L);
-        sampleCreateDTO = new DishCreateDTO("Pasta", 350.0, 12.5, 5.2, 60.0, 1L);
+        sampleDish = new DishDTO(1L, "Pasta", 350.0, 12.5, 5.2, 60.0, 1L, null, null);
+        sampleCreateDTO = new DishCreateDTO("Pasta", 350.0, 12.5, 5.2, 60.0, 1L, null, null);
         sampleUpdateDTO = new DishUpdateDTO("Updated Pasta", 400.0, 15.0, 6.0, 65.0, 1L);
     }
 
@@ -93,13 +99,30 @@ public class DishControllerTest {
     @Test
     void getAllDishesTest() throws Exception {
         List<DishDTO> dishes = Collections.singletonList(sampleDish);
-        given(dishService.getAll()).willReturn(dishes);
+        given(dishService.getAll(null, 1)).willReturn(new CursorPage<>(dishes, "next-cursor"));
 
         mockMvc.perform(get(BASE_URL)
+                        .param("limit", "1")
                         .contentType(JSON_CONTENT_TYPE))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("Pasta"));
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].name").value("Pasta"))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @DisplayName("GET /dishes/suggest return dish name suggestions and status 200 OK")
+    @Test
+    void suggestDishNamesTest() throws Exception {
+        given(dishAutocompleteService.suggest("pa", 5))
+                .willReturn(List.of(new DishSuggestionDTO("Pasta", 12), new DishSuggestionDTO("Pancakes", 3)));
+
+        mockMvc.perform(get(BASE_URL + "/suggest")
+                        .param("q", "pa")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Pasta"))
+                .andExpect(jsonPath("$[0].usageCount").value(12))
+                .andExpect(jsonPath("$[1].name").value("Pancakes"));
     }
 
     @DisplayName("POST /dishes create dish and returns distDTO and status 201 CREATED")
@@ -118,7 +141,7 @@ public class DishControllerTest {
     @DisplayName("POST /dishes create dish with invalid data and return status 400 BAD_REQUEST")
     @Test
     void createDishWithInvalidDataTest() throws Exception {
-        DishCreateDTO invalidDish = new DishCreateDTO("", -100.0, -1.0, -1.0, -1.0, 1L);
+        DishCreateDTO invalidDish = new DishCreateDTO("", -100.0, -1.0, -1.0, -1.0, 1L, null, null);
 
         mockMvc.perform(post(BASE_URL)
                         .contentType(JSON_CONTENT_TYPE)
@@ -129,7 +152,7 @@ public class DishControllerTest {
     @DisplayName("POST /dishes/{id} update dish and return updated dish and status 200 Ok")
     @Test
     void updateDishTest() throws Exception {
-        DishDTO updatedDish = new DishDTO(1L, "Updated Pasta", 400.0, 15.0, 6.0, 65.0, 1L);
+        DishDTO updatedDish = new DishDTO(1L, "Updated Pasta", 400.0, 15.0, 6.0, 65.0, 1L, null, null);
         given(dishService.update(any(DishUpdateDTO.class), anyLong()))
                 .willReturn(updatedDish);
 
@@ -0,0 +1,90 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.model.FoodItem;
+import org.example.calorietracker.repository.FoodItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class FoodItemRepositoryTest {
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        persistFoodItem("  Oatmeal   100g ");
+        persistFoodItem("Oat milk");
+        persistFoodItem("Boiled oats");
+        persistFoodItem("Oat_bar");
+        persistFoodItem("Eggs");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Search name is normalized before insert")
+    void persist_ShouldNormalizeSearchName() {
+        List<FoodItem> items = foodItemRepository.findBySearchNamePrefix("oatmeal%", Limit.of(10));
+
+        assertThat(items).extracting(FoodItem::getSearchName).containsExactly("oatmeal 100g");
+        assertThat(items).extracting(FoodItem::getName).containsExactly("  Oatmeal   100g ");
+    }
+
+    @Test
+    @DisplayName("Prefix search matches only names starting with the prefix in alphabetical order")
+    void findBySearchNamePrefix_ShouldReturnPrefixMatchesInOrder() {
+        List<FoodItem> items = foodItemRepository.findBySearchNamePrefix("oat%", Limit.of(10));
+
+        assertThat(items).extracting(FoodItem::getSearchName)
+                .containsExactly("oat milk", "oat_bar", "oatmeal 100g");
+        assertThat(foodItemRepository.findBySearchNamePrefix("oat%", Limit.of(2))).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Escaped LIKE wildcards in the prefix are matched literally")
+    void findBySearchNamePrefix_ShouldMatchEscapedWildcardLiterally() {
+        List<FoodItem> items = foodItemRepository.findBySearchNamePrefix("oat\\_%", Limit.of(10));
+
+        assertThat(items).extracting(FoodItem::getSearchName).containsExactly("oat_bar");
+    }
+
+    @Test
+    @DisplayName("EXPLAIN of the prefix search shows an index lookup instead of a full scan")
+    void findBySearchNamePrefix_ShouldUseIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM food_items WHERE search_name LIKE 'oat%' ORDER BY search_name",
+                String.class).toLowerCase();
+
+        assertThat(plan)
+                .contains("idx_food_items_search_name")
+                .doesNotContain("tablescan");
+    }
+
+    private void persistFoodItem(String name) {
+        FoodItem item = new FoodItem();
+        item.setName(name);
+        item.setCalories(100);
+        entityManager.persist(item);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchCreateDTO;
+import org.example.calorietracker.dto.meal.MealImportDTO;
+import org.example.calorietracker.dto.user.UserCreateDTO;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.UserService;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Генератор синтетических данных для нагрузочных тестов.
+ * Создает N пользователей, у каждого M дней истории по {@value #MEALS_PER_DAY} приема пищи
+ * и K блюд в каждом приеме пищи.
+ *
+ * <p>Данные полностью определяются зерном: при одинаковых параметрах и зерне
+ * генерируются одинаковые пользователи, даты и пищевая ценность блюд.
+ * Данные сохраняются через сервисы приложения, поэтому дневные сводки заполняются
+ * так же, как в рабочем режиме.
+ */
+public class LoadTestDataGenerator {
+    /**
+     * Количество приемов пищи в день.
+     */
+    public static final int MEALS_PER_DAY = 3;
+
+    private static final String[] DISH_NAMES = {
+            "Oatmeal", "Eggs", "Chicken breast", "Rice", "Salad", "Salmon", "Yogurt", "Pasta", "Apple", "Soup"
+    };
+
+    private final UserService userService;
+    private final MealService mealService;
+    private final Random random;
+    private final long seed;
+
+    public LoadTestDataGenerator(UserService userService, MealService mealService, long seed) {
+        this.userService = userService;
+        this.mealService = mealService;
+        this.random = new Random(seed);
+        this.seed = seed;
+    }
+
+    /**
+     * Создает пользователей с историей питания, заканчивающейся {@code lastDay}.
+     *
+     * @param users количество пользователей (N)
+     * @param days количество дней истории у каждого пользователя (M)
+     * @param dishesPerMeal количество блюд в приеме пищи (K)
+     * @param lastDay последний день истории
+     * @return идентификаторы созданных пользователей
+     */
+    public List<Long> generate(int users, int days, int dishesPerMeal, LocalDate lastDay) {
+        List<Long> userIds = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            Long userId = userService.create(new UserCreateDTO(
+                    "Load User " + u,
+                    "load-" + seed + "-" + days + "d-" + u + "@example.com",
+                    18 + random.nextInt(50),
+                    50.0 + random.nextInt(60),
+                    150.0 + random.nextInt(50),
+                    random.nextBoolean() ? GenderType.MALE : GenderType.FEMALE,
+                    GoalType.values()[random.nextInt(GoalType.values().length)],
+                    null)).getId();
+            userIds.add(userId);
+
+            List<MealImportDTO> meals = new ArrayList<>();
+            for (LocalDate date = lastDay.minusDays(days - 1); !date.isAfter(lastDay); date = date.plusDays(1)) {
+                for (int m = 0; m < MEALS_PER_DAY; m++) {
+                    Instant eatenAt = date.atTime(8 + 5 * m, 0).toInstant(ZoneOffset.UTC);
+                    meals.add(new MealImportDTO(userId, eatenAt, dishes(dishesPerMeal), List.of()));
+                    if (meals.size() == MealBatchCreateDTO.MAX_MEALS) {
+                        mealService.importMeals(new MealBatchCreateDTO(meals));
+                        meals = new ArrayList<>();
+                    }
+                }
+            }
+            if (!meals.isEmpty()) {
+                mealService.importMeals(new MealBatchCreateDTO(meals));
+            }
+        }
+        return userIds;
+    }
+
+    private List<DishCreateDTO> dishes(int count) {
+        List<DishCreateDTO> dishes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dishes.add(new DishCreateDTO(
+                    DISH_NAMES[random.nextInt(DISH_NAMES.length)],
+                    50 + random.nextInt(600),
+                    random.nextInt(40),
+                    random.nextInt(30),
+                    random.nextInt(80),
+                    null, null, null));
+        }
+        return dishes;
+    }
+}
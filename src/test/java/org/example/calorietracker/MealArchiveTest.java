@@ -0,0 +1,228 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.config.MealArchiveProperties;
+import org.example.calorietracker.config.ParallelQueryProperties;
+import org.example.calorietracker.config.ReportCoalescingProperties;
+import org.example.calorietracker.config.ReportSnapshotProperties;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.mapper.FoodItemMapperImpl;
+import org.example.calorietracker.mapper.JsonNullableMapperImpl;
+import org.example.calorietracker.mapper.MealMapperImpl;
+import org.example.calorietracker.mapper.ReferenceMapperImpl;
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.MealArchiveDay;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.DishRepository;
+import org.example.calorietracker.repository.MealArchiveDayRepository;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.repository.projection.DailyNutrition;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.DataVersionService;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.example.calorietracker.service.KeysetPagination;
+import org.example.calorietracker.service.MealArchiveService;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.ParallelQueryExecutor;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.example.calorietracker.service.ReportRequestCoalescer;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.example.calorietracker.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({MealService.class, DailyNutritionSummaryService.class, DataVersionService.class,
+        MealArchiveService.class, MealArchiveProperties.class,
+        ReportSnapshotService.class, ReportSnapshotProperties.class,
+        ParallelQueryExecutor.class, ParallelQueryProperties.class,
+        ReportRequestCoalescer.class, ReportCoalescingProperties.class,
+        DishAutocompleteService.class, DishAutocompleteProperties.class,
+        MealMapperImpl.class, ReferenceMapperImpl.class, JsonNullableMapperImpl.class, FoodItemMapperImpl.class})
+public class MealArchiveTest {
+    private final ZoneId zone = ZoneId.of("Europe/Moscow");
+    private final LocalDate oldDate = LocalDate.now(zone).minusDays(200);
+    private final LocalDate recentDate = LocalDate.now(zone).minusDays(1);
+    private User user;
+    private Meal oldMeal;
+    private Meal recentMeal;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private MealArchiveService mealArchiveService;
+
+    @Autowired
+    private DailyNutritionSummaryService summaryService;
+
+    @Autowired
+    private MealArchiveDayRepository archiveRepository;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private KeysetPagination keysetPagination;
+
+    @MockBean
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @MockBean
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test User");
+        user.setEmail("archive@example.com");
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        user.setTimeZone(zone.getId());
+        entityManager.persist(user);
+        given(userService.getZoneId(user.getId())).willReturn(zone);
+
+        // 23:30 по Москве — уже следующий день в Окленде
+        oldMeal = persistMeal(oldDate, LocalTime.of(23, 30), 500, 300);
+        recentMeal = persistMeal(recentDate, LocalTime.NOON, 700);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Days older than the hot period move into one archive row per day")
+    void archiveUser_ShouldMoveOldDaysToArchive() {
+        int archived = mealArchiveService.archiveUser(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(archived).isEqualTo(1);
+        assertThat(mealRepository.findById(oldMeal.getId())).isEmpty();
+        assertThat(mealRepository.findById(recentMeal.getId())).isPresent();
+        assertThat(dishRepository.count()).isEqualTo(1);
+        assertThat(archiveRepository.findAll())
+                .extracting(MealArchiveDay::getDate, MealArchiveDay::getTimeZone,
+                        MealArchiveDay::getMealCount, MealArchiveDay::getTotalCalories)
+                .containsExactly(tuple(oldDate, zone.getId(), 1, 800.0));
+
+        assertThat(mealArchiveService.archiveUser(user.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("History reads archived and hot meals together")
+    void getNutritionHistory_ShouldReadBothTiers() {
+        List<Long> dishIds = mealRepository.findById(oldMeal.getId()).orElseThrow()
+                .getDishes().stream().map(Dish::getId).toList();
+        mealArchiveService.archiveUser(user.getId());
+        summaryService.rebuildForUser(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DailyReport> history = mealService.getNutritionHistory(user.getId(), oldDate, recentDate);
+
+        assertThat(history.get(0).getTotalCalories()).isEqualTo(800.0);
+        assertThat(history.get(0).getMeals()).extracting(MealDTO::getId, MealDTO::getUserId, MealDTO::getDishIds)
+                .containsExactly(tuple(oldMeal.getId(), user.getId(), dishIds));
+        assertThat(history.get(history.size() - 1).getMeals()).extracting(MealDTO::getId)
+                .containsExactly(recentMeal.getId());
+    }
+
+    @Test
+    @DisplayName("The summary rebuild re-buckets archived meals after a time zone change")
+    void rebuildForUser_ShouldKeepArchivedDays() {
+        mealArchiveService.archiveUser(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+        summaryService.rebuildForUser(user.getId());
+        entityManager.flush();
+
+        assertThat(summaryService.getDailyNutrition(user.getId(), oldDate, oldDate.plusDays(1)))
+                .extracting(DailyNutrition::getTotalCalories)
+                .containsExactly(800.0);
+        entityManager.clear();
+
+        ZoneId auckland = ZoneId.of("Pacific/Auckland");
+        entityManager.find(User.class, user.getId()).setTimeZone(auckland.getId());
+        entityManager.flush();
+        summaryService.rebuildForUser(user.getId());
+        entityManager.flush();
+
+        assertThat(summaryService.getDailyNutrition(user.getId(), oldDate, oldDate.plusDays(2)))
+                .extracting(DailyNutrition::getDate, DailyNutrition::getTotalCalories)
+                .containsExactly(tuple(oldDate.plusDays(1), 800.0));
+    }
+
+    @Test
+    @DisplayName("The history export starts with archived meals")
+    void exportHistory_ShouldIncludeArchivedMeals() throws IOException {
+        mealArchiveService.archiveUser(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mealService.exportHistory(user.getId(), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"id\":" + oldMeal.getId()).contains("\"calories\":500.0");
+        assertThat(lines.get(1)).contains("\"id\":" + recentMeal.getId());
+    }
+
+    private Meal persistMeal(LocalDate day, LocalTime time, double... dishCalories) {
+        Meal meal = new Meal();
+        meal.setUser(user);
+        meal.setEatenAt(day.atTime(time).atZone(zone).toInstant());
+        entityManager.persist(meal);
+
+        for (double calories : dishCalories) {
+            Dish dish = new Dish();
+            dish.setName("Dish");
+            dish.setCalories(calories);
+            dish.setMeal(meal);
+            entityManager.persist(dish);
+        }
+        return meal;
+    }
+}
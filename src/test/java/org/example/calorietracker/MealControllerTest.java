@@ -2,8 +2,13 @@ package org.example.calorietracker;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.calorietracker.controller.MealController;
+import org.example.calorietracker.dto.CursorPage;
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchResultDTO;
 import org.example.calorietracker.dto.meal.MealCreateDTO;
 import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.dto.meal.MealImportDTO;
 import org.example.calorietracker.exception.ResourceNotFoundException;
 import org.example.calorietracker.handler.GlobalExceptionHandler;
 import org.example.calorietracker.service.MealService;
@@ -20,7 +25,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDate;
+import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -59,8 +64,8 @@ public class MealControllerTest {
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
 
-        mealDTO = new MealDTO(1L, LocalDate.now(), 1L, List.of(1L, 2L));
-        mealCreateDTO = new MealCreateDTO(1L, List.of(1L, 2L));
+        mealDTO = new MealDTO(1L, Instant.now(), 1L, List.of(1L, 2L), List.of());
+        mealCreateDTO = new MealCreateDTO(1L, List.of(1L, 2L), List.of());
     }
 
     @DisplayName("GET /meals/{id} get meals and return status 200 Ok")
@@ -96,10 +101,36 @@ public class MealControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @DisplayName("POST /meals/batch import meals and return status 201 CREATED")
+    @Test
+    public void importMealsTest() throws Exception {
+        MealBatchCreateDTO batchDTO = new MealBatchCreateDTO(List.of(new MealImportDTO(
+                1L, Instant.parse("2024-03-10T08:30:00Z"), List.of(new DishCreateDTO("Oatmeal", 350, 12, 6, 60, null, null, null)), List.of())));
+        given(mealService.importMeals(any(MealBatchCreateDTO.class))).willReturn(new MealBatchResultDTO(1, 1, 0));
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(JSON_CONTENT_TYPE)
+                        .content(objectMapper.writeValueAsString(batchDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.mealsCreated").value(1))
+                .andExpect(jsonPath("$.dishesCreated").value(1));
+    }
+
+    @DisplayName("POST /meals/batch with meal without date return 400 BAD_REQUEST")
+    @Test
+    public void importMealsWithInvalidDataTest() throws Exception {
+        MealBatchCreateDTO batchDTO = new MealBatchCreateDTO(List.of(new MealImportDTO(1L, null, List.of(), List.of())));
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(JSON_CONTENT_TYPE)
+                        .content(objectMapper.writeValueAsString(batchDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
     @DisplayName("POST /meals create meal with invalid data and return 400 BAD_REQUEST")
     @Test
     public void createMealWithInvalidDataTest() throws Exception {
-        MealCreateDTO invalidDTO = new MealCreateDTO(null, List.of(1L, 2L));
+        MealCreateDTO invalidDTO = new MealCreateDTO(null, List.of(1L, 2L), List.of());
 
         mockMvc.perform(post(BASE_URL)
                         .contentType(JSON_CONTENT_TYPE)
@@ -111,13 +142,25 @@ public class MealControllerTest {
     @Test
     public void getMealsByUserId_ShouldReturnMealList() throws Exception {
         List<MealDTO> meals = List.of(mealDTO);
-        given(mealService.getAll()).willReturn(meals);
+        given(mealService.getAll(null, null)).willReturn(new CursorPage<>(meals, "next-cursor"));
 
         mockMvc.perform(get(BASE_URL)
                         .contentType(JSON_CONTENT_TYPE))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(mealDTO.getId()))
-                .andExpect(jsonPath("$[0].userId").value(mealDTO.getUserId()));
+                .andExpect(jsonPath("$.items[0].id").value(mealDTO.getId()))
+                .andExpect(jsonPath("$.items[0].userId").value(mealDTO.getUserId()))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @DisplayName("GET /meals with invalid cursor return status 400 BAD_REQUEST")
+    @Test
+    public void getMeals_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        given(mealService.getAll("broken", 10)).willThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get(BASE_URL)
+                        .param("cursor", "broken")
+                        .param("limit", "10"))
+                .andExpect(status().isBadRequest());
     }
 
     @DisplayName("DELETE /meals/{id} delete meal and return status 204 NO_CONTENT")
@@ -0,0 +1,209 @@
+package org.example.calorietracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.config.JpaAuditingConfig;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchCreateDTO;
+import org.example.calorietracker.dto.meal.MealBatchResultDTO;
+import org.example.calorietracker.dto.meal.MealFoodItemDTO;
+import org.example.calorietracker.dto.meal.MealImportDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.mapper.FoodItemMapperImpl;
+import org.example.calorietracker.mapper.JsonNullableMapperImpl;
+import org.example.calorietracker.mapper.MealMapperImpl;
+import org.example.calorietracker.mapper.ReferenceMapperImpl;
+import org.example.calorietracker.model.FoodItem;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.DataVersionService;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.example.calorietracker.service.KeysetPagination;
+import org.example.calorietracker.service.MealArchiveService;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.ParallelQueryExecutor;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.example.calorietracker.service.ReportRequestCoalescer;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.example.calorietracker.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MealService.class, DailyNutritionSummaryService.class, DataVersionService.class, JpaAuditingConfig.class,
+        DishAutocompleteService.class, DishAutocompleteProperties.class,
+        MealMapperImpl.class, ReferenceMapperImpl.class, JsonNullableMapperImpl.class, FoodItemMapperImpl.class})
+public class MealImportTest {
+    private final LocalDate date = LocalDate.of(2020, 1, 15);
+    private final ZoneId zone = ZoneId.of("America/New_York");
+    private User user;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private KeysetPagination keysetPagination;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ParallelQueryExecutor parallelQueryExecutor;
+
+    @MockBean
+    private ReportRequestCoalescer reportRequestCoalescer;
+
+    @MockBean
+    private ReportSnapshotService reportSnapshotService;
+
+    @MockBean
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @MockBean
+    private MealArchiveService mealArchiveService;
+
+    @MockBean
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test User");
+        user.setEmail("import@example.com");
+        user.setTimeZone(zone.getId());
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        entityManager.persist(user);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Imported meals fall into the user's local days and are inserted in JDBC batches")
+    void importMeals_ShouldBatchInsertsAndKeepDates() {
+        List<MealImportDTO> meals = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // 22:00 по Нью-Йорку — это уже следующий день в UTC
+            meals.add(new MealImportDTO(user.getId(), eveningOf(date.plusDays(i % 2)), List.of(
+                    new DishCreateDTO("Oatmeal", 300, 10, 5, 50, null, null, null),
+                    new DishCreateDTO("Eggs", 100, 8, 7, 1, null, null, null)), List.of()));
+        }
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MealBatchResultDTO result = mealService.importMeals(new MealBatchCreateDTO(meals));
+        entityManager.flush();
+
+        assertThat(result.getMealsCreated()).isEqualTo(200);
+        assertThat(result.getDishesCreated()).isEqualTo(400);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT summary_date FROM daily_nutrition_summary WHERE user_id = ? ORDER BY summary_date",
+                user.getId()))
+                .extracting(row -> row.get("summary_date").toString())
+                .containsExactly(date.toString(), date.plusDays(1).toString());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT calories FROM daily_nutrition_summary WHERE user_id = ? AND summary_date = ?",
+                Double.class, user.getId(), date)).isEqualTo(40_000.0);
+        // 600 строк вставляются пакетами по 50, идентификаторы берутся из последовательностей блоками
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(50);
+        // Все приемы пищи приходятся на январь 2020 года в UTC
+        verify(partitionMaintenanceService).ensurePartitions(Set.of(YearMonth.of(2020, 1)));
+    }
+
+    @Test
+    @DisplayName("Imported catalog items are stored as references and summed as catalog values times portion")
+    void importMeals_WithFoodItems_ShouldReferenceCatalog() {
+        FoodItem rice = new FoodItem();
+        rice.setName("Rice");
+        rice.setCalories(200);
+        rice.setProteins(4);
+        rice.setFats(1);
+        rice.setCarbohydrates(45);
+        entityManager.persist(rice);
+
+        MealBatchResultDTO result = mealService.importMeals(new MealBatchCreateDTO(List.of(
+                new MealImportDTO(user.getId(), eveningOf(date), List.of(), List.of(
+                        new MealFoodItemDTO(rice.getId(), 1.5),
+                        new MealFoodItemDTO(rice.getId(), null))))));
+        entityManager.flush();
+
+        assertThat(result.getDishesCreated()).isZero();
+        assertThat(result.getFoodItemsCreated()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM dishes", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(portion) FROM meal_food_items", Double.class))
+                .isEqualTo(2.5);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT calories FROM daily_nutrition_summary WHERE user_id = ? AND summary_date = ?",
+                Double.class, user.getId(), date)).isEqualTo(500.0);
+    }
+
+    @Test
+    @DisplayName("Import fails before inserting anything when a catalog item does not exist")
+    void importMeals_WithUnknownFoodItem_ShouldReportMissingIds() {
+        MealBatchCreateDTO batchDTO = new MealBatchCreateDTO(List.of(
+                new MealImportDTO(user.getId(), eveningOf(date), List.of(), List.of(new MealFoodItemDTO(-1L, 1.0)))));
+
+        assertThatThrownBy(() -> mealService.importMeals(batchDTO))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Food items not found: [-1]");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM meals", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Import fails before inserting anything when a user does not exist")
+    void importMeals_WithUnknownUser_ShouldReportMissingIds() {
+        MealBatchCreateDTO batchDTO = new MealBatchCreateDTO(List.of(
+                new MealImportDTO(user.getId(), eveningOf(date), List.of(), List.of()),
+                new MealImportDTO(-1L, eveningOf(date), List.of(), List.of())));
+
+        assertThatThrownBy(() -> mealService.importMeals(batchDTO))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Users not found: [-1]");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM meals", Long.class)).isZero();
+    }
+
+    private Instant eveningOf(LocalDate day) {
+        return day.atTime(22, 0).atZone(zone).toInstant();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.mapper.FoodItemMapperImpl;
+import org.example.calorietracker.mapper.JsonNullableMapperImpl;
+import org.example.calorietracker.mapper.MealMapper;
+import org.example.calorietracker.mapper.MealMapperImpl;
+import org.example.calorietracker.mapper.ReferenceMapperImpl;
+import org.example.calorietracker.model.Dish;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MealMapperImpl.class, ReferenceMapperImpl.class, JsonNullableMapperImpl.class, FoodItemMapperImpl.class})
+public class MealMapperTest {
+    private final List<Long> dishIds = new ArrayList<>();
+
+    @Autowired
+    private MealMapper mealMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            Dish dish = new Dish();
+            dish.setName("Dish " + i);
+            dish.setCalories(100);
+            dishIds.add(entityManager.persistAndGetId(dish, Long.class));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("All dish IDs are resolved with a single query in request order")
+    void longToDish_ShouldResolveAllIdsWithOneQuery() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> requestedIds = new ArrayList<>(dishIds);
+        Collections.reverse(requestedIds);
+        requestedIds.add(dishIds.get(dishIds.size() - 1));
+        List<Dish> dishes = mealMapper.longToDish(requestedIds);
+
+        assertThat(dishes).extracting(Dish::getId).containsExactlyElementsOf(requestedIds);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Missing dish IDs are reported together")
+    void longToDish_WhenDishesMissing_ShouldReportAllMissingIds() {
+        List<Long> requestedIds = List.of(dishIds.get(0), 998L, dishIds.get(1), 999L);
+
+        assertThatThrownBy(() -> mealMapper.longToDish(requestedIds))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Dishes not found: [998, 999]");
+    }
+
+    @Test
+    @DisplayName("A portion without a catalog item is rejected")
+    void mapDish_WithPortionWithoutFoodItem_ShouldThrow() {
+        DishCreateDTO dishDTO = new DishCreateDTO("Oatmeal", 350, 12, 6, 60, null, null, 2.0);
+
+        assertThatThrownBy(() -> mealMapper.map(dishDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Portion requires foodItemId");
+    }
+}
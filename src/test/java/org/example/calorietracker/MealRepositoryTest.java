@@ -0,0 +1,228 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.repository.projection.MealNutrition;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class MealRepositoryTest {
+    private final LocalDate date = LocalDate.of(2024, 3, 10);
+    private User user;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test User");
+        user.setEmail("test@example.com");
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        entityManager.persist(user);
+
+        persistMeal(date.minusDays(1), 500);
+        persistMeal(date, 300, 200);
+        persistMeal(date, 400);
+        persistMeal(date.plusDays(1), 900);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Total calories are summed over the half-open day range")
+    void findTotalCalories_ShouldSumOnlyRequestedDay() {
+        Double total = mealRepository.findTotalCaloriesByUserIdAndEatenAtRange(
+                user.getId(), startOfDay(date), startOfDay(date.plusDays(1)));
+
+        assertThat(total).isEqualTo(900.0);
+    }
+
+    @Test
+    @DisplayName("Range queries exclude the end boundary")
+    void rangeQueries_ShouldExcludeEndInstant() {
+        List<Meal> meals = mealRepository.findByUserIdAndEatenAtRange(
+                user.getId(), startOfDay(date.minusDays(1)), startOfDay(date.plusDays(1)));
+
+        assertThat(meals).extracting(Meal::getEatenAt)
+                .containsExactly(noon(date.minusDays(1)), noon(date), noon(date));
+    }
+
+    @Test
+    @DisplayName("A local day east of UTC maps to an instant range that starts on the previous UTC day")
+    void findByUserIdAndEatenAtRange_ShouldSelectLocalDayOfZone() {
+        ZoneId auckland = ZoneId.of("Pacific/Auckland");
+
+        List<Meal> meals = mealRepository.findByUserIdAndEatenAtRange(user.getId(),
+                date.atStartOfDay(auckland).toInstant(), date.plusDays(1).atStartOfDay(auckland).toInstant());
+
+        assertThat(meals).extracting(Meal::getEatenAt).containsExactly(noon(date.minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Per-meal nutrition for the summary rebuild is aggregated by meal")
+    void findMealNutritionByUserId_ShouldSumDishesPerMeal() {
+        List<MealNutrition> nutrition = mealRepository.findMealNutritionByUserId(user.getId());
+
+        assertThat(nutrition).extracting(MealNutrition::getEatenAt, MealNutrition::getTotalCalories)
+                .containsExactlyInAnyOrder(
+                        tuple(noon(date.minusDays(1)), 500.0),
+                        tuple(noon(date), 500.0),
+                        tuple(noon(date), 400.0),
+                        tuple(noon(date.plusDays(1)), 900.0));
+    }
+
+    @Test
+    @DisplayName("EXPLAIN of the report queries shows index lookups instead of full scans")
+    void reportQueries_ShouldUseIndexes() {
+        String plan = explain("SELECT COALESCE(SUM(d.calories), 0) "
+                + "FROM meals m JOIN dishes d ON d.meal_id = m.id "
+                + "WHERE m.user_id = ? AND m.eaten_at >= ? AND m.eaten_at < ?");
+
+        // H2 сам индексирует столбцы внешних ключей, поэтому для dishes проверяется
+        // сам факт поиска по индексу meal_id, а не имя индекса
+        assertThat(plan)
+                .contains("idx_meals_user_id_eaten_at: eaten_at < ?3")
+                .contains(": meal_id = m.id")
+                .doesNotContain("tablescan");
+    }
+
+    @Test
+    @DisplayName("Loading a day of meals with dishes costs a single statement")
+    void findByUserIdAndEatenAtRange_ShouldFetchDishesWithoutNPlusOne() {
+        for (int i = 0; i < 4; i++) {
+            persistMeal(date, 100, 50);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Meal> meals = mealRepository.findByUserIdAndEatenAtRange(
+                user.getId(), startOfDay(date), startOfDay(date.plusDays(1)));
+        long dishCount = meals.stream()
+                .peek(meal -> meal.getUser().getId())
+                .mapToLong(meal -> meal.getDishes().size())
+                .sum();
+
+        assertThat(meals).hasSize(6);
+        assertThat(dishCount).isEqualTo(11);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Dishes copy the moment of their meal as the partition key and follow relinking")
+    void dishes_ShouldCarryMealMomentAsPartitionKey() {
+        List<Meal> meals = mealRepository.findByUserIdAndEatenAtRange(
+                user.getId(), startOfDay(date.minusDays(1)), startOfDay(date.plusDays(2)));
+        Dish dish = meals.get(0).getDishes().get(0);
+        assertThat(dish.getMealEatenAt()).isEqualTo(noon(date.minusDays(1)));
+
+        dish.setMeal(meals.get(3));
+        entityManager.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT meal_eaten_at FROM dishes WHERE id = ?",
+                Instant.class, dish.getId())).isEqualTo(noon(date.plusDays(1)));
+
+        dish.setMeal(null);
+        entityManager.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT meal_eaten_at FROM dishes WHERE id = ?",
+                Instant.class, dish.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("Keyset id page starts after the cursor and respects the limit")
+    void findIdsAfter_ShouldReturnNextPage() {
+        List<Long> all = mealRepository.findIdsAfter(0L, Limit.of(10));
+        List<Long> page = mealRepository.findIdsAfter(all.get(0), Limit.of(2));
+
+        assertThat(all).hasSize(4).isSorted();
+        assertThat(page).containsExactly(all.get(1), all.get(2));
+    }
+
+    @Test
+    @DisplayName("Streaming a user's meals returns them in order with dishes in one statement")
+    void streamByUserId_ShouldStreamMealsChronologically() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Meal> meals;
+        try (Stream<Meal> stream = mealRepository.streamByUserId(user.getId())) {
+            meals = stream.toList();
+        }
+
+        assertThat(meals).extracting(Meal::getEatenAt)
+                .containsExactly(noon(date.minusDays(1)), noon(date), noon(date), noon(date.plusDays(1)));
+        assertThat(meals).extracting(meal -> meal.getDishes().size())
+                .containsExactly(1, 2, 1, 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, user.getId(),
+                startOfDay(date).atOffset(ZoneOffset.UTC), startOfDay(date.plusDays(1)).atOffset(ZoneOffset.UTC))
+                .toLowerCase();
+    }
+
+    private static Instant startOfDay(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static Instant noon(LocalDate day) {
+        return day.atTime(12, 0).toInstant(ZoneOffset.UTC);
+    }
+
+    private void persistMeal(LocalDate day, double... dishCalories) {
+        Meal meal = new Meal();
+        meal.setUser(user);
+        meal.setEatenAt(noon(day));
+        entityManager.persist(meal);
+
+        for (double calories : dishCalories) {
+            Dish dish = new Dish();
+            dish.setName("Dish");
+            dish.setCalories(calories);
+            dish.setMeal(meal);
+            entityManager.persist(dish);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.calorietracker;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.calorietracker.config.MetricsConfig;
+import org.example.calorietracker.dto.user.UserCreateDTO;
+import org.example.calorietracker.metrics.RangeTaggingObservationConvention;
+import org.example.calorietracker.metrics.StatementCountFilter;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.reports.parallel-queries.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsTest {
+    private static final String HISTORY_URI = "/users/{id}/reports/history";
+    private static final String DAILY_URI = "/users/{id}/reports/daily";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DisplayName("Report requests publish service timers, range tags and statement counts")
+    void reportRequest_ShouldPublishMetrics() throws Exception {
+        Long userId = userService.create(new UserCreateDTO("Metrics User", "metrics@example.com",
+                30, 75.0, 180.0, GenderType.MALE, GoalType.MAINTENANCE, null)).getId();
+        // Завершившиеся дни, которые еще не перенесены в архив
+        LocalDate endDate = LocalDate.now(ZoneOffset.UTC).minusDays(10);
+
+        mockMvc.perform(get(HISTORY_URI, userId)
+                        .param("startDate", endDate.minusDays(9).toString())
+                        .param("endDate", endDate.toString()))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("http.server.requests")
+                .tag("uri", HISTORY_URI)
+                .tag(RangeTaggingObservationConvention.RANGE_TAG, "8-31d")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tag("method", "getNutritionHistory")
+                .timer().count()).isEqualTo(1);
+        // Версия данных для ETag, снимки отчетов, часовой пояс пользователя (до попадания в кеш),
+        // затем приемы пищи за период и дневные сводки двумя запросами независимо от длины периода;
+        // запросы из пула параллельных запросов учитываются в счетчике HTTP-запроса
+        assertThat(meterRegistry.get(StatementCountFilter.METRIC_NAME)
+                .tag("uri", HISTORY_URI)
+                .summary().max()).isEqualTo(5);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("calorietracker_http_server_statements")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending")))
+                .andExpect(content().string(containsString("calorietracker_datasource_permits_available")));
+    }
+
+    @Test
+    @DisplayName("A conditional report request with a current ETag costs only the version lookup")
+    void conditionalReportRequest_ShouldSkipReportQueries() throws Exception {
+        Long userId = userService.create(new UserCreateDTO("ETag User", "etag@example.com",
+                30, 75.0, 180.0, GenderType.FEMALE, GoalType.MAINTENANCE, null)).getId();
+        String date = LocalDate.now(ZoneOffset.UTC).minusDays(10).toString();
+
+        String etag = mockMvc.perform(get(DAILY_URI, userId).param("date", date))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(DAILY_URI, userId).param("date", date).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        DistributionSummary statements = meterRegistry.get(StatementCountFilter.METRIC_NAME)
+                .tag("uri", DAILY_URI)
+                .summary();
+        assertThat(statements.count()).isEqualTo(2);
+        // Версия, снимок, часовой пояс, приемы пищи и сумма калорий, затем только версия
+        assertThat(statements.totalAmount()).isEqualTo(5 + 1);
+    }
+}
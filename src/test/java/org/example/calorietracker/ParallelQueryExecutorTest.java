@@ -0,0 +1,142 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.config.ParallelQueryProperties;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.service.ParallelQueryExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class ParallelQueryExecutorTest {
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ParallelQueryExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Enabled mode runs the second query in the pool while the caller runs the first")
+    void join_WhenEnabled_ShouldRunQueriesConcurrently() {
+        executor = createExecutor(true);
+        given(transactionManager.getTransaction(any())).willReturn(new SimpleTransactionStatus());
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        String caller = Thread.currentThread().getName();
+
+        List<String> threads = executor.join(
+                () -> awaitOther(bothStarted),
+                () -> awaitOther(bothStarted),
+                List::of);
+
+        assertThat(threads.get(0)).isEqualTo(caller);
+        assertThat(threads.get(1)).startsWith("report-query-");
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("Enabled mode rethrows query exceptions unwrapped")
+    void join_WhenEnabled_ShouldRethrowQueryException() {
+        executor = createExecutor(true);
+        given(transactionManager.getTransaction(any())).willReturn(new SimpleTransactionStatus());
+
+        Supplier<Double> missingUser = () -> {
+            throw new ResourceNotFoundException("User not found");
+        };
+
+        assertThatThrownBy(() -> executor.join(missingUser, () -> 0.0, Double::sum))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("User not found");
+    }
+
+    @Test
+    @DisplayName("Enabled mode runs a stuck pool query in the caller after the timeout")
+    void join_WhenPoolQueryStuck_ShouldRunItInCaller() {
+        executor = createExecutor(true);
+        given(transactionManager.getTransaction(any())).willReturn(new SimpleTransactionStatus());
+        CountDownLatch pooledStarted = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+        String caller = Thread.currentThread().getName();
+
+        List<String> threads = executor.join(
+                () -> {
+                    await(pooledStarted);
+                    return Thread.currentThread().getName();
+                },
+                () -> {
+                    if (!Thread.currentThread().getName().equals(caller)) {
+                        // Запрос в пуле ждет, как будто ему не хватило соединения
+                        pooledStarted.countDown();
+                        await(never);
+                    }
+                    return Thread.currentThread().getName();
+                },
+                List::of);
+
+        assertThat(threads).containsExactly(caller, caller);
+    }
+
+    @Test
+    @DisplayName("Disabled mode runs queries sequentially in the caller thread")
+    void join_WhenDisabled_ShouldRunInCallerThread() {
+        executor = createExecutor(false);
+        String caller = Thread.currentThread().getName();
+
+        List<String> threads = executor.join(
+                () -> Thread.currentThread().getName(),
+                () -> Thread.currentThread().getName(),
+                List::of);
+
+        assertThat(threads).containsExactly(caller, caller);
+        verifyNoInteractions(transactionManager);
+    }
+
+    private ParallelQueryExecutor createExecutor(boolean enabled) {
+        ParallelQueryProperties properties = new ParallelQueryProperties();
+        properties.setEnabled(enabled);
+        properties.setPoolSize(2);
+        properties.setTimeout(Duration.ofMillis(500));
+        return new ParallelQueryExecutor(properties, transactionManager);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Завершается, только когда второй запрос тоже начал выполняться,
+     * поэтому при последовательном выполнении тест упадет по тайм-ауту.
+     */
+    private static String awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return Thread.currentThread().getName();
+    }
+}
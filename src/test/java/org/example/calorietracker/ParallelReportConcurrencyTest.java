@@ -0,0 +1,90 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.dto.user.UserCreateDTO;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Параллельные запросы отчетов при нехватке соединений: одновременных HTTP-запросов
+ * больше, чем разрешений на соединения, и каждый отчет удерживает соединение своей транзакции,
+ * пока второй запрос выполняется в пуле.
+ */
+@SpringBootTest(properties = {
+        "app.reports.parallel-queries.enabled=true",
+        "app.reports.parallel-queries.timeout=500ms",
+        "app.reports.coalescing.enabled=false",
+        "app.datasource.concurrency.max-concurrent=" + ParallelReportConcurrencyTest.MAX_CONCURRENT,
+        "app.datasource.concurrency.acquire-timeout=2s",
+        "spring.datasource.hikari.maximum-pool-size=" + ParallelReportConcurrencyTest.MAX_CONCURRENT
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ParallelReportConcurrencyTest {
+    static final int MAX_CONCURRENT = 2;
+    private static final int REQUESTS = 4 * MAX_CONCURRENT;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        clients = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent parallel-mode reports beyond the connection limit all complete")
+    void getDailyReport_WhenMoreRequestsThanConnections_ShouldComplete() throws Exception {
+        Long userId = userService.create(new UserCreateDTO("Parallel User", "parallel@example.com",
+                30, 75.0, 180.0, GenderType.MALE, GoalType.MAINTENANCE, null)).getId();
+        LocalDate date = LocalDate.of(2024, 3, 10);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String day = date.minusDays(i).toString();
+            responses.add(clients.submit(() -> {
+                start.await();
+                return mockMvc.perform(get("/users/{id}/reports/daily", userId).param("date", day))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+
+        // Вызывающий поток выполняет запрос сам, если пул не начал его или не получил соединение вовремя
+        for (Future<Integer> response : responses) {
+            assertThat(response.get(30, TimeUnit.SECONDS)).isEqualTo(200);
+        }
+    }
+}
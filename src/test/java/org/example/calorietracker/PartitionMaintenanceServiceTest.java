@@ -0,0 +1,61 @@
+package org.example.calorietracker;
+
+import jakarta.persistence.EntityManager;
+import org.example.calorietracker.config.PartitionProperties;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class PartitionMaintenanceServiceTest {
+    private final YearMonth current = YearMonth.of(2024, 3);
+
+    @Test
+    @DisplayName("Partition names round-trip to their month and other partitions are ignored")
+    void partitionName_ShouldRoundTrip() {
+        assertThat(PartitionMaintenanceService.partitionName("meals", current)).isEqualTo("meals_y2024m03");
+        assertThat(PartitionMaintenanceService.partitionMonth("meals", "meals_y2024m03")).contains(current);
+        assertThat(PartitionMaintenanceService.partitionMonth("meals", "meals_default")).isEmpty();
+        assertThat(PartitionMaintenanceService.partitionMonth("meals", "dishes_y2024m03")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Partitions are created for the current month and the configured months ahead")
+    void missingMonths_ShouldCoverCurrentAndFutureMonths() {
+        List<YearMonth> missing = PartitionMaintenanceService.missingMonths(
+                Set.of(current, current.plusMonths(1)), current, 3);
+
+        assertThat(missing).containsExactly(YearMonth.of(2024, 5), YearMonth.of(2024, 6));
+    }
+
+    @Test
+    @DisplayName("Only partitions older than the retention period are detached")
+    void expiredMonths_ShouldKeepRetentionPeriod() {
+        List<YearMonth> expired = PartitionMaintenanceService.expiredMonths(
+                Set.of(YearMonth.of(2024, 1), YearMonth.of(2023, 12), YearMonth.of(2023, 11), current), current, 3);
+
+        assertThat(expired).containsExactly(YearMonth.of(2023, 11));
+    }
+
+    @Test
+    @DisplayName("Nothing is queried when the tables are not partitioned")
+    void ensurePartitions_WhenDisabled_ShouldNotTouchDatabase() {
+        EntityManager entityManager = mock(EntityManager.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        PartitionProperties properties = new PartitionProperties();
+        properties.setEnabled(false);
+        PartitionMaintenanceService service = new PartitionMaintenanceService(entityManager, properties, transactionManager);
+
+        assertThat(service.ensurePartitions(Set.of(YearMonth.of(2019, 6)))).isZero();
+        assertThat(service.maintain(current)).isZero();
+        verifyNoInteractions(entityManager, transactionManager);
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.calorietracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.config.ParallelQueryProperties;
+import org.example.calorietracker.config.ReportCoalescingProperties;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.PeriodReport;
+import org.example.calorietracker.mapper.MealMapper;
+import org.example.calorietracker.model.DailyNutritionSummary;
+import org.example.calorietracker.model.DailyNutritionSummaryId;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.projection.PeriodStreak;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.DataVersionService;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.example.calorietracker.service.KeysetPagination;
+import org.example.calorietracker.service.MealArchiveService;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.ParallelQueryExecutor;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.example.calorietracker.service.ReportRequestCoalescer;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.example.calorietracker.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MealService.class, DailyNutritionSummaryService.class, DataVersionService.class,
+        ParallelQueryExecutor.class, ParallelQueryProperties.class,
+        ReportRequestCoalescer.class, ReportCoalescingProperties.class,
+        DishAutocompleteService.class, DishAutocompleteProperties.class})
+public class PeriodReportTest {
+    private User user;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private DailyNutritionSummaryService summaryService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private MealMapper mealMapper;
+
+    @MockBean
+    private KeysetPagination keysetPagination;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @MockBean
+    private ReportSnapshotService reportSnapshotService;
+
+    @MockBean
+    private MealArchiveService mealArchiveService;
+
+    @MockBean
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test User");
+        user.setEmail("periods@example.com");
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        entityManager.persist(user);
+        given(userService.getDailyCalorieIntake(user.getId())).willReturn(2000.0);
+
+        // 2024-03-04 — понедельник
+        persistSummary(LocalDate.of(2024, 3, 4), 1500);
+        persistSummary(LocalDate.of(2024, 3, 5), 1800);
+        persistSummary(LocalDate.of(2024, 3, 6), 2500);
+        persistSummary(LocalDate.of(2024, 3, 7), 1900);
+        persistSummary(LocalDate.of(2024, 3, 8), 1000);
+        persistSummary(LocalDate.of(2024, 3, 10), 2100);
+        persistSummary(LocalDate.of(2024, 3, 11), 1200);
+        persistSummary(LocalDate.of(2024, 4, 1), 1700);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Weekly reports start on Monday, are clipped to the range and count limits and streaks")
+    void getWeeklyReports_ShouldAggregateByIsoWeek() {
+        List<PeriodReport> reports = mealService.getWeeklyReports(
+                user.getId(), LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 12));
+
+        assertThat(reports)
+                .extracting(PeriodReport::getPeriodStart, PeriodReport::getPeriodEnd,
+                        PeriodReport::getTotalCalories, PeriodReport::getDaysLogged,
+                        PeriodReport::getDaysOverLimit, PeriodReport::getLongestStreakWithinLimit)
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 10), 7500.0, 4, 2, 2),
+                        tuple(LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 12), 1200.0, 1, 0, 1));
+        assertThat(reports.get(0).getAverageCalories()).isEqualTo(1875.0);
+        assertThat(reports.get(0).getTotalProteins()).isEqualTo(750.0);
+    }
+
+    @Test
+    @DisplayName("Weekly streaks are keyed by Monday and break between Sunday and Monday")
+    void getWeeklyReports_WhenRangeStartsMidWeek_ShouldSplitStreaksOnMonday() {
+        // 2024-03-16 — суббота, 2024-03-18 — понедельник
+        persistSummary(LocalDate.of(2024, 3, 16), 1500);
+        persistSummary(LocalDate.of(2024, 3, 17), 1500);
+        persistSummary(LocalDate.of(2024, 3, 18), 1500);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PeriodStreak> streaks = summaryService.getWeeklyStreaks(
+                user.getId(), LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 20), 2000.0);
+        List<PeriodReport> reports = mealService.getWeeklyReports(
+                user.getId(), LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 19));
+
+        assertThat(streaks)
+                .extracting(PeriodStreak::getPeriodStart, PeriodStreak::getLongestStreak)
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 3, 11), 2),
+                        tuple(LocalDate.of(2024, 3, 18), 1));
+        assertThat(reports)
+                .extracting(PeriodReport::getPeriodStart, PeriodReport::getPeriodEnd,
+                        PeriodReport::getTotalCalories, PeriodReport::getDaysLogged,
+                        PeriodReport::getLongestStreakWithinLimit)
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 17), 3000.0, 2, 2),
+                        tuple(LocalDate.of(2024, 3, 18), LocalDate.of(2024, 3, 19), 1500.0, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Monthly reports include empty months and are computed without loading meals")
+    void getMonthlyReports_ShouldAggregateByMonth() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PeriodReport> reports = mealService.getMonthlyReports(
+                user.getId(), LocalDate.of(2024, 2, 20), LocalDate.of(2024, 4, 30));
+
+        assertThat(reports)
+                .extracting(PeriodReport::getPeriodStart, PeriodReport::getPeriodEnd,
+                        PeriodReport::getTotalCalories, PeriodReport::getDaysLogged,
+                        PeriodReport::getDaysOverLimit, PeriodReport::getLongestStreakWithinLimit)
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 2, 20), LocalDate.of(2024, 2, 29), 0.0, 0, 0, 0),
+                        tuple(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), 12000.0, 7, 2, 2),
+                        tuple(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30), 1700.0, 1, 0, 1));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reversed date range is rejected")
+    void getWeeklyReports_WhenRangeReversed_ShouldThrow() {
+        assertThatThrownBy(() -> mealService.getWeeklyReports(
+                user.getId(), LocalDate.of(2024, 3, 12), LocalDate.of(2024, 3, 6)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("A range longer than a year is rejected")
+    void getMonthlyReports_WhenRangeTooLong_ShouldThrow() {
+        assertThatThrownBy(() -> mealService.getMonthlyReports(
+                user.getId(), LocalDate.of(2023, 3, 1), LocalDate.of(2024, 3, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Period must not be longer than 366 days");
+    }
+
+    private void persistSummary(LocalDate date, double calories) {
+        entityManager.persist(new DailyNutritionSummary(
+                new DailyNutritionSummaryId(user.getId(), date), calories, calories / 10, 0, 0));
+    }
+}
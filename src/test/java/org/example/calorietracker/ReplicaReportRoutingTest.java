@@ -0,0 +1,68 @@
+package org.example.calorietracker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Чтение отчетов из реплики. В реплику копируется схема основной базы, а пользователь
+ * создается только в ней, поэтому успешный ответ возможен, только если версия данных
+ * для ETag и все запросы отчета, включая запросы из пула, выполнены в реплике.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.reports.parallel-queries.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplicaReportRoutingTest {
+    private static final long REPLICA_USER_ID = 9001L;
+    private static final long REPLICA_DATA_VERSION = 7L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        // Вне транзакции запросы выполняются в основной базе
+        jdbcTemplate.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .forEach(replica::execute);
+        replica.update("INSERT INTO users (id, name, email, age, time_zone, data_version) VALUES (?, ?, ?, ?, ?, ?)",
+                REPLICA_USER_ID, "Replica User", "replica-report@example.com", 30, "UTC", REPLICA_DATA_VERSION);
+    }
+
+    @Test
+    @DisplayName("A daily report for a user without recent writes is served by the replica")
+    void getDailyReport_WithoutRecentWrites_ShouldReadFromReplica() throws Exception {
+        mockMvc.perform(get("/users/{id}/reports/daily", REPLICA_USER_ID).param("date", "2024-03-10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + REPLICA_DATA_VERSION + "\""))
+                .andExpect(jsonPath("$.totalCalories").value(0.0));
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.dish.DishCreateDTO;
+import org.example.calorietracker.dto.meal.MealCreateDTO;
+import org.example.calorietracker.dto.user.UserCreateDTO;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.service.DishService;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Маршрутизация запросов между двумя базами H2: основной (с миграциями)
+ * и репликой без схемы. Имя базы, в которой выполняется запрос, возвращает функция
+ * {@code DATABASE()}.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password="
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplicaRoutingTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private DishService dishService;
+
+    @Test
+    @DisplayName("Read-only transactions go to the replica and read-write ones to the primary")
+    void transactions_ShouldBeRoutedByReadOnlyFlag() {
+        assertThat(currentDatabase(true)).startsWithIgnoringCase("replica-");
+        assertThat(currentDatabase(false)).startsWithIgnoringCase("calorietracker-");
+    }
+
+    @Test
+    @DisplayName("Reads for a user with a recent write stay on the primary")
+    void readOnlyTransaction_AfterUsersWrite_ShouldUsePrimary() {
+        readYourWritesTracker.markWritten(1001L);
+
+        assertThat(ReadYourWritesTracker.withUser(1001L, () -> currentDatabase(true)))
+                .startsWithIgnoringCase("calorietracker-");
+        assertThat(ReadYourWritesTracker.withUser(1002L, () -> currentDatabase(true)))
+                .startsWithIgnoringCase("replica-");
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} right after the user's write is served by the primary")
+    void getUser_AfterWrite_ShouldReadFromPrimary() throws Exception {
+        Long userId = userService.create(new UserCreateDTO("Replica User", "replica@example.com",
+                30, 75.0, 180.0, GenderType.MALE, GoalType.MAINTENANCE, null)).getId();
+        readYourWritesTracker.markWritten(userId);
+
+        // В реплике нет таблиц, поэтому успешный ответ возможен только из основной базы
+        mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("replica@example.com"));
+    }
+
+    @Test
+    @DisplayName("GET /meals/{id} and /dishes/{id} right after the write are served by the primary")
+    void getMealAndDish_AfterWrite_ShouldReadFromPrimary() throws Exception {
+        Long userId = userService.create(new UserCreateDTO("Meal Writer", "meal-writer@example.com",
+                30, 75.0, 180.0, GenderType.MALE, GoalType.MAINTENANCE, null)).getId();
+        Long dishId = dishService.create(
+                new DishCreateDTO("Oatmeal", 350, 12, 6, 60, null, null, null)).getId();
+        Long mealId = mealService.create(new MealCreateDTO(userId, List.of(dishId), List.of())).getId();
+
+        mockMvc.perform(get("/meals/{id}", mealId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dishIds[0]").value(dishId));
+        mockMvc.perform(get("/dishes/{id}", dishId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Oatmeal"));
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+}
@@ -0,0 +1,291 @@
+package org.example.calorietracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.config.ParallelQueryProperties;
+import org.example.calorietracker.config.ReportCoalescingProperties;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.mapper.MealMapper;
+import org.example.calorietracker.model.DailyNutritionSummary;
+import org.example.calorietracker.model.DailyNutritionSummaryId;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.DailyNutritionSummaryRepository;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.DataVersionService;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.example.calorietracker.service.KeysetPagination;
+import org.example.calorietracker.service.MealArchiveService;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.ParallelQueryExecutor;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.example.calorietracker.service.ReportRequestCoalescer;
+import org.example.calorietracker.service.ReportRequestCoalescer.ReportType;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.example.calorietracker.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Нагрузочная проверка объединения одновременных запросов отчетов.
+ * Данные сохраняются в отдельных транзакциях, чтобы их видели потоки запросов.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MealService.class, DailyNutritionSummaryService.class, DataVersionService.class,
+        ParallelQueryExecutor.class, ParallelQueryProperties.class,
+        ReportRequestCoalescer.class, ReportCoalescingProperties.class,
+        DishAutocompleteService.class, DishAutocompleteProperties.class})
+public class ReportCoalescingTest {
+    private static final int BURST_SIZE = 16;
+    private final LocalDate date = LocalDate.of(2024, 3, 4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService clients;
+    private User user;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private ReportRequestCoalescer coalescer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private DailyNutritionSummaryRepository summaryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private MealMapper mealMapper;
+
+    @MockBean
+    private KeysetPagination keysetPagination;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @MockBean
+    private ReportSnapshotService reportSnapshotService;
+
+    @MockBean
+    private MealArchiveService mealArchiveService;
+
+    @MockBean
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        coalescer.bindTo(meterRegistry);
+        clients = Executors.newFixedThreadPool(BURST_SIZE);
+
+        user = new User();
+        user.setName("Test User");
+        user.setEmail("coalescing@example.com");
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        userRepository.save(user);
+        given(userService.getZoneId(user.getId())).willReturn(ZoneOffset.UTC);
+        given(mealArchiveService.archiveHorizon()).willReturn(Instant.MIN);
+
+        Meal meal = new Meal();
+        meal.setUser(user);
+        meal.setEatenAt(date.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        mealRepository.save(meal);
+        summaryRepository.save(new DailyNutritionSummary(
+                new DailyNutritionSummaryId(user.getId(), date), 1500, 150, 50, 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        mealRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A burst of identical daily report requests runs one set of queries and shares the result")
+    void getDailyReport_WhenBurst_ShouldQueryDatabaseOnce() throws Exception {
+        double leadersBefore = count(ReportType.DAILY, "leader");
+        double followersBefore = count(ReportType.DAILY, "follower");
+        // Ведущий запрос задерживается, пока к нему не присоединятся все остальные
+        given(mealMapper.map(any(Meal.class))).willAnswer(invocation -> {
+            awaitFollowers(ReportType.DAILY, followersBefore + BURST_SIZE - 1);
+            return new MealDTO();
+        });
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<DailyReport> reports = burst(() -> mealService.getDailyReport(user.getId(), date));
+
+        assertThat(reports).hasSize(BURST_SIZE).allSatisfy(report -> assertThat(report).isSameAs(reports.get(0)));
+        assertThat(reports.get(0).getTotalCalories()).isEqualTo(1500.0);
+        assertThat(reports.get(0).getMeals()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(count(ReportType.DAILY, "leader") - leadersBefore).isEqualTo(1);
+        assertThat(count(ReportType.DAILY, "follower") - followersBefore).isEqualTo(BURST_SIZE - 1);
+        assertThat(meterRegistry.get(ReportRequestCoalescer.IN_FLIGHT_GAUGE).gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Requests arriving after the report is computed compute it again")
+    void getDailyReport_WhenSequential_ShouldNotReuseResult() {
+        given(mealMapper.map(any(Meal.class))).willReturn(new MealDTO());
+        double leadersBefore = count(ReportType.DAILY, "leader");
+
+        DailyReport first = mealService.getDailyReport(user.getId(), date);
+        DailyReport second = mealService.getDailyReport(user.getId(), date);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(count(ReportType.DAILY, "leader") - leadersBefore).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Requests of a user with recent writes are not coalesced")
+    void getDailyReport_WhenRecentlyWritten_ShouldBypassCoalescing() {
+        given(mealMapper.map(any(Meal.class))).willReturn(new MealDTO());
+        given(readYourWritesTracker.isRecentlyWritten(user.getId())).willReturn(true);
+        double leadersBefore = count(ReportType.DAILY, "leader");
+
+        mealService.getDailyReport(user.getId(), date);
+
+        assertThat(count(ReportType.DAILY, "leader")).isEqualTo(leadersBefore);
+    }
+
+    @Test
+    @DisplayName("Followers receive the exception of the leading request unwrapped")
+    void execute_WhenLeaderFails_ShouldRethrowToFollowers() throws Exception {
+        double followersBefore = count(ReportType.HISTORY, "follower");
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        Future<Object> leader = clients.submit(() -> coalescer.execute(ReportType.HISTORY, 1L, null, List.of(date), () -> {
+            leaderStarted.countDown();
+            awaitFollowers(ReportType.HISTORY, followersBefore + 1);
+            throw new ResourceNotFoundException("User not found");
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> coalescer.execute(ReportType.HISTORY, 1L, null, List.of(date), () -> "unused"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("User not found");
+        assertThatThrownBy(leader::get).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Requests read at a newer data version do not join a leader of an older version")
+    void execute_WhenDataVersionDiffers_ShouldNotCoalesce() throws Exception {
+        double leadersBefore = count(ReportType.DAILY, "leader");
+        double followersBefore = count(ReportType.DAILY, "follower");
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        Future<Object> stale = clients.submit(() -> coalescer.execute(ReportType.DAILY, 1L, 1L, List.of(date), () -> {
+            leaderStarted.countDown();
+            await(releaseLeader);
+            return "version 1";
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Запрос, прочитавший новую версию, не должен получить отчет, построенный до записи
+        Object fresh = coalescer.execute(ReportType.DAILY, 1L, 2L, List.of(date), () -> "version 2");
+        releaseLeader.countDown();
+
+        assertThat(fresh).isEqualTo("version 2");
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("version 1");
+        assertThat(count(ReportType.DAILY, "leader") - leadersBefore).isEqualTo(2);
+        assertThat(count(ReportType.DAILY, "follower")).isEqualTo(followersBefore);
+    }
+
+    private <T> List<T> burst(Callable<T> request) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < BURST_SIZE; i++) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                return request.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitFollowers(ReportType type, double expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(type, "follower") < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private double count(ReportType type, String role) {
+        return meterRegistry.get(ReportRequestCoalescer.REQUESTS_COUNTER)
+                .tag("report", type.name().toLowerCase(Locale.ROOT))
+                .tag("role", role)
+                .functionCounter()
+                .count();
+    }
+}
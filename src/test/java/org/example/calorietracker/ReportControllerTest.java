@@ -2,11 +2,14 @@ package org.example.calorietracker;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.calorietracker.controller.ReportController;
+import org.example.calorietracker.dto.DailyMacroSummary;
 import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.dto.PeriodReport;
 import org.example.calorietracker.dto.meal.MealDTO;
 import org.example.calorietracker.exception.ResourceNotFoundException;
 import org.example.calorietracker.handler.GlobalExceptionHandler;
 import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,22 +18,34 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,16 +70,19 @@ public class ReportControllerTest {
     @MockBean
     private MealService mealService;
 
+    @MockBean
+    private UserService userService;
+
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.
-                standaloneSetup(new ReportController(mealService))
+                standaloneSetup(new ReportController(mealService, userService))
                 .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
 
-        mealDTO = new MealDTO(1L, date, 1L, List.of(1L, 2L));
-        mealDTO2 = new MealDTO(2L, date, 1L, List.of(1L, 2L));
+        mealDTO = new MealDTO(1L, Instant.now(), 1L, List.of(1L, 2L), List.of());
+        mealDTO2 = new MealDTO(2L, Instant.now(), 1L, List.of(1L, 2L), List.of());
         dailyReport = new DailyReport(
                 date,
                 List.of(mealDTO, mealDTO2),
@@ -75,7 +93,7 @@ public class ReportControllerTest {
     @Test
     @DisplayName("GET /users/{id}/reports/daily - Success")
     void getDailyReport_ShouldReturnReport() throws Exception {
-        given(mealService.getDailyReport(userId, date)).willReturn(dailyReport);
+        given(mealService.getDailyReport(userId, date, 0L)).willReturn(dailyReport);
 
         mockMvc.perform(get(BASE_URL + "/daily", userId)
                         .param("date", date.toString()))
@@ -88,7 +106,7 @@ public class ReportControllerTest {
     @Test
     @DisplayName("GET /users/{id}/reports/daily - User Not Found")
     void getDailyReport_WhenUserNotFound_ShouldReturnNotFound() throws Exception {
-        given(mealService.getDailyReport(anyLong(), any(LocalDate.class)))
+        given(mealService.getDailyReport(anyLong(), any(LocalDate.class), anyLong()))
                 .willThrow(new ResourceNotFoundException("User not found"));
 
         mockMvc.perform(get(BASE_URL + "/daily", 99L)
@@ -96,6 +114,47 @@ public class ReportControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /users/{id}/reports/daily - ETag from Data Version")
+    void getDailyReport_ShouldReturnETag() throws Exception {
+        given(mealService.getDataVersion(userId)).willReturn(5L);
+        given(mealService.getDailyReport(userId, date, 5L)).willReturn(dailyReport);
+
+        mockMvc.perform(get(BASE_URL + "/daily", userId)
+                        .param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/daily - Not Modified")
+    void getDailyReport_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        given(mealService.getDataVersion(userId)).willReturn(5L);
+
+        mockMvc.perform(get(BASE_URL + "/daily", userId)
+                        .param("date", date.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(mealService, never()).getDailyReport(anyLong(), any(LocalDate.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/history - Stale ETag")
+    void getNutritionHistory_WhenETagIsStale_ShouldReturnHistory() throws Exception {
+        given(mealService.getDataVersion(userId)).willReturn(5L);
+        given(mealService.getNutritionHistory(userId, startDate, endDate, 5L)).willReturn(List.of(dailyReport));
+
+        mockMvc.perform(get(BASE_URL + "/history", userId)
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+                .andExpect(jsonPath("$[0].date").value(date.toString()));
+    }
+
     @Test
     @DisplayName("GET /users/{id}/reports/daily - Invalid Date Format")
     void getDailyReport_WhenInvalidDateFormat_ShouldReturnBadRequest() throws Exception {
@@ -141,7 +200,7 @@ public class ReportControllerTest {
     @DisplayName("GET /users/{id}/reports/history - Success")
     void getNutritionHistory_ShouldReturnReports() throws Exception {
         List<DailyReport> reports = List.of(dailyReport);
-        given(mealService.getNutritionHistory(userId, startDate, endDate)).willReturn(reports);
+        given(mealService.getNutritionHistory(userId, startDate, endDate, 0L)).willReturn(reports);
 
         mockMvc.perform(get(BASE_URL + "/history", userId)
                         .param("startDate", startDate.toString())
@@ -154,7 +213,7 @@ public class ReportControllerTest {
     @Test
     @DisplayName("GET /users/{id}/reports/history - Empty History")
     void getNutritionHistory_WhenNoData_ShouldReturnEmptyList() throws Exception {
-        given(mealService.getNutritionHistory(userId, startDate, endDate))
+        given(mealService.getNutritionHistory(userId, startDate, endDate, 0L))
                 .willReturn(Collections.emptyList());
 
         mockMvc.perform(get(BASE_URL + "/history", userId)
@@ -168,7 +227,7 @@ public class ReportControllerTest {
     @Test
     @DisplayName("GET /users/{id}/reports/history - User Not Found")
     void getNutritionHistory_WhenUserNotFound_ShouldReturnNotFound() throws Exception {
-        given(mealService.getNutritionHistory(anyLong(), any(LocalDate.class), any(LocalDate.class)))
+        given(mealService.getNutritionHistory(anyLong(), any(LocalDate.class), any(LocalDate.class), anyLong()))
                 .willThrow(new ResourceNotFoundException("User not found"));
 
         mockMvc.perform(get(BASE_URL + "/history", 99L)
@@ -176,4 +235,112 @@ public class ReportControllerTest {
                         .param("endDate", endDate.toString()))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/history - Invalid Date Range")
+    void getNutritionHistory_WhenStartAfterEnd_ShouldReturnBadRequest() throws Exception {
+        given(mealService.getNutritionHistory(userId, endDate, startDate, 0L))
+                .willThrow(new IllegalArgumentException("Start date must not be after end date"));
+
+        mockMvc.perform(get(BASE_URL + "/history", userId)
+                        .param("startDate", endDate.toString())
+                        .param("endDate", startDate.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/macros - Success")
+    void getMacroSummary_ShouldReturnSummary() throws Exception {
+        DailyMacroSummary summary = new DailyMacroSummary(date, 2000, 120, 70, 210);
+        given(mealService.getMacroSummary(userId, date, 0L)).willReturn(summary);
+
+        mockMvc.perform(get(BASE_URL + "/macros", userId)
+                        .param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(JSON_CONTENT_TYPE))
+                .andExpect(jsonPath("$.date").value(date.toString()))
+                .andExpect(jsonPath("$.totalCalories").value(2000.0))
+                .andExpect(jsonPath("$.totalProteins").value(120.0))
+                .andExpect(jsonPath("$.totalFats").value(70.0))
+                .andExpect(jsonPath("$.totalCarbohydrates").value(210.0));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/macros/history - Success")
+    void getMacroHistory_ShouldReturnSummaries() throws Exception {
+        List<DailyMacroSummary> summaries = List.of(new DailyMacroSummary(date, 1800, 100, 60, 200));
+        given(mealService.getMacroHistory(userId, startDate, endDate, 0L)).willReturn(summaries);
+
+        mockMvc.perform(get(BASE_URL + "/macros/history", userId)
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value(date.toString()))
+                .andExpect(jsonPath("$[0].totalCalories").value(1800.0));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/weekly - Success")
+    void getWeeklyReports_ShouldReturnReports() throws Exception {
+        List<PeriodReport> reports = List.of(new PeriodReport(
+                startDate, endDate, 12600, 700, 420, 1400, 1800, 100, 60, 200, 7, 2, 4));
+        given(mealService.getWeeklyReports(userId, startDate, endDate)).willReturn(reports);
+
+        mockMvc.perform(get(BASE_URL + "/weekly", userId)
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].periodStart").value(startDate.toString()))
+                .andExpect(jsonPath("$[0].averageCalories").value(1800.0))
+                .andExpect(jsonPath("$[0].daysOverLimit").value(2))
+                .andExpect(jsonPath("$[0].longestStreakWithinLimit").value(4));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/monthly - Invalid Date Range")
+    void getMonthlyReports_WhenInvalidDateRange_ShouldReturnBadRequest() throws Exception {
+        given(mealService.getMonthlyReports(userId, endDate, startDate))
+                .willThrow(new IllegalArgumentException("Start date must not be after end date"));
+
+        mockMvc.perform(get(BASE_URL + "/monthly", userId)
+                        .param("startDate", endDate.toString())
+                        .param("endDate", startDate.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/rolling - Defaults to the window ending yesterday in the user's time zone")
+    void getRollingWindowReport_ShouldDefaultToYesterday() throws Exception {
+        ZoneId zone = ZoneId.of("Pacific/Kiritimati");
+        LocalDate yesterday = LocalDate.now(zone).minusDays(1);
+        given(userService.getZoneId(userId)).willReturn(zone);
+        PeriodReport report = new PeriodReport(
+                yesterday.minusDays(6), yesterday, 12600, 700, 420, 1400, 1800, 100, 60, 200, 7, 2, 4);
+        given(mealService.getRollingWindowReport(userId, yesterday, 7)).willReturn(report);
+
+        mockMvc.perform(get(BASE_URL + "/rolling", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periodEnd").value(yesterday.toString()))
+                .andExpect(jsonPath("$.daysLogged").value(7));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/reports/export - Streams NDJSON")
+    void exportHistory_ShouldStreamNdjson() throws Exception {
+        willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(mealService).exportHistory(eq(userId), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/export", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"meals-1.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
 }
@@ -0,0 +1,192 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест эндпоинтов {@code /users/{id}/reports/*}.
+ *
+ * <p>Для каждого размера истории генерирует пользователей {@link LoadTestDataGenerator},
+ * затем выполняет запросы к отчетам в несколько потоков и выводит p50/p99 задержки
+ * и пропускную способность по каждому эндпоинту. Проверяется только успешность ответов:
+ * пороги задержки зависят от машины и в тесте не задаются.
+ *
+ * <p>Не входит в обычный запуск тестов. Запуск: {@code mvn -P load-test test}.
+ * Параметры задаются системными свойствами:
+ * <ul>
+ *   <li>{@code load.users} — количество пользователей на каждый размер истории (по умолчанию 20)</li>
+ *   <li>{@code load.history-days} — размеры истории в днях через запятую (по умолчанию 30,365)</li>
+ *   <li>{@code load.dishes-per-meal} — блюд в приеме пищи (по умолчанию 4)</li>
+ *   <li>{@code load.requests} — запросов на каждый размер истории (по умолчанию 2000)</li>
+ *   <li>{@code load.concurrency} — количество параллельных клиентов (по умолчанию 16)</li>
+ *   <li>{@code load.window-days} — длина периода в запросах истории (по умолчанию 30)</li>
+ *   <li>{@code load.seed} — зерно генератора данных и запросов (по умолчанию 42)</li>
+ * </ul>
+ * По умолчанию используется H2 в режиме PostgreSQL. Для запуска на локальном PostgreSQL
+ * передайте {@code -Dspring.datasource.url=jdbc:postgresql://...} и учетные данные.
+ *
+ * <p>Ограничение одновременных соединений выводится вместе с результатами.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=false")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReportLoadTest {
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int DISHES_PER_MEAL = Integer.getInteger("load.dishes-per-meal", 4);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int WINDOW_DAYS = Integer.getInteger("load.window-days", 30);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final LocalDate LAST_DAY = LocalDate.now();
+
+    private final Map<Integer, List<Long>> usersByHistoryDays = new HashMap<>();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private Environment environment;
+
+    static int[] historyDays() {
+        return Arrays.stream(System.getProperty("load.history-days", "30,365").split(","))
+                .mapToInt(days -> Integer.parseInt(days.trim()))
+                .toArray();
+    }
+
+    @BeforeAll
+    void generateData() {
+        LoadTestDataGenerator generator = new LoadTestDataGenerator(userService, mealService, SEED);
+        for (int days : historyDays()) {
+            long started = System.nanoTime();
+            usersByHistoryDays.put(days, generator.generate(USERS, days, DISHES_PER_MEAL, LAST_DAY));
+            System.out.printf("Generated %d users x %d days x %d meals x %d dishes in %d ms%n",
+                    USERS, days, LoadTestDataGenerator.MEALS_PER_DAY, DISHES_PER_MEAL,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    @ParameterizedTest(name = "history of {0} days")
+    @MethodSource("historyDays")
+    @DisplayName("Report endpoints under concurrent load")
+    void reportEndpoints_UnderConcurrentLoad(int days) throws Exception {
+        List<Long> userIds = usersByHistoryDays.get(days);
+        Random random = new Random(SEED + days);
+        List<Request> requests = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> randomRequest(userIds.get(random.nextInt(userIds.size())), days, random))
+                .toList();
+
+        // Прогрев: первые запросы к каждому эндпоинту включают JIT-компиляцию и заполнение кешей
+        run(requests.subList(0, Math.min(200, requests.size())));
+
+        long started = System.nanoTime();
+        List<Result> results = run(requests);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        assertThat(results).allSatisfy(result -> assertThat(result.status()).isEqualTo(200));
+
+        System.out.printf("%nHistory %d days, %d requests, %d clients, %s connections: %.0f req/s%n",
+                days, results.size(), CONCURRENCY,
+                environment.getProperty("app.datasource.concurrency.max-concurrent", "unlimited"),
+                results.size() / elapsedSeconds);
+        System.out.printf("%-14s %8s %10s %10s%n", "endpoint", "count", "p50 ms", "p99 ms");
+        results.stream()
+                .collect(Collectors.groupingBy(Result::endpoint))
+                .entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    long[] latencies = entry.getValue().stream().mapToLong(Result::nanos).sorted().toArray();
+                    System.out.printf("%-14s %8d %10.2f %10.2f%n", entry.getKey(), latencies.length,
+                            percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6);
+                });
+    }
+
+    private Request randomRequest(Long userId, int days, Random random) {
+        LocalDate date = LAST_DAY.minusDays(random.nextInt(days));
+        LocalDate windowStart = date.minusDays(WINDOW_DAYS - 1);
+        String base = "/users/" + userId + "/reports";
+        return switch (random.nextInt(5)) {
+            case 0 -> new Request("daily", base + "/daily?date=" + date);
+            case 1 -> new Request("check-limit", base + "/check-limit?date=" + date);
+            case 2 -> new Request("history", base + "/history?startDate=" + windowStart + "&endDate=" + date);
+            case 3 -> new Request("macros", base + "/macros?date=" + date);
+            default -> new Request("macros-history",
+                    base + "/macros/history?startDate=" + windowStart + "&endDate=" + date);
+        };
+    }
+
+    private List<Result> run(List<Request> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(requests.size());
+            for (Request request : requests) {
+                futures.add(executor.submit(() -> send(request)));
+            }
+            List<Result> results = new ArrayList<>(futures.size());
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Result send(Request request) throws Exception {
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + request.path()))
+                .GET()
+                .build();
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        return new Result(request.endpoint(), response.statusCode(), System.nanoTime() - started);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private record Request(String endpoint, String path) {
+    }
+
+    private record Result(String endpoint, int status, long nanos) {
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.config.ReportSnapshotProperties;
+import org.example.calorietracker.exception.ResourceNotFoundException;
+import org.example.calorietracker.repository.MealRepository;
+import org.example.calorietracker.scheduler.ReportSnapshotJob;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+public class ReportSnapshotJobTest {
+    private final LocalDate date = LocalDate.of(2024, 3, 10);
+    private final MealRepository mealRepository = mock(MealRepository.class);
+    private final ReportSnapshotService reportSnapshotService = mock(ReportSnapshotService.class);
+
+    @Test
+    @DisplayName("Active users are processed in batches by a bounded pool, failures are isolated and open days skipped")
+    void snapshotAll_ShouldProcessAllUsersWithBoundedConcurrency() {
+        ReportSnapshotProperties properties = new ReportSnapshotProperties();
+        properties.setConcurrency(2);
+        properties.setBatchSize(10);
+        List<Long> userIds = LongStream.rangeClosed(1, 55).boxed().toList();
+        given(mealRepository.findUserIdsWithMealsBetween(
+                Instant.parse("2024-02-09T00:00:00Z"), Instant.parse("2024-03-12T00:00:00Z"))).willReturn(userIds);
+
+        Set<Long> processed = ConcurrentHashMap.newKeySet();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        willAnswer(invocation -> {
+            Long userId = invocation.getArgument(0);
+            threads.add(Thread.currentThread().getName());
+            if (userId == 13L) {
+                throw new ResourceNotFoundException("User not found");
+            }
+            if (userId == 42L) {
+                return false;
+            }
+            processed.add(userId);
+            return true;
+        }).given(reportSnapshotService).createSnapshots(any(), eq(date));
+
+        int failed = new ReportSnapshotJob(mealRepository, reportSnapshotService, properties).snapshotAll(date);
+
+        assertThat(failed).isEqualTo(1);
+        assertThat(processed).hasSize(53).doesNotContain(13L, 42L);
+        assertThat(threads).hasSizeLessThanOrEqualTo(2)
+                .allSatisfy(thread -> assertThat(thread).startsWith("report-snapshot-"));
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.config.DishAutocompleteProperties;
+import org.example.calorietracker.config.ParallelQueryProperties;
+import org.example.calorietracker.config.ReportCoalescingProperties;
+import org.example.calorietracker.config.ReportSnapshotProperties;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.DailyReport;
+import org.example.calorietracker.dto.PeriodReport;
+import org.example.calorietracker.dto.meal.MealDTO;
+import org.example.calorietracker.mapper.FoodItemMapperImpl;
+import org.example.calorietracker.mapper.JsonNullableMapperImpl;
+import org.example.calorietracker.mapper.MealMapperImpl;
+import org.example.calorietracker.mapper.ReferenceMapperImpl;
+import org.example.calorietracker.model.DailyNutritionSummary;
+import org.example.calorietracker.model.DailyNutritionSummaryId;
+import org.example.calorietracker.model.Dish;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.Meal;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.DailyReportSnapshotRepository;
+import org.example.calorietracker.repository.RollingWindowSnapshotRepository;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.DataVersionService;
+import org.example.calorietracker.service.DishAutocompleteService;
+import org.example.calorietracker.service.KeysetPagination;
+import org.example.calorietracker.service.MealArchiveService;
+import org.example.calorietracker.service.MealService;
+import org.example.calorietracker.service.ParallelQueryExecutor;
+import org.example.calorietracker.service.PartitionMaintenanceService;
+import org.example.calorietracker.service.ReportRequestCoalescer;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.example.calorietracker.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({MealService.class, DailyNutritionSummaryService.class, DataVersionService.class,
+        ReportSnapshotService.class, ReportSnapshotProperties.class,
+        ParallelQueryExecutor.class, ParallelQueryProperties.class,
+        ReportRequestCoalescer.class, ReportCoalescingProperties.class,
+        DishAutocompleteService.class, DishAutocompleteProperties.class,
+        MealMapperImpl.class, ReferenceMapperImpl.class, JsonNullableMapperImpl.class, FoodItemMapperImpl.class})
+public class ReportSnapshotTest {
+    // 2024-03-10 — воскресенье, окно из 7 дней начинается с понедельника 2024-03-04
+    private final LocalDate date = LocalDate.of(2024, 3, 10);
+    private User user;
+    private Meal meal;
+    private Dish dish;
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private ReportSnapshotService reportSnapshotService;
+
+    @Autowired
+    private DailyReportSnapshotRepository dailyReportSnapshotRepository;
+
+    @Autowired
+    private RollingWindowSnapshotRepository rollingWindowSnapshotRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private KeysetPagination keysetPagination;
+
+    @MockBean
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @MockBean
+    private MealArchiveService mealArchiveService;
+
+    @MockBean
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Test User");
+        user.setEmail("snapshots@example.com");
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+        user.setDailyCalorieIntake(2000.0);
+        entityManager.persist(user);
+        given(userService.getDailyCalorieIntake(user.getId())).willReturn(2000.0);
+        given(userService.getZoneId(user.getId())).willReturn(ZoneOffset.UTC);
+        given(mealArchiveService.archiveHorizon()).willReturn(Instant.MIN);
+
+        meal = new Meal();
+        meal.setUser(user);
+        meal.setEatenAt(date.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        entityManager.persist(meal);
+        dish = new Dish();
+        dish.setName("Pasta");
+        dish.setCalories(2100);
+        dish.setProteins(210);
+        dish.setMeal(meal);
+        entityManager.persist(dish);
+
+        persistSummary(LocalDate.of(2024, 3, 4), 1500);
+        persistSummary(LocalDate.of(2024, 3, 5), 1800);
+        persistSummary(LocalDate.of(2024, 3, 6), 2500);
+        persistSummary(LocalDate.of(2024, 3, 7), 1900);
+        persistSummary(LocalDate.of(2024, 3, 8), 1000);
+        persistSummary(date, 2100);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Past daily reports and history are read from snapshots with a single lookup")
+    void getNutritionHistory_WhenSnapshotsExist_ShouldReadSnapshots() {
+        reportSnapshotService.createSnapshots(user.getId(), date.minusDays(1));
+        reportSnapshotService.createSnapshots(user.getId(), date);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<DailyReport> history = mealService.getNutritionHistory(user.getId(), date.minusDays(1), date);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(history).extracting(DailyReport::getDate, DailyReport::getTotalCalories)
+                .containsExactly(
+                        tuple(date.minusDays(1), 0.0),
+                        tuple(date, 2100.0));
+        assertThat(history.get(1).getMeals()).extracting(MealDTO::getId, MealDTO::getDishIds)
+                .containsExactly(tuple(meal.getId(), List.of(dish.getId())));
+        assertThat(mealService.getDailyReport(user.getId(), date).getMeals()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("History mixes snapshots with days computed from the source tables")
+    void getNutritionHistory_WhenSomeSnapshotsMissing_ShouldComputeMissingDays() {
+        reportSnapshotService.createSnapshots(user.getId(), date.minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DailyReport> history = mealService.getNutritionHistory(user.getId(), date.minusDays(2), date);
+
+        assertThat(history).extracting(DailyReport::getDate, DailyReport::getTotalCalories)
+                .containsExactly(
+                        tuple(date.minusDays(2), 1000.0),
+                        tuple(date.minusDays(1), 0.0),
+                        tuple(date, 2100.0));
+        assertThat(history.get(2).getMeals()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Rolling window snapshots match the live computation")
+    void getRollingWindowReport_ShouldMatchLiveComputation() {
+        PeriodReport live = mealService.getRollingWindowReport(user.getId(), date, 7);
+        reportSnapshotService.createSnapshots(user.getId(), date);
+        entityManager.flush();
+        entityManager.clear();
+
+        PeriodReport snapshot = mealService.getRollingWindowReport(user.getId(), date, 7);
+
+        assertThat(snapshot).usingRecursiveComparison().isEqualTo(live);
+        assertThat(live.getPeriodStart()).isEqualTo(LocalDate.of(2024, 3, 4));
+        assertThat(live.getTotalCalories()).isEqualTo(10800.0);
+        assertThat(live.getAverageCalories()).isEqualTo(1800.0);
+        assertThat(live.getDaysLogged()).isEqualTo(6);
+        assertThat(live.getDaysOverLimit()).isEqualTo(2);
+        assertThat(live.getLongestStreakWithinLimit()).isEqualTo(2);
+        assertThat(rollingWindowSnapshotRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Changing a past day removes the snapshots that include it")
+    void delete_WhenMealInSnapshotDay_ShouldInvalidateSnapshots() {
+        reportSnapshotService.createSnapshots(user.getId(), date);
+        entityManager.flush();
+
+        mealService.delete(meal.getId());
+        entityManager.flush();
+
+        assertThat(dailyReportSnapshotRepository.findById(new DailyNutritionSummaryId(user.getId(), date))).isEmpty();
+        assertThat(rollingWindowSnapshotRepository.count()).isZero();
+        assertThat(mealService.getDailyReport(user.getId(), date).getMeals()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Snapshots are not created for a day that has not ended in the user's time zone")
+    void createSnapshots_WhenDayNotEndedInUsersZone_ShouldSkip() {
+        ZoneId zone = ZoneId.of("Pacific/Kiritimati");
+        entityManager.find(User.class, user.getId()).setTimeZone(zone.getId());
+        entityManager.flush();
+
+        assertThat(reportSnapshotService.createSnapshots(user.getId(), LocalDate.now(zone))).isFalse();
+        assertThat(reportSnapshotService.createSnapshots(user.getId(), date)).isTrue();
+        entityManager.flush();
+
+        assertThat(dailyReportSnapshotRepository.count()).isEqualTo(1);
+    }
+
+    private void persistSummary(LocalDate day, double calories) {
+        entityManager.persist(new DailyNutritionSummary(
+                new DailyNutritionSummaryId(user.getId(), day), calories, calories / 10, 0, 0));
+    }
+}
@@ -2,6 +2,7 @@ package org.example.calorietracker;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.calorietracker.controller.UserController;
+import org.example.calorietracker.dto.CursorPage;
 import org.example.calorietracker.dto.user.UserCreateDTO;
 import org.example.calorietracker.dto.user.UserDTO;
 import org.example.calorietracker.dto.user.UserUpdateDTO;
@@ -73,6 +74,7 @@ public class UserControllerTest {
                 1300.0,
                 GenderType.MALE,
                 GoalType.WEIGHT_GAIN,
+                "UTC",
                 List.of(1L, 2L));
         createDTO = new UserCreateDTO(
                 "testuser",
@@ -81,7 +83,8 @@ public class UserControllerTest {
                 72.3,
                 171.0,
                 GenderType.MALE,
-                GoalType.WEIGHT_GAIN);
+                GoalType.WEIGHT_GAIN,
+                "Europe/Moscow");
         updateDTO = new UserUpdateDTO(
                 "updateduser",
                 "updated@example.com",
@@ -89,33 +92,35 @@ public class UserControllerTest {
                 72.3,
                 171.0,
                 GenderType.MALE,
-                GoalType.WEIGHT_GAIN);
+                GoalType.WEIGHT_GAIN,
+                "Europe/Moscow");
     }
 
     @Test
     @DisplayName("GET /users get all users and return status 200 OK")
     void getAllUsersTest() throws Exception {
         List<UserDTO> users = List.of(userDTO);
-        given(userService.getAll()).willReturn(users);
+        given(userService.getAll(null, null)).willReturn(new CursorPage<>(users, null));
 
         mockMvc.perform(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(JSON_CONTENT_TYPE))
-                .andExpect(jsonPath("$[0].id").value(userDTO.getId()))
-                .andExpect(jsonPath("$[0].name").value(userDTO.getName()))
-                .andExpect(jsonPath("$[0].email").value(userDTO.getEmail()));
+                .andExpect(jsonPath("$.items[0].id").value(userDTO.getId()))
+                .andExpect(jsonPath("$.items[0].name").value(userDTO.getName()))
+                .andExpect(jsonPath("$.items[0].email").value(userDTO.getEmail()))
+                .andExpect(jsonPath("$.next").doesNotExist());
     }
 
     @Test
     @DisplayName("GET /users get not found users and return empty list users, status 200 Ok")
     void getAllUsersWhenNoUsersTest() throws Exception {
-        given(userService.getAll()).willReturn(Collections.emptyList());
+        given(userService.getAll(null, null)).willReturn(new CursorPage<>(Collections.emptyList(), null));
 
         mockMvc.perform(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(JSON_CONTENT_TYPE))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$").isEmpty());
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items").isEmpty());
     }
 
     @Test
@@ -160,7 +165,7 @@ public class UserControllerTest {
     @DisplayName("POST /users create user with invalid data and return status 400 BAD_REQUEST")
     void createUserWhenInvalidDataTest() throws Exception {
         UserCreateDTO invalidDTO = new UserCreateDTO(
-                "", "invalid-email", 22, 23.0, 45.0, GenderType.MALE, GoalType.WEIGHT_GAIN);
+                "", "invalid-email", 22, 23.0, 45.0, GenderType.MALE, GoalType.WEIGHT_GAIN, null);
 
         mockMvc.perform(post(BASE_URL)
                         .contentType(JSON_CONTENT_TYPE)
@@ -180,6 +185,7 @@ public class UserControllerTest {
                 1200.0,
                 GenderType.MALE,
                 GoalType.WEIGHT_GAIN,
+                "UTC",
                 List.of(1L, 2L));
         given(userService.update(any(UserUpdateDTO.class), anyLong())).willReturn(updatedUser);
 
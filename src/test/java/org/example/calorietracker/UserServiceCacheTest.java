@@ -0,0 +1,136 @@
+package org.example.calorietracker;
+
+import org.example.calorietracker.config.CacheConfig;
+import org.example.calorietracker.datasource.ReadYourWritesTracker;
+import org.example.calorietracker.dto.user.UserUpdateDTO;
+import org.example.calorietracker.mapper.UserMapper;
+import org.example.calorietracker.model.GenderType;
+import org.example.calorietracker.model.GoalType;
+import org.example.calorietracker.model.User;
+import org.example.calorietracker.repository.UserRepository;
+import org.example.calorietracker.service.DailyNutritionSummaryService;
+import org.example.calorietracker.service.KeysetPagination;
+import org.example.calorietracker.service.ReportSnapshotService;
+import org.example.calorietracker.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig({UserService.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.cache.cache-names=" + CacheConfig.DAILY_CALORIE_INTAKE_CACHE + "," + CacheConfig.USER_ZONE_CACHE,
+        "spring.cache.caffeine.spec=maximumSize=100,recordStats"
+})
+public class UserServiceCacheTest {
+    private final Long userId = 1L;
+    private User user;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserMapper userMapper;
+
+    @MockBean
+    private KeysetPagination keysetPagination;
+
+    @MockBean
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @MockBean
+    private DailyNutritionSummaryService summaryService;
+
+    @MockBean
+    private ReportSnapshotService reportSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.DAILY_CALORIE_INTAKE_CACHE).clear();
+
+        user = new User();
+        user.setId(userId);
+        user.setDailyCalorieIntake(2000.0);
+        given(userRepository.findById(userId)).willReturn(Optional.of(user));
+        given(userRepository.findByIdForUpdate(userId)).willReturn(Optional.of(user));
+        given(userRepository.save(any(User.class))).willReturn(user);
+    }
+
+    @Test
+    @DisplayName("Repeated intake lookups are served from the cache")
+    void getDailyCalorieIntake_ShouldReadUserOnce() {
+        assertThat(userService.getDailyCalorieIntake(userId)).isEqualTo(2000.0);
+        assertThat(userService.getDailyCalorieIntake(userId)).isEqualTo(2000.0);
+
+        verify(userRepository, times(1)).findById(userId);
+    }
+
+    @Test
+    @DisplayName("Updating a user evicts the cached intake")
+    void update_ShouldEvictCachedIntake() {
+        userService.getDailyCalorieIntake(userId);
+        userService.update(new UserUpdateDTO("New Name", null, null, null, null, null, null, null), userId);
+        userService.getDailyCalorieIntake(userId);
+
+        // По одному вызову на каждое чтение нормы мимо кеша
+        verify(userRepository, times(2)).findById(userId);
+        verify(reportSnapshotService, never()).invalidateRollingWindows(userId);
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the cached intake is evicted only after commit")
+    void update_InTransaction_ShouldEvictAfterCommit() {
+        userService.getDailyCalorieIntake(userId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.update(new UserUpdateDTO("New Name", null, null, null, null, null, null, null), userId);
+            assertThat(cacheManager.getCache(CacheConfig.DAILY_CALORIE_INTAKE_CACHE).get(userId)).isNotNull();
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cacheManager.getCache(CacheConfig.DAILY_CALORIE_INTAKE_CACHE).get(userId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Changing the calorie target removes rolling window snapshots")
+    void update_WhenIntakeChanges_ShouldInvalidateRollingWindows() {
+        user.setAge(30);
+        user.setWeight(75.0);
+        user.setHeight(180.0);
+        user.setGender(GenderType.MALE);
+        user.setGoal(GoalType.MAINTENANCE);
+
+        userService.update(new UserUpdateDTO(null, null, null, 75.0, null, null, null, null), userId);
+
+        assertThat(user.getDailyCalorieIntake()).isNotEqualTo(2000.0);
+        verify(reportSnapshotService).invalidateRollingWindows(userId);
+    }
+}